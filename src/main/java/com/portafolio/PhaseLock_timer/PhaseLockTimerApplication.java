@@ -4,11 +4,15 @@ import com.portafolio.PhaseLock_timer.config.BlockConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableConfigurationProperties(BlockConfiguration.class)
 @EnableAsync
+@EnableScheduling
+@EnableCaching
 public class PhaseLockTimerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,35 @@
+package com.portafolio.PhaseLock_timer.config;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.List;
+
+/**
+ * Negocia permessage-deflate (RFC 7692) solo si está habilitado. El contenedor
+ * (Tomcat) lo implementa; sin este filtro se acepta siempre que el cliente lo ofrezca.
+ */
+public class CompressionHandshakeHandler extends DefaultHandshakeHandler {
+
+    public static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final boolean perMessageDeflate;
+
+    public CompressionHandshakeHandler(boolean perMessageDeflate) {
+        this.perMessageDeflate = perMessageDeflate;
+    }
+
+    @Override
+    protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                 List<WebSocketExtension> requestedExtensions,
+                                                                 List<WebSocketExtension> supportedExtensions) {
+        List<WebSocketExtension> accepted = super.filterRequestedExtensions(request, requestedExtensions, supportedExtensions);
+        if (perMessageDeflate) {
+            return accepted;
+        }
+        return accepted.stream()
+            .filter(extension -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName()))
+            .toList();
+    }
+}
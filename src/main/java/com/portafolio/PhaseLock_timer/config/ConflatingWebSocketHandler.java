@@ -0,0 +1,39 @@
+package com.portafolio.PhaseLock_timer.config;
+
+import com.portafolio.PhaseLock_timer.service.OutboundFrameMetrics;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Envuelve cada conexión nueva en un {@link ConflatingWebSocketSession} antes de
+ * entregarla al handler STOMP, de modo que todos los envíos pasen por su buzón.
+ */
+public class ConflatingWebSocketHandler extends WebSocketHandlerDecorator {
+
+    private final Executor sendExecutor;
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final OutboundFrameMetrics metrics;
+    private final DrainRetrySweeper retrySweeper;
+
+    public ConflatingWebSocketHandler(WebSocketHandler delegate, Executor sendExecutor,
+                                      int sendTimeLimit, int bufferSizeLimit, OutboundFrameMetrics metrics,
+                                      DrainRetrySweeper retrySweeper) {
+        super(delegate);
+        this.sendExecutor = sendExecutor;
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.metrics = metrics;
+        this.retrySweeper = retrySweeper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        super.afterConnectionEstablished(
+            new ConflatingWebSocketSession(session, sendExecutor, sendTimeLimit, bufferSizeLimit, metrics,
+                                           retrySweeper));
+    }
+}
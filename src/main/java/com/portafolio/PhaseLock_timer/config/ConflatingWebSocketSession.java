@@ -0,0 +1,251 @@
+package com.portafolio.PhaseLock_timer.config;
+
+import com.portafolio.PhaseLock_timer.service.OutboundFrameMetrics;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Buzón de salida por conexión. {@link #sendMessage} nunca bloquea: deja el frame
+ * pendiente y un hilo del pool de envío lo vacía hacia el socket real.
+ *
+ * Los frames MESSAGE de /topic/timer/** se "conflatan": si el cliente aún no recibió
+ * el tick anterior de esa suscripción (destino + id de suscripción), se sustituye por
+ * el último en lugar de encolarse. El resto de
+ * frames (CONNECTED, RECEIPT, ERROR...) se envían en orden y cuentan contra el límite
+ * de buffer; superarlo, o tener un envío atascado más que el límite de tiempo,
+ * cierra la sesión. Si el pool de envío rechaza el vaciado, lo reintenta
+ * {@link DrainRetrySweeper}; el hilo que llama a sendMessage nunca escribe en el socket.
+ */
+class ConflatingWebSocketSession extends WebSocketSessionDecorator {
+
+    private static final String MESSAGE_COMMAND = "MESSAGE\n";
+    private static final String TIMER_DESTINATION_PREFIX = "/topic/timer/";
+    private static final int MAX_HEADER_SCAN = 1024;
+
+    private final Executor sendExecutor;
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final OutboundFrameMetrics metrics;
+    private final DrainRetrySweeper retrySweeper;
+
+    private final Queue<WebSocketMessage<?>> ordered = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger orderedBytes = new AtomicInteger();
+    // destino + suscripción -> último frame de timer aún no enviado
+    private final Map<String, WebSocketMessage<?>> latest = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile long sendStartTime;
+    private volatile boolean closed;
+
+    ConflatingWebSocketSession(WebSocketSession delegate, Executor sendExecutor,
+                               int sendTimeLimit, int bufferSizeLimit, OutboundFrameMetrics metrics,
+                               DrainRetrySweeper retrySweeper) {
+        super(delegate);
+        this.sendExecutor = sendExecutor;
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.metrics = metrics;
+        this.retrySweeper = retrySweeper;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        if (closed) {
+            metrics.framesDropped(1);
+            return;
+        }
+
+        String conflationKey = conflationKeyOf(message);
+        if (conflationKey != null) {
+            if (latest.put(conflationKey, message) != null) {
+                metrics.frameConflated();
+            }
+        } else {
+            ordered.add(message);
+            orderedBytes.addAndGet(message.getPayloadLength());
+        }
+
+        if (!checkLimits()) {
+            scheduleDrain();
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        closed = true;
+        ordered.clear();
+        latest.clear();
+        super.close(status);
+    }
+
+    /**
+     * @return true si la sesión se cerró por superar un límite
+     */
+    private boolean checkLimits() {
+        long start = sendStartTime;
+        if (start > 0 && System.currentTimeMillis() - start > sendTimeLimit) {
+            terminate();
+            return true;
+        }
+        if (orderedBytes.get() > bufferSizeLimit) {
+            terminate();
+            return true;
+        }
+        return false;
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Pool lleno: no se vacía aquí (el hilo es del canal de salida y este socket puede
+            // estar atascado); el barrido lo reintenta aunque no lleguen más frames
+            draining.set(false);
+            metrics.drainRejected();
+            retrySweeper.retryLater(this);
+        }
+    }
+
+    /**
+     * Reintento desde {@link DrainRetrySweeper} tras un rechazo del pool
+     */
+    void retryDrain() {
+        if (!closed && hasPending()) {
+            scheduleDrain();
+        }
+    }
+
+    private void drain() {
+        try {
+            WebSocketMessage<?> message;
+            while (!closed && (message = nextPending()) != null) {
+                sendStartTime = System.currentTimeMillis();
+                getDelegate().sendMessage(message);
+                sendStartTime = 0;
+                metrics.frameSent();
+            }
+        } catch (IOException | RuntimeException e) {
+            terminate();
+        } finally {
+            sendStartTime = 0;
+            draining.set(false);
+        }
+        // Un frame pudo llegar justo después de vaciar y antes de liberar el flag
+        if (!closed && hasPending()) {
+            scheduleDrain();
+        }
+    }
+
+    private WebSocketMessage<?> nextPending() {
+        WebSocketMessage<?> message = ordered.poll();
+        if (message != null) {
+            orderedBytes.addAndGet(-message.getPayloadLength());
+            return message;
+        }
+        Iterator<String> keys = latest.keySet().iterator();
+        while (keys.hasNext()) {
+            message = latest.remove(keys.next());
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasPending() {
+        return !ordered.isEmpty() || !latest.isEmpty();
+    }
+
+    private void terminate() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        metrics.sessionTerminated();
+        metrics.framesDropped(ordered.size() + latest.size());
+        ordered.clear();
+        latest.clear();
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (Exception e) {
+            System.err.println("Error closing slow WebSocket session " + getId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Clave de conflación (destino + id de suscripción) si el frame es un MESSAGE STOMP
+     * de /topic/timer/**; null en otro caso. Dos suscripciones al mismo destino en la
+     * misma conexión conservan cada una su último frame.
+     */
+    static String conflationKeyOf(WebSocketMessage<?> message) {
+        String headers = headersOf(message);
+        if (headers == null) {
+            return null;
+        }
+        String destination = headerValue(headers, "destination");
+        if (destination == null || !destination.startsWith(TIMER_DESTINATION_PREFIX)) {
+            return null;
+        }
+        String subscription = headerValue(headers, "subscription");
+        return subscription == null ? destination : destination + '\n' + subscription;
+    }
+
+    /**
+     * Cabeceras de un MESSAGE STOMP (sin el comando); null si es otro frame
+     */
+    private static String headersOf(WebSocketMessage<?> message) {
+        String prefix;
+        if (message instanceof TextMessage text) {
+            String payload = text.getPayload();
+            prefix = payload.substring(0, Math.min(payload.length(), MAX_HEADER_SCAN));
+        } else if (message instanceof BinaryMessage binary) {
+            ByteBuffer payload = binary.getPayload().duplicate();
+            byte[] bytes = new byte[Math.min(payload.remaining(), MAX_HEADER_SCAN)];
+            payload.get(bytes);
+            prefix = new String(bytes, StandardCharsets.ISO_8859_1);
+        } else {
+            return null;
+        }
+
+        if (!prefix.startsWith(MESSAGE_COMMAND)) {
+            return null;
+        }
+        // Se conserva el \n del comando para que toda cabecera empiece por \n
+        int headersEnd = prefix.indexOf("\n\n");
+        return prefix.substring(MESSAGE_COMMAND.length() - 1, headersEnd < 0 ? prefix.length() : headersEnd + 1);
+    }
+
+    /**
+     * Valor de la primera cabecera {@code name} (la que manda según STOMP); null si no está
+     */
+    private static String headerValue(String headers, String name) {
+        String prefix = "\n" + name + ":";
+        int start = headers.indexOf(prefix);
+        if (start < 0) {
+            return null;
+        }
+        start += prefix.length();
+        int end = headers.indexOf('\n', start);
+        return end < 0 ? null : headers.substring(start, end);
+    }
+}
@@ -0,0 +1,39 @@
+package com.portafolio.PhaseLock_timer.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reintenta los vaciados que el pool de envío rechazó. Una sesión rechazada se apunta
+ * aquí una sola vez y el barrido periódico la vuelve a encolar; así ningún frame queda
+ * parado y el hilo del canal de salida nunca escribe en un socket.
+ */
+@Component
+public class DrainRetrySweeper {
+
+    private final Set<ConflatingWebSocketSession> pending = ConcurrentHashMap.newKeySet();
+
+    void retryLater(ConflatingWebSocketSession session) {
+        pending.add(session);
+    }
+
+    @Scheduled(fixedDelayString = "${phaselock.ws.drain-retry-interval-ms:50}")
+    public void sweep() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Copia: una sesión rechazada otra vez se apunta de nuevo para el próximo barrido
+        for (ConflatingWebSocketSession session : List.copyOf(pending)) {
+            pending.remove(session);
+            session.retryDrain();
+        }
+    }
+
+    int getPendingCount() {
+        return pending.size();
+    }
+}
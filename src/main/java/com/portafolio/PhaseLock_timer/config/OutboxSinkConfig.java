@@ -0,0 +1,43 @@
+package com.portafolio.PhaseLock_timer.config;
+
+import com.portafolio.PhaseLock_timer.service.FileOutboxSink;
+import com.portafolio.PhaseLock_timer.service.InMemoryOutboxSink;
+import com.portafolio.PhaseLock_timer.service.WebhookOutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Sinks del outbox, cada uno activado por su propiedad. Sin ninguno, el outbox no escribe nada.
+ */
+@Configuration
+public class OutboxSinkConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "phaselock.outbox.webhook", name = "url")
+    public WebhookOutboxSink webhookOutboxSink(
+            @Value("${phaselock.outbox.webhook.url}") String url,
+            @Value("${phaselock.outbox.webhook.timeout-ms:5000}") long timeoutMs,
+            JsonMapper jsonMapper) {
+        return new WebhookOutboxSink(url, Duration.ofMillis(timeoutMs), jsonMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "phaselock.outbox.file", name = "path")
+    public FileOutboxSink fileOutboxSink(@Value("${phaselock.outbox.file.path}") String path,
+                                         JsonMapper jsonMapper) {
+        return new FileOutboxSink(Path.of(path), jsonMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "phaselock.outbox.memory", name = "enabled", havingValue = "true")
+    public InMemoryOutboxSink inMemoryOutboxSink(
+            @Value("${phaselock.outbox.memory.capacity:1000}") int capacity) {
+        return new InMemoryOutboxSink(capacity);
+    }
+}
@@ -0,0 +1,80 @@
+package com.portafolio.PhaseLock_timer.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import com.portafolio.PhaseLock_timer.model.Phase;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.Map;
+
+/**
+ * Codificación binaria compacta de {@link TimerStatusDTO} para /topic/timer/{id}/cbor.
+ *
+ * Layout v1: un array CBOR sin nombres de campo, en este orden:
+ * [sessionId, blockId, status, currentPhase, currentPhaseIndex, remainingSeconds,
+ *  totalElapsedSeconds, totalPhases, scheduledAt, producedAt].
+ * status y currentPhase van como ordinal del enum; los textos formateados se
+ * calculan en el cliente. Cambiar el orden o los enums exige subir la versión.
+ *
+ * El content-type es application/octet-stream (con codec=cbor) porque es el que
+ * hace que Spring envíe el frame STOMP como mensaje WebSocket binario.
+ */
+@Component
+public class TimerCborMessageConverter extends AbstractMessageConverter {
+
+    public static final MimeType CBOR_FRAME = new MimeType("application", "octet-stream",
+                                                           Map.of("codec", "cbor", "layout", "1"));
+
+    private final CBORMapper cborMapper = CBORMapper.builder()
+        .addMixIn(TimerStatusDTO.class, TimerStatusLayout.class)
+        .addMixIn(TimerStatus.class, EnumAsOrdinal.class)
+        .addMixIn(Phase.class, EnumAsOrdinal.class)
+        .build();
+
+    public TimerCborMessageConverter() {
+        super(CBOR_FRAME);
+        setStrictContentTypeMatch(true);
+    }
+
+    public byte[] encode(TimerStatusDTO status) {
+        return cborMapper.writeValueAsBytes(status);
+    }
+
+    public TimerStatusDTO decode(byte[] frame) {
+        return cborMapper.readValue(frame, TimerStatusDTO.class);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TimerStatusDTO.class == clazz;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        return message.getPayload() instanceof byte[] frame ? decode(frame) : null;
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return encode((TimerStatusDTO) payload);
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"sessionId", "blockId", "status", "currentPhase", "currentPhaseIndex",
+                        "remainingSeconds", "totalElapsedSeconds", "totalPhases", "scheduledAt", "producedAt"})
+    @JsonIgnoreProperties({"formattedRemainingTime", "formattedElapsedTime"})
+    private abstract static class TimerStatusLayout {
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.NUMBER)
+    private abstract static class EnumAsOrdinal {
+    }
+}
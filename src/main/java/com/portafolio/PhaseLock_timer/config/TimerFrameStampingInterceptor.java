@@ -0,0 +1,41 @@
+package com.portafolio.PhaseLock_timer.config;
+
+import com.portafolio.PhaseLock_timer.service.TimerClock;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Añade a cada frame de /topic/timer/** la cabecera STOMP {@code x-sent-at} con el
+ * instante (epoch ms) en que el broker lo entrega al canal de salida del cliente.
+ */
+public class TimerFrameStampingInterceptor implements ChannelInterceptor {
+
+    public static final String SENT_AT_HEADER = "x-sent-at";
+
+    private static final String TIMER_TOPIC_PREFIX = "/topic/timer/";
+
+    private final TimerClock clock;
+
+    public TimerFrameStampingInterceptor(TimerClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(TIMER_TOPIC_PREFIX)) {
+            return message;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(SENT_AT_HEADER, Long.toString(clock.epochMillis()));
+        return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+    }
+}
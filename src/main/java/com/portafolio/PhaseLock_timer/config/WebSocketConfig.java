@@ -1,15 +1,56 @@
 package com.portafolio.PhaseLock_timer.config;
 
+import com.portafolio.PhaseLock_timer.service.OutboundFrameMetrics;
+import com.portafolio.PhaseLock_timer.service.TimerClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.List;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final TimerClock clock;
+    private final OutboundFrameMetrics outboundMetrics;
+    private final TimerCborMessageConverter cborConverter;
+    private final DrainRetrySweeper drainRetrySweeper;
+
+    @Value("${phaselock.ws.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${phaselock.ws.send-buffer-size-limit:65536}")
+    private int sendBufferSizeLimit;
+
+    @Value("${phaselock.ws.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${phaselock.ws.outbound-pool-size:8}")
+    private int outboundPoolSize;
+
+    @Value("${phaselock.ws.outbound-queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${phaselock.ws.permessage-deflate:true}")
+    private boolean perMessageDeflate;
+
+    public WebSocketConfig(TimerClock clock, OutboundFrameMetrics outboundMetrics,
+                           TimerCborMessageConverter cborConverter, DrainRetrySweeper drainRetrySweeper) {
+        this.clock = clock;
+        this.outboundMetrics = outboundMetrics;
+        this.cborConverter = cborConverter;
+        this.drainRetrySweeper = drainRetrySweeper;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple in-memory message broker to carry messages back to the client
@@ -20,10 +61,58 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        // Register the /ws endpoint for WebSocket connections
+        CompressionHandshakeHandler handshakeHandler = new CompressionHandshakeHandler(perMessageDeflate);
+        // Plain WebSocket endpoint (no SockJS framing or info request), preferred by the frontend
+        registry.addEndpoint("/ws-native")
+                .setAllowedOriginPatterns("*")
+                .setHandshakeHandler(handshakeHandler);
+        // Register the /ws endpoint for WebSocket connections (SockJS fallback)
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
+                .setHandshakeHandler(handshakeHandler)
                 .withSockJS();
     }
-}
 
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // Binary timer frames (content-type application/octet-stream;codec=cbor); keep the defaults too
+        messageConverters.add(cborConverter);
+        return true;
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Stamp timer frames with the broker hand-off time (x-sent-at) for latency reporting
+        registration.interceptors(new TimerFrameStampingInterceptor(clock));
+        // Bounded pool: frames only pass through it on their way to the per-connection mailbox
+        registration.taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Slow clients: timer frames are conflated per connection, the rest count against
+        // the buffer limit; a stuck send or an overflowing buffer closes the session
+        registration.setSendTimeLimit(sendTimeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(handler -> new ConflatingWebSocketHandler(
+                        handler, webSocketSendExecutor(), sendTimeLimit, sendBufferSizeLimit, outboundMetrics,
+                        drainRetrySweeper));
+    }
+
+    /**
+     * Hilos que escriben en los sockets. Cada conexión ocupa como mucho uno a la vez.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor webSocketSendExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(outboundPoolSize);
+        executor.setMaxPoolSize(outboundPoolSize);
+        executor.setQueueCapacity(outboundQueueCapacity);
+        executor.setThreadNamePrefix("ws-send-");
+        return executor;
+    }
+}
@@ -1,7 +1,9 @@
 package com.portafolio.PhaseLock_timer.controller;
 
+import com.portafolio.PhaseLock_timer.dto.BatchPreviewRequestDTO;
 import com.portafolio.PhaseLock_timer.dto.BlockConfigurationDTO;
 import com.portafolio.PhaseLock_timer.dto.BlockSequenceDTO;
+import com.portafolio.PhaseLock_timer.dto.SequencePreviewCellDTO;
 import com.portafolio.PhaseLock_timer.dto.TimeBlockDTO;
 import com.portafolio.PhaseLock_timer.service.BlockService;
 import jakarta.validation.Valid;
@@ -75,6 +77,16 @@ public class BlockController {
         return ResponseEntity.ok(sequence);
     }
 
+    /**
+     * RF1.3: Preview por lotes de una rejilla de configuraciones
+     * POST /api/blocks/preview/batch
+     */
+    @PostMapping("/preview/batch")
+    public ResponseEntity<List<SequencePreviewCellDTO>> previewBatch(@Valid @RequestBody BatchPreviewRequestDTO request) {
+        List<SequencePreviewCellDTO> cells = blockService.previewBatch(request);
+        return ResponseEntity.ok(cells);
+    }
+
     /**
      * Obtener valores por defecto
      * GET /api/blocks/defaults
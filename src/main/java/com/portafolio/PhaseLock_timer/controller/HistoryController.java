@@ -0,0 +1,57 @@
+package com.portafolio.PhaseLock_timer.controller;
+
+import com.portafolio.PhaseLock_timer.dto.DailyStatsDTO;
+import com.portafolio.PhaseLock_timer.service.HistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/history")
+public class HistoryController {
+
+    private static final int DEFAULT_RANGE_DAYS = 7;
+
+    private final HistoryService historyService;
+
+    @Autowired
+    public HistoryController(HistoryService historyService) {
+        this.historyService = historyService;
+    }
+
+    /**
+     * Historial diario (todos los bloques o uno concreto); por defecto los últimos 7 días
+     * hasta hoy según el reloj con el que se registran los acumulados
+     * GET /api/history/daily?from=2025-01-01&to=2025-01-07&blockId=1
+     */
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyStatsDTO>> getDailyStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long blockId) {
+        LocalDate end = to != null ? to : historyService.today();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+
+        List<DailyStatsDTO> stats = blockId != null
+            ? historyService.getDailyStatsForBlock(blockId, start, end)
+            : historyService.getDailyStats(start, end);
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Totales del rango
+     * GET /api/history/summary?from=2025-01-01&to=2025-01-07
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<DailyStatsDTO> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : historyService.today();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        return ResponseEntity.ok(historyService.getSummary(start, end));
+    }
+}
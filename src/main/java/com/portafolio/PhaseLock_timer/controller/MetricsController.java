@@ -0,0 +1,121 @@
+package com.portafolio.PhaseLock_timer.controller;
+
+import com.portafolio.PhaseLock_timer.dto.CacheStatsDTO;
+import com.portafolio.PhaseLock_timer.dto.ClockProbeDTO;
+import com.portafolio.PhaseLock_timer.dto.LatencyHistogramDTO;
+import com.portafolio.PhaseLock_timer.dto.LatencySampleDTO;
+import com.portafolio.PhaseLock_timer.dto.OutboundStatsDTO;
+import com.portafolio.PhaseLock_timer.dto.OutboxStatsDTO;
+import com.portafolio.PhaseLock_timer.dto.RetentionStatsDTO;
+import com.portafolio.PhaseLock_timer.dto.SubscriptionStatsDTO;
+import com.portafolio.PhaseLock_timer.service.CacheMetricsService;
+import com.portafolio.PhaseLock_timer.service.LatencyReportService;
+import com.portafolio.PhaseLock_timer.service.OutboundFrameMetrics;
+import com.portafolio.PhaseLock_timer.service.OutboxService;
+import com.portafolio.PhaseLock_timer.service.RetentionService;
+import com.portafolio.PhaseLock_timer.service.TimerSubscriptionRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final LatencyReportService latencyReportService;
+    private final TimerSubscriptionRegistry subscriptionRegistry;
+    private final OutboundFrameMetrics outboundFrameMetrics;
+    private final CacheMetricsService cacheMetricsService;
+    private final OutboxService outboxService;
+    private final RetentionService retentionService;
+
+    @Autowired
+    public MetricsController(LatencyReportService latencyReportService,
+                             TimerSubscriptionRegistry subscriptionRegistry,
+                             OutboundFrameMetrics outboundFrameMetrics,
+                             CacheMetricsService cacheMetricsService,
+                             OutboxService outboxService,
+                             RetentionService retentionService) {
+        this.latencyReportService = latencyReportService;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.outboundFrameMetrics = outboundFrameMetrics;
+        this.cacheMetricsService = cacheMetricsService;
+        this.outboxService = outboxService;
+        this.retentionService = retentionService;
+    }
+
+    /**
+     * Recibir muestras de latencia medidas en el cliente
+     * POST /api/metrics/latency
+     */
+    @PostMapping("/latency")
+    public ResponseEntity<Void> reportLatency(@RequestBody List<LatencySampleDTO> samples) {
+        latencyReportService.record(samples);
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Hora del servidor para estimar el desfase del reloj del cliente
+     * GET /api/metrics/clock
+     */
+    @GetMapping("/clock")
+    public ResponseEntity<ClockProbeDTO> probeClock() {
+        return ResponseEntity.ok(latencyReportService.probeClock());
+    }
+
+    /**
+     * Histogramas agregados: scheduler, broker, red y extremo a extremo
+     * GET /api/metrics/latency
+     */
+    @GetMapping("/latency")
+    public ResponseEntity<List<LatencyHistogramDTO>> getLatencyHistograms() {
+        return ResponseEntity.ok(latencyReportService.getHistograms());
+    }
+
+    /**
+     * Suscriptores por destino y ticks no publicados por falta de suscriptores
+     * GET /api/metrics/subscriptions
+     */
+    @GetMapping("/subscriptions")
+    public ResponseEntity<SubscriptionStatsDTO> getSubscriptionStats() {
+        return ResponseEntity.ok(subscriptionRegistry.getStats());
+    }
+
+    /**
+     * Frames enviados, conflated y descartados en el canal de salida WebSocket
+     * GET /api/metrics/outbound
+     */
+    @GetMapping("/outbound")
+    public ResponseEntity<OutboundStatsDTO> getOutboundStats() {
+        return ResponseEntity.ok(outboundFrameMetrics.getStats());
+    }
+
+    /**
+     * Aciertos/fallos de las cachés de bloques (Hibernate L2, consultas y Spring)
+     * GET /api/metrics/cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheMetricsService.getStats());
+    }
+
+    /**
+     * Eventos del outbox pendientes, entregados y fallidos, y sinks activos
+     * GET /api/metrics/outbox
+     */
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxStatsDTO> getOutboxStats() {
+        return ResponseEntity.ok(outboxService.getStats());
+    }
+
+    /**
+     * Sesiones vivas y archivadas, y resultado de la última pasada de retención
+     * GET /api/metrics/retention
+     */
+    @GetMapping("/retention")
+    public ResponseEntity<RetentionStatsDTO> getRetentionStats() {
+        return ResponseEntity.ok(retentionService.getStats());
+    }
+}
@@ -0,0 +1,70 @@
+package com.portafolio.PhaseLock_timer.controller;
+
+import com.portafolio.PhaseLock_timer.dto.RecurringOccurrenceDTO;
+import com.portafolio.PhaseLock_timer.dto.RecurringScheduleDTO;
+import com.portafolio.PhaseLock_timer.dto.RecurringScheduleRequestDTO;
+import com.portafolio.PhaseLock_timer.service.RecurringScheduleService;
+import com.portafolio.PhaseLock_timer.service.TimerClock;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recurring")
+public class RecurringScheduleController {
+
+    private final RecurringScheduleService recurringScheduleService;
+    private final TimerClock clock;
+
+    @Autowired
+    public RecurringScheduleController(RecurringScheduleService recurringScheduleService, TimerClock clock) {
+        this.recurringScheduleService = recurringScheduleService;
+        this.clock = clock;
+    }
+
+    /**
+     * Crear una plantilla recurrente (p. ej. de lunes a viernes a las 09:00)
+     * POST /api/recurring
+     */
+    @PostMapping
+    public ResponseEntity<RecurringScheduleDTO> createRecurring(@Valid @RequestBody RecurringScheduleRequestDTO request) {
+        RecurringScheduleDTO created = recurringScheduleService.create(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * Plantillas activas
+     * GET /api/recurring
+     */
+    @GetMapping
+    public ResponseEntity<List<RecurringScheduleDTO>> getActive() {
+        return ResponseEntity.ok(recurringScheduleService.getActive());
+    }
+
+    /**
+     * Próximas ocurrencias de todas las plantillas, calculadas al vuelo
+     * GET /api/recurring/next?from=2025-01-06T00:00:00&limit=20
+     */
+    @GetMapping("/next")
+    public ResponseEntity<List<RecurringOccurrenceDTO>> getNextOccurrences(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(defaultValue = "20") int limit) {
+        LocalDateTime after = from != null ? from : clock.now();
+        return ResponseEntity.ok(recurringScheduleService.nextOccurrences(after, limit));
+    }
+
+    /**
+     * Desactivar una plantilla (cancela sus ocurrencias pendientes)
+     * DELETE /api/recurring/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<RecurringScheduleDTO> deactivate(@PathVariable Long id) {
+        return ResponseEntity.ok(recurringScheduleService.deactivate(id));
+    }
+}
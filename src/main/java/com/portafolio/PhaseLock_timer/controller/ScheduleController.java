@@ -0,0 +1,72 @@
+package com.portafolio.PhaseLock_timer.controller;
+
+import com.portafolio.PhaseLock_timer.dto.ScheduleRequestDTO;
+import com.portafolio.PhaseLock_timer.dto.ScheduledBlockDTO;
+import com.portafolio.PhaseLock_timer.service.BlockScheduleService;
+import com.portafolio.PhaseLock_timer.service.TimerClock;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/schedule")
+public class ScheduleController {
+
+    private static final int DEFAULT_RANGE_DAYS = 7;
+
+    private final BlockScheduleService blockScheduleService;
+    private final TimerClock clock;
+
+    @Autowired
+    public ScheduleController(BlockScheduleService blockScheduleService, TimerClock clock) {
+        this.blockScheduleService = blockScheduleService;
+        this.clock = clock;
+    }
+
+    /**
+     * Programar el inicio de un bloque a una hora futura
+     * POST /api/schedule
+     */
+    @PostMapping
+    public ResponseEntity<ScheduledBlockDTO> scheduleBlock(@Valid @RequestBody ScheduleRequestDTO request) {
+        ScheduledBlockDTO scheduled = blockScheduleService.schedule(request.getBlockId(), request.getStartAt());
+        return ResponseEntity.status(HttpStatus.CREATED).body(scheduled);
+    }
+
+    /**
+     * Calendario de inicios programados (por defecto, los próximos 7 días)
+     * GET /api/schedule?from=2025-01-06T00:00:00&to=2025-01-12T23:59:59
+     */
+    @GetMapping
+    public ResponseEntity<List<ScheduledBlockDTO>> getCalendar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime start = from != null ? from : clock.now().toLocalDate().atStartOfDay();
+        LocalDateTime end = to != null ? to : start.plusDays(DEFAULT_RANGE_DAYS);
+        return ResponseEntity.ok(blockScheduleService.getCalendar(start, end));
+    }
+
+    /**
+     * Obtener un inicio programado
+     * GET /api/schedule/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ScheduledBlockDTO> getScheduled(@PathVariable Long id) {
+        return ResponseEntity.ok(blockScheduleService.get(id));
+    }
+
+    /**
+     * Cancelar un inicio pendiente
+     * DELETE /api/schedule/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ScheduledBlockDTO> cancelScheduled(@PathVariable Long id) {
+        return ResponseEntity.ok(blockScheduleService.cancel(id));
+    }
+}
@@ -1,22 +1,44 @@
 package com.portafolio.PhaseLock_timer.controller;
 
+import com.portafolio.PhaseLock_timer.dto.PhaseEventDTO;
 import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import com.portafolio.PhaseLock_timer.service.IdempotencyCache;
+import com.portafolio.PhaseLock_timer.service.TimerChangeNotifier;
 import com.portafolio.PhaseLock_timer.service.TimerService;
+import com.portafolio.PhaseLock_timer.service.TimerStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/timer")
 public class TimerController {
 
+    private static final long MAX_POLL_TIMEOUT_MS = 60000;
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final TimerService timerService;
+    private final TimerStreamService timerStreamService;
+    private final TimerChangeNotifier changeNotifier;
+    private final IdempotencyCache idempotencyCache;
 
     @Autowired
-    public TimerController(TimerService timerService) {
+    public TimerController(TimerService timerService, TimerStreamService timerStreamService,
+                           TimerChangeNotifier changeNotifier, IdempotencyCache idempotencyCache) {
         this.timerService = timerService;
+        this.timerStreamService = timerStreamService;
+        this.changeNotifier = changeNotifier;
+        this.idempotencyCache = idempotencyCache;
     }
 
     /**
@@ -24,9 +46,11 @@ public class TimerController {
      * POST /api/timer/start/{blockId}
      */
     @PostMapping("/start/{blockId}")
-    public ResponseEntity<TimerStatusDTO> startBlock(@PathVariable Long blockId) {
-        TimerStatusDTO status = timerService.startBlock(blockId);
-        return ResponseEntity.ok(status);
+    public ResponseEntity<TimerStatusDTO> startBlock(
+            @PathVariable Long blockId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return respond(idempotencyCache.execute("startBlock", blockId, idempotencyKey,
+                                                () -> timerService.startBlock(blockId)));
     }
 
     /**
@@ -34,9 +58,11 @@ public class TimerController {
      * POST /api/timer/{sessionId}/pause
      */
     @PostMapping("/{sessionId}/pause")
-    public ResponseEntity<TimerStatusDTO> pauseTimer(@PathVariable Long sessionId) {
-        TimerStatusDTO status = timerService.pauseTimer(sessionId);
-        return ResponseEntity.ok(status);
+    public ResponseEntity<TimerStatusDTO> pauseTimer(
+            @PathVariable Long sessionId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return respond(idempotencyCache.execute("pauseTimer", sessionId, idempotencyKey,
+                                                () -> timerService.pauseTimer(sessionId)));
     }
 
     /**
@@ -44,9 +70,11 @@ public class TimerController {
      * POST /api/timer/{sessionId}/resume
      */
     @PostMapping("/{sessionId}/resume")
-    public ResponseEntity<TimerStatusDTO> resumeTimer(@PathVariable Long sessionId) {
-        TimerStatusDTO status = timerService.resumeTimer(sessionId);
-        return ResponseEntity.ok(status);
+    public ResponseEntity<TimerStatusDTO> resumeTimer(
+            @PathVariable Long sessionId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return respond(idempotencyCache.execute("resumeTimer", sessionId, idempotencyKey,
+                                                () -> timerService.resumeTimer(sessionId)));
     }
 
     /**
@@ -54,9 +82,11 @@ public class TimerController {
      * POST /api/timer/{sessionId}/restart
      */
     @PostMapping("/{sessionId}/restart")
-    public ResponseEntity<TimerStatusDTO> restartBlock(@PathVariable Long sessionId) {
-        TimerStatusDTO status = timerService.restartBlock(sessionId);
-        return ResponseEntity.ok(status);
+    public ResponseEntity<TimerStatusDTO> restartBlock(
+            @PathVariable Long sessionId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return respond(idempotencyCache.execute("restartBlock", sessionId, idempotencyKey,
+                                                () -> timerService.restartBlock(sessionId)));
     }
 
     /**
@@ -64,9 +94,11 @@ public class TimerController {
      * POST /api/timer/{sessionId}/skip
      */
     @PostMapping("/{sessionId}/skip")
-    public ResponseEntity<TimerStatusDTO> skipToNextPhase(@PathVariable Long sessionId) {
-        TimerStatusDTO status = timerService.skipToNextPhase(sessionId);
-        return ResponseEntity.ok(status);
+    public ResponseEntity<TimerStatusDTO> skipToNextPhase(
+            @PathVariable Long sessionId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return respond(idempotencyCache.execute("skipToNextPhase", sessionId, idempotencyKey,
+                                                () -> timerService.skipToNextPhase(sessionId)));
     }
 
     /**
@@ -74,19 +106,91 @@ public class TimerController {
      * DELETE /api/timer/{sessionId}
      */
     @DeleteMapping("/{sessionId}")
-    public ResponseEntity<Void> cancelBlock(@PathVariable Long sessionId) {
-        timerService.cancelBlock(sessionId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<Void> cancelBlock(
+            @PathVariable Long sessionId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        IdempotencyCache.Result result = idempotencyCache.execute("cancelBlock", sessionId, idempotencyKey, () -> {
+            timerService.cancelBlock(sessionId);
+            return null;
+        });
+        return result.replayed()
+            ? ResponseEntity.noContent().header(REPLAYED_HEADER, "true").build()
+            : ResponseEntity.noContent().build();
     }
 
     /**
-     * Obtener estado del timer
+     * Obtener estado del timer. Devuelve 304 si el ETag (versión de fase/estado) no cambió;
+     * entre versiones la cuenta atrás es determinista y el cliente la extrapola.
      * GET /api/timer/{sessionId}
      */
     @GetMapping("/{sessionId}")
-    public ResponseEntity<TimerStatusDTO> getTimerStatus(@PathVariable Long sessionId) {
+    public ResponseEntity<TimerStatusDTO> getTimerStatus(
+            @PathVariable Long sessionId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        // Leer la versión antes que el estado: si cambia en medio, el próximo ETag no coincidirá
+        String etag = changeNotifier.etag(sessionId, versionOf(sessionId));
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         TimerStatusDTO status = timerService.getTimerStatus(sessionId);
-        return ResponseEntity.ok(status);
+        return ResponseEntity.ok().eTag(etag).body(status);
+    }
+
+    /**
+     * Long-poll: espera al siguiente cambio de fase o de estado, o devuelve 304 al agotar el timeout
+     * GET /api/timer/{sessionId}/poll?timeoutMs=25000
+     */
+    @GetMapping("/{sessionId}/poll")
+    public DeferredResult<ResponseEntity<TimerStatusDTO>> pollTimerStatus(
+            @PathVariable Long sessionId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+            @RequestParam(defaultValue = "25000") long timeoutMs) {
+        long version = versionOf(sessionId);
+        String etag = changeNotifier.etag(sessionId, version);
+
+        long timeout = Math.min(Math.max(timeoutMs, 1), MAX_POLL_TIMEOUT_MS);
+        DeferredResult<ResponseEntity<TimerStatusDTO>> result = new DeferredResult<>(
+            timeout, () -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+
+        if (!etag.equals(ifNoneMatch)) {
+            result.setResult(ResponseEntity.ok().eTag(etag).body(timerService.getTimerStatus(sessionId)));
+            return result;
+        }
+
+        CompletableFuture<Long> change = changeNotifier.awaitChange(sessionId, version);
+        change.thenAccept(newVersion -> {
+            try {
+                TimerStatusDTO status = timerService.getTimerStatus(sessionId);
+                result.setResult(ResponseEntity.ok()
+                    .eTag(changeNotifier.etag(sessionId, newVersion))
+                    .body(status));
+            } catch (Exception e) {
+                result.setErrorResult(e);
+            }
+        });
+        result.onCompletion(() -> change.cancel(false));
+        return result;
+    }
+
+    /**
+     * Stream SSE del timer (alternativa ligera a STOMP/SockJS)
+     * GET /api/timer/{sessionId}/stream
+     */
+    @GetMapping(value = "/{sessionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTimer(@PathVariable Long sessionId,
+                                  @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        TimerStatusDTO current = timerService.getTimerStatus(sessionId);
+        return timerStreamService.subscribe(sessionId, lastEventId, current);
+    }
+
+    /**
+     * Historial de transiciones de fase de una sesión
+     * GET /api/timer/{sessionId}/events
+     */
+    @GetMapping("/{sessionId}/events")
+    public ResponseEntity<List<PhaseEventDTO>> getPhaseEvents(@PathVariable Long sessionId) {
+        List<PhaseEventDTO> events = timerService.getPhaseEvents(sessionId);
+        return ResponseEntity.ok(events);
     }
 
     /**
@@ -99,5 +203,26 @@ public class TimerController {
         return active.map(ResponseEntity::ok)
                     .orElse(ResponseEntity.noContent().build());
     }
-}
 
+    /**
+     * Versión de la sesión para el ETag; si no está en memoria (terminada o inexistente)
+     * se comprueba antes que exista, para responder 404 a ids desconocidos
+     */
+    private long versionOf(Long sessionId) {
+        long version = changeNotifier.getVersion(sessionId);
+        if (version == TimerChangeNotifier.UNTRACKED) {
+            timerService.requireSession(sessionId);
+        }
+        return version;
+    }
+
+    /**
+     * Respuesta de una operación de control; los reintentos servidos desde la caché se marcan
+     */
+    private ResponseEntity<TimerStatusDTO> respond(IdempotencyCache.Result result) {
+        if (result.replayed()) {
+            return ResponseEntity.ok().header(REPLAYED_HEADER, "true").body(result.status());
+        }
+        return ResponseEntity.ok(result.status());
+    }
+}
@@ -0,0 +1,68 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+public class BatchPreviewRequestDTO {
+
+    @Valid
+    @NotNull(message = "Total duration range is required")
+    private IntRangeDTO totalDurationMinutes;
+
+    @Valid
+    @NotNull(message = "Pomodoro duration range is required")
+    private IntRangeDTO pomodoroDurationMinutes;
+
+    @Valid
+    @NotNull(message = "Short break duration range is required")
+    private IntRangeDTO shortBreakDurationMinutes;
+
+    @Valid
+    @NotNull(message = "Long break duration range is required")
+    private IntRangeDTO longBreakDurationMinutes;
+
+    private Boolean includeSequence = true; // false: solo número de pomodoros y fases
+
+    public BatchPreviewRequestDTO() {
+    }
+
+    public IntRangeDTO getTotalDurationMinutes() {
+        return totalDurationMinutes;
+    }
+
+    public void setTotalDurationMinutes(IntRangeDTO totalDurationMinutes) {
+        this.totalDurationMinutes = totalDurationMinutes;
+    }
+
+    public IntRangeDTO getPomodoroDurationMinutes() {
+        return pomodoroDurationMinutes;
+    }
+
+    public void setPomodoroDurationMinutes(IntRangeDTO pomodoroDurationMinutes) {
+        this.pomodoroDurationMinutes = pomodoroDurationMinutes;
+    }
+
+    public IntRangeDTO getShortBreakDurationMinutes() {
+        return shortBreakDurationMinutes;
+    }
+
+    public void setShortBreakDurationMinutes(IntRangeDTO shortBreakDurationMinutes) {
+        this.shortBreakDurationMinutes = shortBreakDurationMinutes;
+    }
+
+    public IntRangeDTO getLongBreakDurationMinutes() {
+        return longBreakDurationMinutes;
+    }
+
+    public void setLongBreakDurationMinutes(IntRangeDTO longBreakDurationMinutes) {
+        this.longBreakDurationMinutes = longBreakDurationMinutes;
+    }
+
+    public Boolean getIncludeSequence() {
+        return includeSequence;
+    }
+
+    public void setIncludeSequence(Boolean includeSequence) {
+        this.includeSequence = includeSequence;
+    }
+}
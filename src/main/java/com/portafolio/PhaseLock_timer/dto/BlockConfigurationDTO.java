@@ -1,26 +1,36 @@
 package com.portafolio.PhaseLock_timer.dto;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class BlockConfigurationDTO {
 
     @NotNull(message = "Total duration is required")
     @Min(value = 1, message = "Total duration must be at least 1 minute")
+    @Max(value = 1440, message = "Total duration must be at most 1440 minutes")
     private Integer totalDurationMinutes;
 
     @NotNull(message = "Pomodoro duration is required")
     @Min(value = 1, message = "Pomodoro duration must be at least 1 minute")
+    @Max(value = 1440, message = "Pomodoro duration must be at most 1440 minutes")
     private Integer pomodoroDurationMinutes;
 
     @NotNull(message = "Short break duration is required")
     @Min(value = 0, message = "Short break duration cannot be negative")
+    @Max(value = 1440, message = "Short break duration must be at most 1440 minutes")
     private Integer shortBreakDurationMinutes;
 
     @NotNull(message = "Long break duration is required")
     @Min(value = 0, message = "Long break duration cannot be negative")
+    @Max(value = 1440, message = "Long break duration must be at most 1440 minutes")
     private Integer longBreakDurationMinutes;
 
+    // Opcional: p. ej. "P10 ((P S)x3 P L)x2"; sin él se usa la secuencia clásica
+    @Size(max = 200, message = "Phase pattern must be at most 200 characters")
+    private String phasePattern;
+
     // Constructors
     public BlockConfigurationDTO() {
     }
@@ -65,5 +75,12 @@ public class BlockConfigurationDTO {
     public void setLongBreakDurationMinutes(Integer longBreakDurationMinutes) {
         this.longBreakDurationMinutes = longBreakDurationMinutes;
     }
-}
 
+    public String getPhasePattern() {
+        return phasePattern;
+    }
+
+    public void setPhasePattern(String phasePattern) {
+        this.phasePattern = phasePattern;
+    }
+}
@@ -0,0 +1,80 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+public class CacheStatsDTO {
+    private String name;
+    private String layer; // hibernate-entity, hibernate-query o spring
+    private Long hits;
+    private Long misses;
+    private Long puts;
+    private Double hitRatio; // null si aún no hubo accesos
+    private Long size;
+
+    public CacheStatsDTO() {
+    }
+
+    public CacheStatsDTO(String name, String layer, long hits, long misses, Long puts, Long size) {
+        this.name = name;
+        this.layer = layer;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.hitRatio = hits + misses == 0 ? null : hits / (double) (hits + misses);
+        this.size = size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public void setLayer(String layer) {
+        this.layer = layer;
+    }
+
+    public Long getHits() {
+        return hits;
+    }
+
+    public void setHits(Long hits) {
+        this.hits = hits;
+    }
+
+    public Long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(Long misses) {
+        this.misses = misses;
+    }
+
+    public Long getPuts() {
+        return puts;
+    }
+
+    public void setPuts(Long puts) {
+        this.puts = puts;
+    }
+
+    public Double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(Double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+}
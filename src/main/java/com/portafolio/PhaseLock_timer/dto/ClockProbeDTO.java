@@ -0,0 +1,23 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+/**
+ * Hora del servidor (epoch ms) para que el cliente estime el desfase de su reloj
+ */
+public class ClockProbeDTO {
+    private Long serverTime;
+
+    public ClockProbeDTO() {
+    }
+
+    public ClockProbeDTO(Long serverTime) {
+        this.serverTime = serverTime;
+    }
+
+    public Long getServerTime() {
+        return serverTime;
+    }
+
+    public void setServerTime(Long serverTime) {
+        this.serverTime = serverTime;
+    }
+}
@@ -0,0 +1,88 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import java.time.LocalDate;
+
+public class DailyStatsDTO {
+    private LocalDate date;
+    private Long timeBlockId; // null cuando agrega todos los bloques
+    private Long completedPomodoros;
+    private Long focusSeconds;
+    private Long breakSeconds;
+    private Long skippedPhases;
+    private Long completedBlocks;
+
+    public DailyStatsDTO() {
+    }
+
+    public DailyStatsDTO(LocalDate date, Long completedPomodoros, Long focusSeconds,
+                         Long breakSeconds, Long skippedPhases, Long completedBlocks) {
+        this(date, null, completedPomodoros, focusSeconds, breakSeconds, skippedPhases, completedBlocks);
+    }
+
+    public DailyStatsDTO(LocalDate date, Long timeBlockId, Long completedPomodoros, Long focusSeconds,
+                         Long breakSeconds, Long skippedPhases, Long completedBlocks) {
+        this.date = date;
+        this.timeBlockId = timeBlockId;
+        this.completedPomodoros = completedPomodoros;
+        this.focusSeconds = focusSeconds;
+        this.breakSeconds = breakSeconds;
+        this.skippedPhases = skippedPhases;
+        this.completedBlocks = completedBlocks;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Long getTimeBlockId() {
+        return timeBlockId;
+    }
+
+    public void setTimeBlockId(Long timeBlockId) {
+        this.timeBlockId = timeBlockId;
+    }
+
+    public Long getCompletedPomodoros() {
+        return completedPomodoros;
+    }
+
+    public void setCompletedPomodoros(Long completedPomodoros) {
+        this.completedPomodoros = completedPomodoros;
+    }
+
+    public Long getFocusSeconds() {
+        return focusSeconds;
+    }
+
+    public void setFocusSeconds(Long focusSeconds) {
+        this.focusSeconds = focusSeconds;
+    }
+
+    public Long getBreakSeconds() {
+        return breakSeconds;
+    }
+
+    public void setBreakSeconds(Long breakSeconds) {
+        this.breakSeconds = breakSeconds;
+    }
+
+    public Long getSkippedPhases() {
+        return skippedPhases;
+    }
+
+    public void setSkippedPhases(Long skippedPhases) {
+        this.skippedPhases = skippedPhases;
+    }
+
+    public Long getCompletedBlocks() {
+        return completedBlocks;
+    }
+
+    public void setCompletedBlocks(Long completedBlocks) {
+        this.completedBlocks = completedBlocks;
+    }
+}
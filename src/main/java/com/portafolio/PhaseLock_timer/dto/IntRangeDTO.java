@@ -0,0 +1,57 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Rango inclusivo [from, to] de minutos recorrido con paso {@code step}
+ */
+public class IntRangeDTO {
+
+    @NotNull(message = "Range start is required")
+    @Min(value = 0, message = "Range start cannot be negative")
+    @Max(value = 1440, message = "Range start must be at most 1440 minutes")
+    private Integer from;
+
+    @NotNull(message = "Range end is required")
+    @Min(value = 0, message = "Range end cannot be negative")
+    @Max(value = 1440, message = "Range end must be at most 1440 minutes")
+    private Integer to;
+
+    @Min(value = 1, message = "Range step must be at least 1")
+    private Integer step = 1;
+
+    public IntRangeDTO() {
+    }
+
+    public IntRangeDTO(Integer from, Integer to, Integer step) {
+        this.from = from;
+        this.to = to;
+        this.step = step;
+    }
+
+    public Integer getFrom() {
+        return from;
+    }
+
+    public void setFrom(Integer from) {
+        this.from = from;
+    }
+
+    public Integer getTo() {
+        return to;
+    }
+
+    public void setTo(Integer to) {
+        this.to = to;
+    }
+
+    public Integer getStep() {
+        return step;
+    }
+
+    public void setStep(Integer step) {
+        this.step = step;
+    }
+}
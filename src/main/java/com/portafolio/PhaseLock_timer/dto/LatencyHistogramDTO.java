@@ -0,0 +1,79 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+public class LatencyHistogramDTO {
+    private String name;
+    private long[] bucketUpperBoundsMs; // counts tiene un cubo más: > último límite
+    private long[] counts;
+    private Long count;
+    private Long negativeCount; // Muestras descartadas por desfase de relojes
+    private Long p50Ms;
+    private Long p90Ms;
+    private Long p99Ms;
+
+    public LatencyHistogramDTO() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long[] getBucketUpperBoundsMs() {
+        return bucketUpperBoundsMs;
+    }
+
+    public void setBucketUpperBoundsMs(long[] bucketUpperBoundsMs) {
+        this.bucketUpperBoundsMs = bucketUpperBoundsMs;
+    }
+
+    public long[] getCounts() {
+        return counts;
+    }
+
+    public void setCounts(long[] counts) {
+        this.counts = counts;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Long getNegativeCount() {
+        return negativeCount;
+    }
+
+    public void setNegativeCount(Long negativeCount) {
+        this.negativeCount = negativeCount;
+    }
+
+    public Long getP50Ms() {
+        return p50Ms;
+    }
+
+    public void setP50Ms(Long p50Ms) {
+        this.p50Ms = p50Ms;
+    }
+
+    public Long getP90Ms() {
+        return p90Ms;
+    }
+
+    public void setP90Ms(Long p90Ms) {
+        this.p90Ms = p90Ms;
+    }
+
+    public Long getP99Ms() {
+        return p99Ms;
+    }
+
+    public void setP99Ms(Long p99Ms) {
+        this.p99Ms = p99Ms;
+    }
+}
@@ -0,0 +1,69 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+/**
+ * Muestra enviada por el cliente: los tres sellos del frame más la hora de recepción (epoch ms).
+ * clockOffset es lo que hay que sumar al reloj del cliente para pasarlo al del servidor,
+ * estimado con GET /api/metrics/clock; sin él no se calculan los tramos que cruzan relojes.
+ */
+public class LatencySampleDTO {
+    private Long scheduledAt;
+    private Long producedAt;
+    private Long sentAt;
+    private Long receivedAt;
+    private Long clockOffset;
+
+    public LatencySampleDTO() {
+    }
+
+    public LatencySampleDTO(Long scheduledAt, Long producedAt, Long sentAt, Long receivedAt) {
+        this.scheduledAt = scheduledAt;
+        this.producedAt = producedAt;
+        this.sentAt = sentAt;
+        this.receivedAt = receivedAt;
+    }
+
+    public LatencySampleDTO(Long scheduledAt, Long producedAt, Long sentAt, Long receivedAt, Long clockOffset) {
+        this(scheduledAt, producedAt, sentAt, receivedAt);
+        this.clockOffset = clockOffset;
+    }
+
+    public Long getScheduledAt() {
+        return scheduledAt;
+    }
+
+    public void setScheduledAt(Long scheduledAt) {
+        this.scheduledAt = scheduledAt;
+    }
+
+    public Long getProducedAt() {
+        return producedAt;
+    }
+
+    public void setProducedAt(Long producedAt) {
+        this.producedAt = producedAt;
+    }
+
+    public Long getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(Long sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    public Long getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(Long receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
+    public Long getClockOffset() {
+        return clockOffset;
+    }
+
+    public void setClockOffset(Long clockOffset) {
+        this.clockOffset = clockOffset;
+    }
+}
@@ -0,0 +1,52 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+public class OutboundStatsDTO {
+    private Long sentFrames;
+    private Long conflatedFrames; // Ticks sustituidos por uno más reciente antes de enviarse
+    private Long droppedFrames; // Pendientes al cerrar una sesión lenta
+    private Long terminatedSessions;
+    private Long rejectedDrains; // Pool de envío lleno; se reintenta con el siguiente frame
+
+    public OutboundStatsDTO() {
+    }
+
+    public Long getSentFrames() {
+        return sentFrames;
+    }
+
+    public void setSentFrames(Long sentFrames) {
+        this.sentFrames = sentFrames;
+    }
+
+    public Long getConflatedFrames() {
+        return conflatedFrames;
+    }
+
+    public void setConflatedFrames(Long conflatedFrames) {
+        this.conflatedFrames = conflatedFrames;
+    }
+
+    public Long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public void setDroppedFrames(Long droppedFrames) {
+        this.droppedFrames = droppedFrames;
+    }
+
+    public Long getTerminatedSessions() {
+        return terminatedSessions;
+    }
+
+    public void setTerminatedSessions(Long terminatedSessions) {
+        this.terminatedSessions = terminatedSessions;
+    }
+
+    public Long getRejectedDrains() {
+        return rejectedDrains;
+    }
+
+    public void setRejectedDrains(Long rejectedDrains) {
+        this.rejectedDrains = rejectedDrains;
+    }
+}
@@ -0,0 +1,103 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import com.portafolio.PhaseLock_timer.model.OutboxEventType;
+import com.portafolio.PhaseLock_timer.model.Phase;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+
+import java.time.LocalDateTime;
+
+public class OutboxEventDTO {
+    private Long id; // Estable entre reintentos: los receptores lo usan para descartar duplicados
+    private Long sessionId;
+    private Long blockId;
+    private OutboxEventType type;
+    private TimerStatus status;
+    private Phase phase;
+    private int phaseIndex;
+    private int remainingSeconds;
+    private int totalElapsedSeconds;
+    private LocalDateTime occurredAt;
+
+    public OutboxEventDTO() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Long getBlockId() {
+        return blockId;
+    }
+
+    public void setBlockId(Long blockId) {
+        this.blockId = blockId;
+    }
+
+    public OutboxEventType getType() {
+        return type;
+    }
+
+    public void setType(OutboxEventType type) {
+        this.type = type;
+    }
+
+    public TimerStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TimerStatus status) {
+        this.status = status;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public void setPhase(Phase phase) {
+        this.phase = phase;
+    }
+
+    public int getPhaseIndex() {
+        return phaseIndex;
+    }
+
+    public void setPhaseIndex(int phaseIndex) {
+        this.phaseIndex = phaseIndex;
+    }
+
+    public int getRemainingSeconds() {
+        return remainingSeconds;
+    }
+
+    public void setRemainingSeconds(int remainingSeconds) {
+        this.remainingSeconds = remainingSeconds;
+    }
+
+    public int getTotalElapsedSeconds() {
+        return totalElapsedSeconds;
+    }
+
+    public void setTotalElapsedSeconds(int totalElapsedSeconds) {
+        this.totalElapsedSeconds = totalElapsedSeconds;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,72 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import java.util.List;
+
+public class OutboxStatsDTO {
+    private List<String> sinks;
+    private Long pending;
+    private Long delivered;
+    private Long failed; // Agotaron los reintentos
+    private Long deliveredSinceStart;
+    private Long failedAttempts; // Lotes que algún sink rechazó (se reintentan)
+    private Long dispatchedBatches;
+
+    public OutboxStatsDTO() {
+    }
+
+    public List<String> getSinks() {
+        return sinks;
+    }
+
+    public void setSinks(List<String> sinks) {
+        this.sinks = sinks;
+    }
+
+    public Long getPending() {
+        return pending;
+    }
+
+    public void setPending(Long pending) {
+        this.pending = pending;
+    }
+
+    public Long getDelivered() {
+        return delivered;
+    }
+
+    public void setDelivered(Long delivered) {
+        this.delivered = delivered;
+    }
+
+    public Long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Long failed) {
+        this.failed = failed;
+    }
+
+    public Long getDeliveredSinceStart() {
+        return deliveredSinceStart;
+    }
+
+    public void setDeliveredSinceStart(Long deliveredSinceStart) {
+        this.deliveredSinceStart = deliveredSinceStart;
+    }
+
+    public Long getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public void setFailedAttempts(Long failedAttempts) {
+        this.failedAttempts = failedAttempts;
+    }
+
+    public Long getDispatchedBatches() {
+        return dispatchedBatches;
+    }
+
+    public void setDispatchedBatches(Long dispatchedBatches) {
+        this.dispatchedBatches = dispatchedBatches;
+    }
+}
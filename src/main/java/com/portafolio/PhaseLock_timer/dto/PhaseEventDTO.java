@@ -0,0 +1,65 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import com.portafolio.PhaseLock_timer.model.Phase;
+
+import java.time.LocalDateTime;
+
+public class PhaseEventDTO {
+    private Integer phaseIndex;
+    private Phase phase;
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt;
+    private Boolean skipped;
+
+    public PhaseEventDTO() {
+    }
+
+    public PhaseEventDTO(Integer phaseIndex, Phase phase, LocalDateTime startedAt,
+                         LocalDateTime endedAt, Boolean skipped) {
+        this.phaseIndex = phaseIndex;
+        this.phase = phase;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.skipped = skipped;
+    }
+
+    public Integer getPhaseIndex() {
+        return phaseIndex;
+    }
+
+    public void setPhaseIndex(Integer phaseIndex) {
+        this.phaseIndex = phaseIndex;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public void setPhase(Phase phase) {
+        this.phase = phase;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getEndedAt() {
+        return endedAt;
+    }
+
+    public void setEndedAt(LocalDateTime endedAt) {
+        this.endedAt = endedAt;
+    }
+
+    public Boolean getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(Boolean skipped) {
+        this.skipped = skipped;
+    }
+}
@@ -4,13 +4,13 @@ import com.portafolio.PhaseLock_timer.model.Phase;
 
 public class PhaseSequenceItem {
     private Phase phase;
-    private Integer durationMinutes;
-    private Integer sequenceNumber; // Número de orden en la secuencia
+    private int durationMinutes;
+    private int sequenceNumber; // Número de orden en la secuencia
 
     public PhaseSequenceItem() {
     }
 
-    public PhaseSequenceItem(Phase phase, Integer durationMinutes, Integer sequenceNumber) {
+    public PhaseSequenceItem(Phase phase, int durationMinutes, int sequenceNumber) {
         this.phase = phase;
         this.durationMinutes = durationMinutes;
         this.sequenceNumber = sequenceNumber;
@@ -24,19 +24,19 @@ public class PhaseSequenceItem {
         this.phase = phase;
     }
 
-    public Integer getDurationMinutes() {
+    public int getDurationMinutes() {
         return durationMinutes;
     }
 
-    public void setDurationMinutes(Integer durationMinutes) {
+    public void setDurationMinutes(int durationMinutes) {
         this.durationMinutes = durationMinutes;
     }
 
-    public Integer getSequenceNumber() {
+    public int getSequenceNumber() {
         return sequenceNumber;
     }
 
-    public void setSequenceNumber(Integer sequenceNumber) {
+    public void setSequenceNumber(int sequenceNumber) {
         this.sequenceNumber = sequenceNumber;
     }
 }
@@ -0,0 +1,42 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import java.time.LocalDateTime;
+
+public class RecurringOccurrenceDTO {
+    private Long recurringScheduleId;
+    private Long blockId;
+    private LocalDateTime startAt;
+
+    public RecurringOccurrenceDTO() {
+    }
+
+    public RecurringOccurrenceDTO(Long recurringScheduleId, Long blockId, LocalDateTime startAt) {
+        this.recurringScheduleId = recurringScheduleId;
+        this.blockId = blockId;
+        this.startAt = startAt;
+    }
+
+    public Long getRecurringScheduleId() {
+        return recurringScheduleId;
+    }
+
+    public void setRecurringScheduleId(Long recurringScheduleId) {
+        this.recurringScheduleId = recurringScheduleId;
+    }
+
+    public Long getBlockId() {
+        return blockId;
+    }
+
+    public void setBlockId(Long blockId) {
+        this.blockId = blockId;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+}
@@ -0,0 +1,90 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import java.time.LocalDateTime;
+
+public class RetentionStatsDTO {
+    private Boolean enabled;
+    private String target; // table o file
+    private Integer retentionDays;
+    private Long liveSessions;
+    private Long archivedSessions; // Solo con target=table
+    private Long archivedSinceStart;
+    private LocalDateTime lastRunAt;
+    private Integer lastRunArchived;
+    private Long lastRunMillis;
+
+    public RetentionStatsDTO() {
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public Integer getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(Integer retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+
+    public Long getLiveSessions() {
+        return liveSessions;
+    }
+
+    public void setLiveSessions(Long liveSessions) {
+        this.liveSessions = liveSessions;
+    }
+
+    public Long getArchivedSessions() {
+        return archivedSessions;
+    }
+
+    public void setArchivedSessions(Long archivedSessions) {
+        this.archivedSessions = archivedSessions;
+    }
+
+    public Long getArchivedSinceStart() {
+        return archivedSinceStart;
+    }
+
+    public void setArchivedSinceStart(Long archivedSinceStart) {
+        this.archivedSinceStart = archivedSinceStart;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public Integer getLastRunArchived() {
+        return lastRunArchived;
+    }
+
+    public void setLastRunArchived(Integer lastRunArchived) {
+        this.lastRunArchived = lastRunArchived;
+    }
+
+    public Long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+    public void setLastRunMillis(Long lastRunMillis) {
+        this.lastRunMillis = lastRunMillis;
+    }
+}
@@ -0,0 +1,83 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import com.portafolio.PhaseLock_timer.model.ScheduleStatus;
+
+import java.time.LocalDateTime;
+
+public class ScheduledBlockDTO {
+    private Long id;
+    private Long blockId;
+    private LocalDateTime startAt;
+    private ScheduleStatus status;
+    private Long sessionId; // Sesión iniciada (si STARTED)
+    private LocalDateTime firedAt;
+    private String note;
+    private Long recurringScheduleId; // null si es un inicio puntual
+
+    public ScheduledBlockDTO() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBlockId() {
+        return blockId;
+    }
+
+    public void setBlockId(Long blockId) {
+        this.blockId = blockId;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public ScheduleStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ScheduleStatus status) {
+        this.status = status;
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public LocalDateTime getFiredAt() {
+        return firedAt;
+    }
+
+    public void setFiredAt(LocalDateTime firedAt) {
+        this.firedAt = firedAt;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    public Long getRecurringScheduleId() {
+        return recurringScheduleId;
+    }
+
+    public void setRecurringScheduleId(Long recurringScheduleId) {
+        this.recurringScheduleId = recurringScheduleId;
+    }
+}
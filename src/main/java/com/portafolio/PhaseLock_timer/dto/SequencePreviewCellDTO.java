@@ -0,0 +1,51 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+public class SequencePreviewCellDTO {
+    private BlockConfigurationDTO configuration;
+    private Integer numberOfPomodoros;
+    private Integer totalPhases;
+    private BlockSequenceDTO sequence; // null si includeSequence = false
+
+    public SequencePreviewCellDTO() {
+    }
+
+    public SequencePreviewCellDTO(BlockConfigurationDTO configuration, Integer numberOfPomodoros,
+                                  Integer totalPhases, BlockSequenceDTO sequence) {
+        this.configuration = configuration;
+        this.numberOfPomodoros = numberOfPomodoros;
+        this.totalPhases = totalPhases;
+        this.sequence = sequence;
+    }
+
+    public BlockConfigurationDTO getConfiguration() {
+        return configuration;
+    }
+
+    public void setConfiguration(BlockConfigurationDTO configuration) {
+        this.configuration = configuration;
+    }
+
+    public Integer getNumberOfPomodoros() {
+        return numberOfPomodoros;
+    }
+
+    public void setNumberOfPomodoros(Integer numberOfPomodoros) {
+        this.numberOfPomodoros = numberOfPomodoros;
+    }
+
+    public Integer getTotalPhases() {
+        return totalPhases;
+    }
+
+    public void setTotalPhases(Integer totalPhases) {
+        this.totalPhases = totalPhases;
+    }
+
+    public BlockSequenceDTO getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(BlockSequenceDTO sequence) {
+        this.sequence = sequence;
+    }
+}
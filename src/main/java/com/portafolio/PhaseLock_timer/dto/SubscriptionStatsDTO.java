@@ -0,0 +1,42 @@
+package com.portafolio.PhaseLock_timer.dto;
+
+import java.util.Map;
+
+public class SubscriptionStatsDTO {
+    private Map<String, Integer> stompSubscribers; // destino -> suscriptores
+    private Integer sseSubscribers;
+    private Long avoidedSends; // Ticks no publicados por falta de suscriptores
+
+    public SubscriptionStatsDTO() {
+    }
+
+    public SubscriptionStatsDTO(Map<String, Integer> stompSubscribers, Integer sseSubscribers, Long avoidedSends) {
+        this.stompSubscribers = stompSubscribers;
+        this.sseSubscribers = sseSubscribers;
+        this.avoidedSends = avoidedSends;
+    }
+
+    public Map<String, Integer> getStompSubscribers() {
+        return stompSubscribers;
+    }
+
+    public void setStompSubscribers(Map<String, Integer> stompSubscribers) {
+        this.stompSubscribers = stompSubscribers;
+    }
+
+    public Integer getSseSubscribers() {
+        return sseSubscribers;
+    }
+
+    public void setSseSubscribers(Integer sseSubscribers) {
+        this.sseSubscribers = sseSubscribers;
+    }
+
+    public Long getAvoidedSends() {
+        return avoidedSends;
+    }
+
+    public void setAvoidedSends(Long avoidedSends) {
+        this.avoidedSends = avoidedSends;
+    }
+}
@@ -9,6 +9,7 @@ public class TimeBlockDTO {
     private Integer shortBreakDurationMinutes;
     private Integer longBreakDurationMinutes;
     private Integer numberOfPomodoros;
+    private String phasePattern;
     private LocalDateTime createdAt;
     private BlockSequenceDTO sequence;
 
@@ -63,6 +64,14 @@ public class TimeBlockDTO {
         this.numberOfPomodoros = numberOfPomodoros;
     }
 
+    public String getPhasePattern() {
+        return phasePattern;
+    }
+
+    public void setPhasePattern(String phasePattern) {
+        this.phasePattern = phasePattern;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -8,12 +8,14 @@ public class TimerStatusDTO {
     private Long blockId;
     private TimerStatus status;
     private Phase currentPhase;
-    private Integer currentPhaseIndex;
-    private Integer remainingSeconds;
-    private Integer totalElapsedSeconds;
-    private Integer totalPhases;
+    private int currentPhaseIndex;
+    private int remainingSeconds;
+    private int totalElapsedSeconds;
+    private int totalPhases;
     private String formattedRemainingTime; // MM:SS
     private String formattedElapsedTime;   // HH:MM:SS
+    private Long scheduledAt; // Epoch ms en que debía dispararse el tick (null si no viene de un tick)
+    private long producedAt;  // Epoch ms en que se construyó el frame
 
     public TimerStatusDTO() {
     }
@@ -51,35 +53,35 @@ public class TimerStatusDTO {
         this.currentPhase = currentPhase;
     }
 
-    public Integer getCurrentPhaseIndex() {
+    public int getCurrentPhaseIndex() {
         return currentPhaseIndex;
     }
 
-    public void setCurrentPhaseIndex(Integer currentPhaseIndex) {
+    public void setCurrentPhaseIndex(int currentPhaseIndex) {
         this.currentPhaseIndex = currentPhaseIndex;
     }
 
-    public Integer getRemainingSeconds() {
+    public int getRemainingSeconds() {
         return remainingSeconds;
     }
 
-    public void setRemainingSeconds(Integer remainingSeconds) {
+    public void setRemainingSeconds(int remainingSeconds) {
         this.remainingSeconds = remainingSeconds;
     }
 
-    public Integer getTotalElapsedSeconds() {
+    public int getTotalElapsedSeconds() {
         return totalElapsedSeconds;
     }
 
-    public void setTotalElapsedSeconds(Integer totalElapsedSeconds) {
+    public void setTotalElapsedSeconds(int totalElapsedSeconds) {
         this.totalElapsedSeconds = totalElapsedSeconds;
     }
 
-    public Integer getTotalPhases() {
+    public int getTotalPhases() {
         return totalPhases;
     }
 
-    public void setTotalPhases(Integer totalPhases) {
+    public void setTotalPhases(int totalPhases) {
         this.totalPhases = totalPhases;
     }
 
@@ -98,5 +100,21 @@ public class TimerStatusDTO {
     public void setFormattedElapsedTime(String formattedElapsedTime) {
         this.formattedElapsedTime = formattedElapsedTime;
     }
+
+    public Long getScheduledAt() {
+        return scheduledAt;
+    }
+
+    public void setScheduledAt(Long scheduledAt) {
+        this.scheduledAt = scheduledAt;
+    }
+
+    public long getProducedAt() {
+        return producedAt;
+    }
+
+    public void setProducedAt(long producedAt) {
+        this.producedAt = producedAt;
+    }
 }
 
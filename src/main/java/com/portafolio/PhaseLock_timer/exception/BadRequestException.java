@@ -0,0 +1,12 @@
+package com.portafolio.PhaseLock_timer.exception;
+
+/**
+ * Datos de entrada inválidos (patrón de fases, rangos, cabeceras). Se responde 400;
+ * el resto de IllegalArgumentException siguen siendo 404 (recurso no encontrado).
+ */
+public class BadRequestException extends IllegalArgumentException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
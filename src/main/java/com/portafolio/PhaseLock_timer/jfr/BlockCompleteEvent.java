@@ -0,0 +1,39 @@
+package com.portafolio.PhaseLock_timer.jfr;
+
+import com.portafolio.PhaseLock_timer.model.Phase;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Ejecución de completeBlock.
+ */
+@Name("com.portafolio.phaselock.BlockComplete")
+@Label("Block Complete")
+@Description("TimerService.completeBlock: final save, history update and last frame")
+@Category({"PhaseLock", "Timer"})
+@StackTrace(false)
+public class BlockCompleteEvent extends jdk.jfr.Event {
+
+    @Label("Session Id")
+    private long sessionId;
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Total Elapsed")
+    @Timespan(Timespan.SECONDS)
+    private long totalElapsedSeconds;
+
+    public void commit(long sessionId, Phase phase, int totalElapsedSeconds) {
+        if (shouldCommit()) {
+            this.sessionId = sessionId;
+            this.phase = phase != null ? phase.name() : null;
+            this.totalElapsedSeconds = totalElapsedSeconds;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.portafolio.PhaseLock_timer.jfr;
+
+import com.portafolio.PhaseLock_timer.model.Phase;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Paso de una fase a la siguiente, por fin natural o por salto.
+ */
+@Name("com.portafolio.phaselock.PhaseAdvance")
+@Label("Phase Advance")
+@Description("Transition from one phase of the block sequence to the next")
+@Category({"PhaseLock", "Timer"})
+@StackTrace(false)
+public class PhaseAdvanceEvent extends jdk.jfr.Event {
+
+    @Label("Session Id")
+    private long sessionId;
+
+    @Label("From Phase")
+    private String fromPhase;
+
+    @Label("To Phase")
+    private String toPhase;
+
+    @Label("To Phase Index")
+    private int toPhaseIndex;
+
+    @Label("Skipped")
+    private boolean skipped;
+
+    public void commit(long sessionId, Phase fromPhase, Phase toPhase, int toPhaseIndex, boolean skipped) {
+        if (shouldCommit()) {
+            this.sessionId = sessionId;
+            this.fromPhase = fromPhase != null ? fromPhase.name() : null;
+            this.toPhase = toPhase != null ? toPhase.name() : null;
+            this.toPhaseIndex = toPhaseIndex;
+            this.skipped = skipped;
+            commit();
+        }
+    }
+}
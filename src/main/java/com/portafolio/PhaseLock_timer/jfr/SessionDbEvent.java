@@ -0,0 +1,40 @@
+package com.portafolio.PhaseLock_timer.jfr;
+
+import com.portafolio.PhaseLock_timer.model.Phase;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Carga o guardado de una TimerSession.
+ */
+@Name("com.portafolio.phaselock.SessionDb")
+@Label("Session DB Access")
+@Description("Load or save of a TimerSession row")
+@Category({"PhaseLock", "Database"})
+@StackTrace(false)
+public class SessionDbEvent extends jdk.jfr.Event {
+
+    public static final String LOAD = "load";
+    public static final String SAVE = "save";
+
+    @Label("Session Id")
+    private long sessionId;
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Operation")
+    private String operation;
+
+    public void commit(Long sessionId, Phase phase, String operation) {
+        if (shouldCommit()) {
+            this.sessionId = sessionId != null ? sessionId : -1;
+            this.phase = phase != null ? phase.name() : null;
+            this.operation = operation;
+            commit();
+        }
+    }
+}
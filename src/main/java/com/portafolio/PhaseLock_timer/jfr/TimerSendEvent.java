@@ -0,0 +1,37 @@
+package com.portafolio.PhaseLock_timer.jfr;
+
+import com.portafolio.PhaseLock_timer.model.Phase;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Serialización y publicación de un frame del timer (STOMP y SSE).
+ */
+@Name("com.portafolio.phaselock.TimerSend")
+@Label("Timer Send")
+@Description("sendTimerUpdate: build the DTO, serialize it and hand it to the broker and SSE streams")
+@Category({"PhaseLock", "Messaging"})
+@StackTrace(false)
+public class TimerSendEvent extends jdk.jfr.Event {
+
+    @Label("Session Id")
+    private long sessionId;
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Destination")
+    private String destination;
+
+    public void commit(long sessionId, Phase phase, String destination) {
+        if (shouldCommit()) {
+            this.sessionId = sessionId;
+            this.phase = phase != null ? phase.name() : null;
+            this.destination = destination;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.portafolio.PhaseLock_timer.jfr;
+
+import com.portafolio.PhaseLock_timer.model.Phase;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Duración completa de un tick (carga, transición, guardado y envío).
+ */
+@Name("com.portafolio.phaselock.TimerTick")
+@Label("Timer Tick")
+@Description("One execution of TimerService.updateTimer")
+@Category({"PhaseLock", "Timer"})
+@StackTrace(false)
+public class TimerTickEvent extends jdk.jfr.Event {
+
+    @Label("Session Id")
+    private long sessionId;
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Phase Index")
+    private int phaseIndex;
+
+    @Label("Outcome")
+    private String outcome;
+
+    public void commit(long sessionId, Phase phase, Integer phaseIndex, String outcome) {
+        if (shouldCommit()) {
+            this.sessionId = sessionId;
+            this.phase = phase != null ? phase.name() : null;
+            this.phaseIndex = phaseIndex != null ? phaseIndex : -1;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
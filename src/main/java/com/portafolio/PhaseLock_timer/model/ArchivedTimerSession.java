@@ -0,0 +1,131 @@
+package com.portafolio.PhaseLock_timer.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sesión terminada (COMPLETED o STOPPED) movida fuera de timer_sessions por la retención.
+ * Conserva el id original y las mismas columnas; time_block_id ya no es clave foránea.
+ */
+@Entity
+@Table(name = "timer_sessions_archive",
+       indexes = @Index(name = "idx_timer_sessions_archive_started", columnList = "started_at"))
+@Immutable
+public class ArchivedTimerSession {
+
+    @Id
+    private Long id; // Mismo id que tenía en timer_sessions
+
+    @Column(name = "time_block_id", nullable = false)
+    private Long timeBlockId;
+
+    @Embedded
+    private BlockPlan blockPlan;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TimerStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Phase currentPhase;
+
+    @Column(nullable = false)
+    private int currentPhaseIndex;
+
+    @Column(nullable = false)
+    private int remainingSeconds;
+
+    @Column(nullable = false)
+    private int totalElapsedSeconds;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "phase_started_at")
+    private LocalDateTime phaseStartedAt;
+
+    @Column(name = "paused_at")
+    private LocalDateTime pausedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    protected ArchivedTimerSession() {
+    }
+
+    public ArchivedTimerSession(TimerSession session, LocalDateTime archivedAt) {
+        this.id = session.getId();
+        this.timeBlockId = session.getTimeBlockId();
+        this.blockPlan = session.getBlockPlan();
+        this.status = session.getStatus();
+        this.currentPhase = session.getCurrentPhase();
+        this.currentPhaseIndex = session.getCurrentPhaseIndex();
+        this.remainingSeconds = session.getRemainingSeconds();
+        this.totalElapsedSeconds = session.getTotalElapsedSeconds();
+        this.startedAt = session.getStartedAt();
+        this.phaseStartedAt = session.getPhaseStartedAt();
+        this.pausedAt = session.getPausedAt();
+        this.completedAt = session.getCompletedAt();
+        this.archivedAt = archivedAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTimeBlockId() {
+        return timeBlockId;
+    }
+
+    public BlockPlan getBlockPlan() {
+        return blockPlan;
+    }
+
+    public TimerStatus getStatus() {
+        return status;
+    }
+
+    public Phase getCurrentPhase() {
+        return currentPhase;
+    }
+
+    public int getCurrentPhaseIndex() {
+        return currentPhaseIndex;
+    }
+
+    public int getRemainingSeconds() {
+        return remainingSeconds;
+    }
+
+    public int getTotalElapsedSeconds() {
+        return totalElapsedSeconds;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getPhaseStartedAt() {
+        return phaseStartedAt;
+    }
+
+    public LocalDateTime getPausedAt() {
+        return pausedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
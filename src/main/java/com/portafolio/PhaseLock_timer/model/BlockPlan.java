@@ -0,0 +1,66 @@
+package com.portafolio.PhaseLock_timer.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Copia inmutable de la configuración del bloque guardada en la propia sesión,
+ * para reconstruir la secuencia sin cargar el TimeBlock.
+ */
+@Embeddable
+public class BlockPlan {
+
+    @Column(name = "plan_total_minutes")
+    private Integer totalDurationMinutes;
+
+    @Column(name = "plan_pomodoro_minutes")
+    private Integer pomodoroDurationMinutes;
+
+    @Column(name = "plan_short_break_minutes")
+    private Integer shortBreakDurationMinutes;
+
+    @Column(name = "plan_long_break_minutes")
+    private Integer longBreakDurationMinutes;
+
+    @Column(name = "plan_phase_pattern", length = 200)
+    private String phasePattern;
+
+    protected BlockPlan() {
+    }
+
+    public BlockPlan(Integer totalDurationMinutes, Integer pomodoroDurationMinutes,
+                     Integer shortBreakDurationMinutes, Integer longBreakDurationMinutes,
+                     String phasePattern) {
+        this.totalDurationMinutes = totalDurationMinutes;
+        this.pomodoroDurationMinutes = pomodoroDurationMinutes;
+        this.shortBreakDurationMinutes = shortBreakDurationMinutes;
+        this.longBreakDurationMinutes = longBreakDurationMinutes;
+        this.phasePattern = phasePattern;
+    }
+
+    public static BlockPlan of(TimeBlock timeBlock) {
+        return new BlockPlan(timeBlock.getTotalDurationMinutes(), timeBlock.getPomodoroDurationMinutes(),
+                             timeBlock.getShortBreakDurationMinutes(), timeBlock.getLongBreakDurationMinutes(),
+                             timeBlock.getPhasePattern());
+    }
+
+    public Integer getTotalDurationMinutes() {
+        return totalDurationMinutes;
+    }
+
+    public Integer getPomodoroDurationMinutes() {
+        return pomodoroDurationMinutes;
+    }
+
+    public Integer getShortBreakDurationMinutes() {
+        return shortBreakDurationMinutes;
+    }
+
+    public Integer getLongBreakDurationMinutes() {
+        return longBreakDurationMinutes;
+    }
+
+    public String getPhasePattern() {
+        return phasePattern;
+    }
+}
@@ -0,0 +1,113 @@
+package com.portafolio.PhaseLock_timer.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Acumulado diario por bloque. Se actualiza de forma incremental en cada
+ * transición de fase para que las consultas de historial sean O(días).
+ */
+@Entity
+@Table(name = "daily_focus_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"rollup_date", "time_block_id"}))
+public class DailyFocusRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "time_block_id", nullable = false)
+    private Long timeBlockId;
+
+    @Column(nullable = false)
+    private Integer completedPomodoros = 0;
+
+    @Column(nullable = false)
+    private Long focusSeconds = 0L; // Segundos en fases POMODORO
+
+    @Column(nullable = false)
+    private Long breakSeconds = 0L; // Segundos en descansos cortos y largos
+
+    @Column(nullable = false)
+    private Integer skippedPhases = 0;
+
+    @Column(nullable = false)
+    private Integer completedBlocks = 0;
+
+    // Constructors
+    public DailyFocusRollup() {
+    }
+
+    public DailyFocusRollup(LocalDate rollupDate, Long timeBlockId) {
+        this.rollupDate = rollupDate;
+        this.timeBlockId = timeBlockId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public void setRollupDate(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+
+    public Long getTimeBlockId() {
+        return timeBlockId;
+    }
+
+    public void setTimeBlockId(Long timeBlockId) {
+        this.timeBlockId = timeBlockId;
+    }
+
+    public Integer getCompletedPomodoros() {
+        return completedPomodoros;
+    }
+
+    public void setCompletedPomodoros(Integer completedPomodoros) {
+        this.completedPomodoros = completedPomodoros;
+    }
+
+    public Long getFocusSeconds() {
+        return focusSeconds;
+    }
+
+    public void setFocusSeconds(Long focusSeconds) {
+        this.focusSeconds = focusSeconds;
+    }
+
+    public Long getBreakSeconds() {
+        return breakSeconds;
+    }
+
+    public void setBreakSeconds(Long breakSeconds) {
+        this.breakSeconds = breakSeconds;
+    }
+
+    public Integer getSkippedPhases() {
+        return skippedPhases;
+    }
+
+    public void setSkippedPhases(Integer skippedPhases) {
+        this.skippedPhases = skippedPhases;
+    }
+
+    public Integer getCompletedBlocks() {
+        return completedBlocks;
+    }
+
+    public void setCompletedBlocks(Integer completedBlocks) {
+        this.completedBlocks = completedBlocks;
+    }
+}
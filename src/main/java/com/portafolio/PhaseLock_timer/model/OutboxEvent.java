@@ -0,0 +1,165 @@
+package com.portafolio.PhaseLock_timer.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transición de una sesión pendiente de notificar a las integraciones. Se inserta en la
+ * misma transacción que el cambio de TimerSession; el índice (status, id) permite al
+ * dispatcher leer los pendientes en orden sin recorrer los ya entregados.
+ */
+@Entity
+@Table(name = "outbox_events",
+       indexes = @Index(name = "idx_outbox_events_status_id", columnList = "status, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(name = "time_block_id")
+    private Long timeBlockId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private OutboxEventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "session_status", nullable = false, length = 16)
+    private TimerStatus sessionStatus; // Estado de la sesión tras la transición
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Phase phase;
+
+    @Column(name = "phase_index")
+    private int phaseIndex;
+
+    @Column(name = "remaining_seconds")
+    private int remainingSeconds;
+
+    @Column(name = "total_elapsed_seconds")
+    private int totalElapsedSeconds;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts; // Entregas fallidas hasta ahora
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    // Constructors
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(TimerSession session, OutboxEventType eventType, LocalDateTime occurredAt) {
+        this.sessionId = session.getId();
+        this.timeBlockId = session.getTimeBlockId();
+        this.eventType = eventType;
+        this.sessionStatus = session.getStatus();
+        this.phase = session.getCurrentPhase();
+        this.phaseIndex = session.getCurrentPhaseIndex();
+        this.remainingSeconds = session.getRemainingSeconds();
+        this.totalElapsedSeconds = session.getTotalElapsedSeconds();
+        this.occurredAt = occurredAt;
+        this.status = OutboxStatus.PENDING;
+        this.nextAttemptAt = occurredAt;
+    }
+
+    public void markDelivered(LocalDateTime at) {
+        status = OutboxStatus.DELIVERED;
+        deliveredAt = at;
+        lastError = null;
+    }
+
+    /**
+     * Registrar una entrega fallida: reintento en {@code retryAt} o FAILED si no quedan intentos
+     */
+    public void markAttemptFailed(String error, LocalDateTime retryAt, int maxAttempts) {
+        attempts++;
+        lastError = error != null && error.length() > 255 ? error.substring(0, 255) : error;
+        if (attempts >= maxAttempts) {
+            status = OutboxStatus.FAILED;
+        } else {
+            nextAttemptAt = retryAt;
+        }
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public Long getTimeBlockId() {
+        return timeBlockId;
+    }
+
+    public OutboxEventType getEventType() {
+        return eventType;
+    }
+
+    public TimerStatus getSessionStatus() {
+        return sessionStatus;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public int getPhaseIndex() {
+        return phaseIndex;
+    }
+
+    public int getRemainingSeconds() {
+        return remainingSeconds;
+    }
+
+    public int getTotalElapsedSeconds() {
+        return totalElapsedSeconds;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public OutboxStatus getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,12 @@
+package com.portafolio.PhaseLock_timer.model;
+
+public enum OutboxEventType {
+    STARTED,        // Sesión iniciada (manual o programada)
+    PAUSED,
+    RESUMED,
+    RESTARTED,      // Vuelta a la primera fase
+    PHASE_CHANGED,  // La fase terminó y empezó la siguiente
+    PHASE_SKIPPED,  // El usuario saltó a la siguiente fase
+    COMPLETED,
+    CANCELLED
+}
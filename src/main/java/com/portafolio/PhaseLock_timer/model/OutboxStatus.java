@@ -0,0 +1,7 @@
+package com.portafolio.PhaseLock_timer.model;
+
+public enum OutboxStatus {
+    PENDING,    // Pendiente de entrega (o esperando reintento)
+    DELIVERED,  // Entregado a todos los sinks
+    FAILED      // Agotó los reintentos; ya no bloquea a los siguientes
+}
@@ -0,0 +1,84 @@
+package com.portafolio.PhaseLock_timer.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro append-only de cada fase que termina dentro de una sesión.
+ * Tabla estrecha (sin FK ni strings) para que los inserts por lotes sean baratos.
+ */
+@Entity
+@Immutable
+@Table(name = "phase_events",
+       indexes = @Index(name = "idx_phase_events_session_index", columnList = "session_id, phase_index"))
+public class PhaseEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "phase_event_seq")
+    @SequenceGenerator(name = "phase_event_seq", sequenceName = "phase_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(name = "phase_index", nullable = false)
+    private Short phaseIndex;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false)
+    private Phase phase;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt; // Inicio real de la fase
+
+    @Column(name = "ended_at", nullable = false)
+    private LocalDateTime endedAt; // Fin real de la fase
+
+    @Column(nullable = false)
+    private Boolean skipped;
+
+    // Constructors
+    public PhaseEvent() {
+    }
+
+    public PhaseEvent(Long sessionId, Integer phaseIndex, Phase phase,
+                      LocalDateTime startedAt, LocalDateTime endedAt, Boolean skipped) {
+        this.sessionId = sessionId;
+        this.phaseIndex = phaseIndex.shortValue();
+        this.phase = phase;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.skipped = skipped;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public Short getPhaseIndex() {
+        return phaseIndex;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getEndedAt() {
+        return endedAt;
+    }
+
+    public Boolean getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,124 @@
+package com.portafolio.PhaseLock_timer.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Plantilla recurrente de un bloque (p. ej. de lunes a viernes a las 09:00).
+ * Las ocurrencias no se guardan para siempre: se materializan en scheduled_blocks solo
+ * hasta materializedUntil, que avanza con una ventana deslizante.
+ */
+@Entity
+@Table(name = "recurring_schedules",
+       indexes = @Index(name = "idx_recurring_active_materialized", columnList = "active, materialized_until"))
+public class RecurringSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_schedule_seq")
+    @SequenceGenerator(name = "recurring_schedule_seq", sequenceName = "recurring_schedule_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "time_block_id", nullable = false)
+    private Long timeBlockId;
+
+    @Column(name = "days_mask", nullable = false)
+    private int daysMask; // bit (DayOfWeek.getValue() - 1)
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "valid_from", nullable = false)
+    private LocalDate validFrom;
+
+    @Column(name = "valid_until")
+    private LocalDate validUntil; // null = sin fin
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @Column(name = "materialized_until", nullable = false)
+    private LocalDateTime materializedUntil; // Ocurrencias hasta aquí ya están en scheduled_blocks
+
+    // Constructors
+    public RecurringSchedule() {
+    }
+
+    public RecurringSchedule(Long timeBlockId, int daysMask, LocalTime startTime,
+                             LocalDate validFrom, LocalDate validUntil, LocalDateTime materializedUntil) {
+        this.timeBlockId = timeBlockId;
+        this.daysMask = daysMask;
+        this.startTime = startTime;
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+        this.materializedUntil = materializedUntil;
+        this.active = true;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTimeBlockId() {
+        return timeBlockId;
+    }
+
+    public void setTimeBlockId(Long timeBlockId) {
+        this.timeBlockId = timeBlockId;
+    }
+
+    public int getDaysMask() {
+        return daysMask;
+    }
+
+    public void setDaysMask(int daysMask) {
+        this.daysMask = daysMask;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDate getValidFrom() {
+        return validFrom;
+    }
+
+    public void setValidFrom(LocalDate validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    public LocalDate getValidUntil() {
+        return validUntil;
+    }
+
+    public void setValidUntil(LocalDate validUntil) {
+        this.validUntil = validUntil;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public LocalDateTime getMaterializedUntil() {
+        return materializedUntil;
+    }
+
+    public void setMaterializedUntil(LocalDateTime materializedUntil) {
+        this.materializedUntil = materializedUntil;
+    }
+}
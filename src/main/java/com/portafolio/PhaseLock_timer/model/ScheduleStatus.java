@@ -0,0 +1,9 @@
+package com.portafolio.PhaseLock_timer.model;
+
+public enum ScheduleStatus {
+    PENDING,    // Esperando su hora de inicio
+    FIRING,     // Reclamado por el hilo de disparo; iniciando la sesión
+    STARTED,    // Se inició la sesión
+    MISSED,     // No se pudo iniciar (otra sesión activa, bloque borrado o demasiado tarde)
+    CANCELLED   // Cancelado por el usuario
+}
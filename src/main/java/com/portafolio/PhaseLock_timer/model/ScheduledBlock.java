@@ -0,0 +1,141 @@
+package com.portafolio.PhaseLock_timer.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inicio programado de un bloque. El índice (status, trigger_at) permite que el bucle
+ * de disparo lea solo la ventana próxima de pendientes, sin cargar toda la agenda.
+ * Una plantilla recurrente no puede tener dos ocurrencias a la misma hora.
+ */
+@Entity
+@Table(name = "scheduled_blocks",
+       indexes = {
+           @Index(name = "idx_scheduled_blocks_status_trigger", columnList = "status, trigger_at"),
+           @Index(name = "idx_scheduled_blocks_trigger", columnList = "trigger_at")
+       },
+       uniqueConstraints = @UniqueConstraint(name = "uk_scheduled_blocks_recurring_trigger",
+                                             columnNames = {"recurring_schedule_id", "trigger_at"}))
+public class ScheduledBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_block_seq")
+    @SequenceGenerator(name = "scheduled_block_seq", sequenceName = "scheduled_block_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "time_block_id", nullable = false)
+    private Long timeBlockId;
+
+    @Column(name = "trigger_at", nullable = false)
+    private LocalDateTime triggerAt; // Hora a la que debe iniciarse la sesión
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ScheduleStatus status;
+
+    @Column(name = "session_id")
+    private Long sessionId; // Sesión creada al dispararse
+
+    @Column(name = "fired_at")
+    private LocalDateTime firedAt; // Momento real del disparo
+
+    @Column(length = 255)
+    private String note; // Motivo si no se pudo iniciar
+
+    @Column(name = "recurring_schedule_id")
+    private Long recurringScheduleId; // Plantilla que generó la ocurrencia (null si es puntual)
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // Constructors
+    public ScheduledBlock() {
+    }
+
+    public ScheduledBlock(Long timeBlockId, LocalDateTime triggerAt) {
+        this.timeBlockId = timeBlockId;
+        this.triggerAt = triggerAt;
+        this.status = ScheduleStatus.PENDING;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTimeBlockId() {
+        return timeBlockId;
+    }
+
+    public void setTimeBlockId(Long timeBlockId) {
+        this.timeBlockId = timeBlockId;
+    }
+
+    public LocalDateTime getTriggerAt() {
+        return triggerAt;
+    }
+
+    public void setTriggerAt(LocalDateTime triggerAt) {
+        this.triggerAt = triggerAt;
+    }
+
+    public ScheduleStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ScheduleStatus status) {
+        this.status = status;
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public LocalDateTime getFiredAt() {
+        return firedAt;
+    }
+
+    public void setFiredAt(LocalDateTime firedAt) {
+        this.firedAt = firedAt;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    public Long getRecurringScheduleId() {
+        return recurringScheduleId;
+    }
+
+    public void setRecurringScheduleId(Long recurringScheduleId) {
+        this.recurringScheduleId = recurringScheduleId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
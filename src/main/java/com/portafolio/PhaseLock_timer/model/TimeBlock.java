@@ -3,12 +3,20 @@ package com.portafolio.PhaseLock_timer.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "time_blocks")
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = TimeBlock.CACHE_REGION) // No cambia tras createBlock
 public class TimeBlock {
 
+    public static final String CACHE_REGION = "timeBlocks";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -36,6 +44,9 @@ public class TimeBlock {
     @Column(nullable = false)
     private Integer numberOfPomodoros; // Número calculado de pomodoros
 
+    @Column(name = "phase_pattern", length = 200)
+    private String phasePattern; // Patrón de fases (null = secuencia clásica)
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -105,6 +116,14 @@ public class TimeBlock {
         this.numberOfPomodoros = numberOfPomodoros;
     }
 
+    public String getPhasePattern() {
+        return phasePattern;
+    }
+
+    public void setPhasePattern(String phasePattern) {
+        this.phasePattern = phasePattern;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
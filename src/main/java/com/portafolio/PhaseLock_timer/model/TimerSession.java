@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "timer_sessions")
+@Table(name = "timer_sessions",
+       indexes = @Index(name = "idx_timer_sessions_status_started", columnList = "status, started_at"))
 public class TimerSession {
 
     @Id
@@ -15,6 +16,9 @@ public class TimerSession {
     @JoinColumn(name = "time_block_id", nullable = false)
     private TimeBlock timeBlock;
 
+    @Embedded
+    private BlockPlan blockPlan; // Copia de la configuración: el estado no necesita cargar timeBlock
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TimerStatus status;
@@ -24,17 +28,20 @@ public class TimerSession {
     private Phase currentPhase;
 
     @Column(nullable = false)
-    private Integer currentPhaseIndex; // Índice en la secuencia (0-based)
+    private int currentPhaseIndex; // Índice en la secuencia (0-based)
 
     @Column(nullable = false)
-    private Integer remainingSeconds; // Segundos restantes en la fase actual
+    private int remainingSeconds; // Segundos restantes en la fase actual
 
     @Column(nullable = false)
-    private Integer totalElapsedSeconds; // Tiempo total transcurrido del bloque
+    private int totalElapsedSeconds; // Tiempo total transcurrido del bloque
 
     @Column(name = "started_at")
     private LocalDateTime startedAt;
 
+    @Column(name = "phase_started_at")
+    private LocalDateTime phaseStartedAt; // Inicio real de la fase actual
+
     @Column(name = "paused_at")
     private LocalDateTime pausedAt;
 
@@ -54,6 +61,7 @@ public class TimerSession {
 
     public TimerSession(TimeBlock timeBlock) {
         this.timeBlock = timeBlock;
+        this.blockPlan = BlockPlan.of(timeBlock);
         this.status = TimerStatus.STOPPED;
         this.currentPhase = Phase.POMODORO;
         this.currentPhaseIndex = 0;
@@ -77,6 +85,17 @@ public class TimerSession {
         this.timeBlock = timeBlock;
     }
 
+    /**
+     * Id del bloque sin inicializar el proxy lazy
+     */
+    public Long getTimeBlockId() {
+        return timeBlock.getId();
+    }
+
+    public BlockPlan getBlockPlan() {
+        return blockPlan;
+    }
+
     public TimerStatus getStatus() {
         return status;
     }
@@ -93,27 +112,27 @@ public class TimerSession {
         this.currentPhase = currentPhase;
     }
 
-    public Integer getCurrentPhaseIndex() {
+    public int getCurrentPhaseIndex() {
         return currentPhaseIndex;
     }
 
-    public void setCurrentPhaseIndex(Integer currentPhaseIndex) {
+    public void setCurrentPhaseIndex(int currentPhaseIndex) {
         this.currentPhaseIndex = currentPhaseIndex;
     }
 
-    public Integer getRemainingSeconds() {
+    public int getRemainingSeconds() {
         return remainingSeconds;
     }
 
-    public void setRemainingSeconds(Integer remainingSeconds) {
+    public void setRemainingSeconds(int remainingSeconds) {
         this.remainingSeconds = remainingSeconds;
     }
 
-    public Integer getTotalElapsedSeconds() {
+    public int getTotalElapsedSeconds() {
         return totalElapsedSeconds;
     }
 
-    public void setTotalElapsedSeconds(Integer totalElapsedSeconds) {
+    public void setTotalElapsedSeconds(int totalElapsedSeconds) {
         this.totalElapsedSeconds = totalElapsedSeconds;
     }
 
@@ -125,6 +144,14 @@ public class TimerSession {
         this.startedAt = startedAt;
     }
 
+    public LocalDateTime getPhaseStartedAt() {
+        return phaseStartedAt;
+    }
+
+    public void setPhaseStartedAt(LocalDateTime phaseStartedAt) {
+        this.phaseStartedAt = phaseStartedAt;
+    }
+
     public LocalDateTime getPausedAt() {
         return pausedAt;
     }
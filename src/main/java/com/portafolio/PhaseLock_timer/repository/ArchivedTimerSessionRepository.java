@@ -0,0 +1,29 @@
+package com.portafolio.PhaseLock_timer.repository;
+
+import com.portafolio.PhaseLock_timer.model.ArchivedTimerSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedTimerSessionRepository extends JpaRepository<ArchivedTimerSession, Long> {
+
+    // INSERT ... SELECT en la base: las filas no pasan por la JVM
+    @Modifying
+    @Query(value = "INSERT INTO timer_sessions_archive (id, time_block_id, plan_total_minutes, "
+                 + "plan_pomodoro_minutes, plan_short_break_minutes, plan_long_break_minutes, plan_phase_pattern, "
+                 + "status, current_phase, current_phase_index, remaining_seconds, total_elapsed_seconds, "
+                 + "started_at, phase_started_at, paused_at, completed_at, archived_at) "
+                 + "SELECT id, time_block_id, plan_total_minutes, plan_pomodoro_minutes, plan_short_break_minutes, "
+                 + "plan_long_break_minutes, plan_phase_pattern, status, current_phase, current_phase_index, "
+                 + "remaining_seconds, total_elapsed_seconds, started_at, phase_started_at, paused_at, completed_at, "
+                 + ":archivedAt FROM timer_sessions WHERE id IN (:ids) AND status = :status",
+           nativeQuery = true)
+    int copyFromLive(@Param("ids") List<Long> ids, @Param("status") String status,
+                     @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,53 @@
+package com.portafolio.PhaseLock_timer.repository;
+
+import com.portafolio.PhaseLock_timer.dto.DailyStatsDTO;
+import com.portafolio.PhaseLock_timer.model.DailyFocusRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyFocusRollupRepository extends JpaRepository<DailyFocusRollup, Long> {
+
+    Optional<DailyFocusRollup> findByRollupDateAndTimeBlockId(LocalDate rollupDate, Long timeBlockId);
+
+    // Incremento atómico en la base: sin leer la fila, sin perder sumas de ticks concurrentes
+    @Modifying
+    @Query("UPDATE DailyFocusRollup r SET r.completedPomodoros = r.completedPomodoros + :pomodoros, "
+         + "r.focusSeconds = r.focusSeconds + :focusSeconds, r.breakSeconds = r.breakSeconds + :breakSeconds, "
+         + "r.skippedPhases = r.skippedPhases + :skippedPhases, r.completedBlocks = r.completedBlocks + :completedBlocks "
+         + "WHERE r.rollupDate = :rollupDate AND r.timeBlockId = :timeBlockId")
+    int increment(@Param("rollupDate") LocalDate rollupDate,
+                  @Param("timeBlockId") Long timeBlockId,
+                  @Param("pomodoros") int pomodoros,
+                  @Param("focusSeconds") long focusSeconds,
+                  @Param("breakSeconds") long breakSeconds,
+                  @Param("skippedPhases") int skippedPhases,
+                  @Param("completedBlocks") int completedBlocks);
+
+    // Crea la fila del día a cero si no existe; dos creadores a la vez chocan con la clave única
+    @Modifying
+    @Query(value = "INSERT INTO daily_focus_rollups (rollup_date, time_block_id, completed_pomodoros, "
+                 + "focus_seconds, break_seconds, skipped_phases, completed_blocks) "
+                 + "SELECT :rollupDate, :timeBlockId, 0, 0, 0, 0, 0 WHERE NOT EXISTS ("
+                 + "SELECT 1 FROM daily_focus_rollups WHERE rollup_date = :rollupDate AND time_block_id = :timeBlockId)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("rollupDate") LocalDate rollupDate, @Param("timeBlockId") Long timeBlockId);
+
+    List<DailyFocusRollup> findByTimeBlockIdAndRollupDateBetweenOrderByRollupDateAsc(Long timeBlockId,
+                                                                                    LocalDate from,
+                                                                                    LocalDate to);
+
+    @Query("SELECT new com.portafolio.PhaseLock_timer.dto.DailyStatsDTO(" +
+           "r.rollupDate, SUM(r.completedPomodoros), SUM(r.focusSeconds), SUM(r.breakSeconds), " +
+           "SUM(r.skippedPhases), SUM(r.completedBlocks)) " +
+           "FROM DailyFocusRollup r WHERE r.rollupDate BETWEEN :from AND :to " +
+           "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<DailyStatsDTO> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,18 @@
+package com.portafolio.PhaseLock_timer.repository;
+
+import com.portafolio.PhaseLock_timer.model.OutboxEvent;
+import com.portafolio.PhaseLock_timer.model.OutboxStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Rango sobre idx_outbox_events_status_id: los pendientes más antiguos primero
+    List<OutboxEvent> findByStatusOrderByIdAsc(OutboxStatus status, Limit limit);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,12 @@
+package com.portafolio.PhaseLock_timer.repository;
+
+import com.portafolio.PhaseLock_timer.model.PhaseEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PhaseEventRepository extends JpaRepository<PhaseEvent, Long> {
+    List<PhaseEvent> findBySessionIdOrderByPhaseIndexAscEndedAtAsc(Long sessionId);
+}
@@ -0,0 +1,42 @@
+package com.portafolio.PhaseLock_timer.repository;
+
+import com.portafolio.PhaseLock_timer.model.RecurringSchedule;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RecurringScheduleRepository extends JpaRepository<RecurringSchedule, Long> {
+
+    // Keyset sobre idx_recurring_active_materialized: plantillas cuya ventana se ha quedado corta,
+    // después de (afterUntil, afterId); una plantilla que falla no se vuelve a leer en la misma pasada
+    @Query("SELECT r FROM RecurringSchedule r "
+         + "WHERE r.active = true AND r.materializedUntil < :until "
+         + "AND (r.materializedUntil > :afterUntil OR (r.materializedUntil = :afterUntil AND r.id > :afterId)) "
+         + "ORDER BY r.materializedUntil, r.id")
+    List<RecurringSchedule> findStaleAfter(@Param("until") LocalDateTime until,
+                                           @Param("afterUntil") LocalDateTime afterUntil,
+                                           @Param("afterId") Long afterId,
+                                           Pageable page);
+
+    List<RecurringSchedule> findByActiveTrue();
+
+    // Reclama la ventana (expected, until]: solo si sigue activa y nadie movió la marca desde que se leyó
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RecurringSchedule r SET r.materializedUntil = :until "
+         + "WHERE r.id = :id AND r.active = true AND r.materializedUntil = :expected")
+    int advanceMaterializedUntil(@Param("id") Long id,
+                                 @Param("expected") LocalDateTime expected,
+                                 @Param("until") LocalDateTime until);
+
+    // Solo toca active: nunca reescribe la marca con un valor leído antes
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RecurringSchedule r SET r.active = false WHERE r.id = :id")
+    int deactivate(@Param("id") Long id);
+}
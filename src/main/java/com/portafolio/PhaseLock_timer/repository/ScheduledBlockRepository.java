@@ -0,0 +1,40 @@
+package com.portafolio.PhaseLock_timer.repository;
+
+import com.portafolio.PhaseLock_timer.model.ScheduleStatus;
+import com.portafolio.PhaseLock_timer.model.ScheduledBlock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ScheduledBlockRepository extends JpaRepository<ScheduledBlock, Long> {
+
+    // Keyset sobre idx_scheduled_blocks_status_trigger: pendientes hasta upTo después de (afterAt, afterId),
+    // en orden de disparo; los empates de trigger_at se reparten entre lotes por id
+    @Query("SELECT b FROM ScheduledBlock b "
+         + "WHERE b.status = :status AND b.triggerAt <= :upTo "
+         + "AND (b.triggerAt > :afterAt OR (b.triggerAt = :afterAt AND b.id > :afterId)) "
+         + "ORDER BY b.triggerAt, b.id")
+    List<ScheduledBlock> findDueAfter(@Param("status") ScheduleStatus status,
+                                      @Param("afterAt") LocalDateTime afterAt,
+                                      @Param("afterId") Long afterId,
+                                      @Param("upTo") LocalDateTime upTo,
+                                      Pageable page);
+
+    List<ScheduledBlock> findByTriggerAtBetweenOrderByTriggerAtAsc(LocalDateTime from, LocalDateTime to);
+
+    List<ScheduledBlock> findByRecurringScheduleIdAndStatus(Long recurringScheduleId, ScheduleStatus status);
+
+    List<ScheduledBlock> findByStatus(ScheduleStatus status);
+
+    // Cambio de estado condicional: solo uno de disparo y cancelación gana sobre un PENDING
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScheduledBlock b SET b.status = :to WHERE b.id = :id AND b.status = :from")
+    int transition(@Param("id") Long id, @Param("from") ScheduleStatus from, @Param("to") ScheduleStatus to);
+}
@@ -1,10 +1,19 @@
 package com.portafolio.PhaseLock_timer.repository;
 
 import com.portafolio.PhaseLock_timer.model.TimeBlock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TimeBlockRepository extends JpaRepository<TimeBlock, Long> {
-}
 
+    // Query cache: se invalida sola al insertar en time_blocks
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<TimeBlock> findAll();
+}
@@ -2,14 +2,45 @@ package com.portafolio.PhaseLock_timer.repository;
 
 import com.portafolio.PhaseLock_timer.model.TimerSession;
 import com.portafolio.PhaseLock_timer.model.TimerStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TimerSessionRepository extends JpaRepository<TimerSession, Long> {
     Optional<TimerSession> findFirstByStatusInOrderByStartedAtDesc(List<TimerStatus> statuses);
-}
 
+    // Para los casos que necesitan el TimeBlock completo: una sola consulta en lugar de sesión + proxy
+    @Query("SELECT s FROM TimerSession s JOIN FETCH s.timeBlock WHERE s.id = :id")
+    Optional<TimerSession> findWithTimeBlockById(@Param("id") Long id);
+
+    // Keyset sobre idx_timer_sessions_status_started: sesiones con ese estado iniciadas antes de
+    // cutoff y después de (afterStartedAt, afterId), en orden; solo id y fecha, sin cargar filas
+    @Query("SELECT s.id AS id, s.startedAt AS startedAt FROM TimerSession s "
+         + "WHERE s.status = :status AND s.startedAt < :cutoff "
+         + "AND (s.startedAt > :afterStartedAt OR (s.startedAt = :afterStartedAt AND s.id > :afterId)) "
+         + "ORDER BY s.startedAt, s.id")
+    List<SessionKey> findKeysStartedBefore(@Param("status") TimerStatus status,
+                                           @Param("cutoff") LocalDateTime cutoff,
+                                           @Param("afterStartedAt") LocalDateTime afterStartedAt,
+                                           @Param("afterId") Long afterId,
+                                           Pageable page);
+
+    // Solo borra si el estado no cambió desde que se copió
+    @Modifying
+    @Query("DELETE FROM TimerSession s WHERE s.id IN :ids AND s.status = :status")
+    int deleteByIdInAndStatus(@Param("ids") List<Long> ids, @Param("status") TimerStatus status);
+
+    interface SessionKey {
+        Long getId();
+
+        LocalDateTime getStartedAt();
+    }
+}
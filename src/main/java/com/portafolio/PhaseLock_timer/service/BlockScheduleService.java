@@ -0,0 +1,396 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.ScheduledBlockDTO;
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import com.portafolio.PhaseLock_timer.model.ScheduleStatus;
+import com.portafolio.PhaseLock_timer.model.ScheduledBlock;
+import com.portafolio.PhaseLock_timer.repository.ScheduledBlockRepository;
+import com.portafolio.PhaseLock_timer.repository.TimeBlockRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Agenda de bloques programados. Un único hilo de disparo mantiene en una cola de prioridad
+ * solo los pendientes de la ventana próxima (lookahead), que rellena con lecturas por rango
+ * del índice (status, trigger_at); la agenda completa queda en la base de datos.
+ * Al arrancar, la primera lectura recoge también los vencidos mientras el servidor estaba caído.
+ *
+ * Disparar y cancelar compiten con un UPDATE condicional sobre el estado: el hilo de disparo
+ * reclama la entrada (PENDING → FIRING) antes de iniciar la sesión, y solo se cancela una
+ * entrada que sigue PENDING. Un inicio se intenta como mucho una vez: una entrada que quedó
+ * en FIRING por una caída se marca MISSED al arrancar, no se vuelve a disparar.
+ */
+@Service
+public class BlockScheduleService {
+
+    // Límite inferior de la primera lectura (incluye todo lo vencido)
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final long MIN_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ScheduledBlockRepository scheduledBlockRepository;
+    private final TimeBlockRepository timeBlockRepository;
+    private final TimerService timerService;
+    private final TimerClock clock;
+    private final Duration lookahead;
+    private final Duration grace;
+    private final int batchSize;
+    private final TransactionTemplate statusTransaction;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Trigger> queue = new PriorityQueue<>(
+        Comparator.comparing(Trigger::triggerAt).thenComparingLong(Trigger::id));
+    private final Set<Long> queuedIds = new HashSet<>();
+    private LocalDateTime horizon = EPOCH; // El índice ya se leyó hasta (horizon, horizonId) inclusive
+    private long horizonId = Long.MAX_VALUE;
+
+    private volatile boolean running;
+    private Thread triggerThread;
+
+    private record Trigger(long id, LocalDateTime triggerAt) {
+    }
+
+    @Autowired
+    public BlockScheduleService(ScheduledBlockRepository scheduledBlockRepository,
+                                TimeBlockRepository timeBlockRepository,
+                                TimerService timerService,
+                                TimerClock clock,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${phaselock.schedule.lookahead-ms:60000}") long lookaheadMs,
+                                @Value("${phaselock.schedule.grace-ms:300000}") long graceMs,
+                                @Value("${phaselock.schedule.batch-size:1000}") int batchSize) {
+        this.scheduledBlockRepository = scheduledBlockRepository;
+        this.timeBlockRepository = timeBlockRepository;
+        this.timerService = timerService;
+        this.clock = clock;
+        this.lookahead = Duration.ofMillis(lookaheadMs);
+        this.grace = Duration.ofMillis(graceMs);
+        this.batchSize = batchSize;
+        // Se une a la transacción del llamador si la hay (p. ej. al desactivar una plantilla)
+        this.statusTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Programar el inicio de un bloque
+     */
+    public ScheduledBlockDTO schedule(Long blockId, LocalDateTime startAt) {
+        if (!timeBlockRepository.existsById(blockId)) {
+            throw new IllegalArgumentException("TimeBlock not found with id: " + blockId);
+        }
+        ScheduledBlock saved = scheduledBlockRepository.save(new ScheduledBlock(blockId, startAt));
+
+        // Si cae dentro de la ventana ya leída, el índice no lo volverá a devolver
+        lock.lock();
+        try {
+            if (!saved.getTriggerAt().isAfter(horizon)) {
+                enqueue(saved);
+                changed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return toDTO(saved);
+    }
+
+    /**
+     * Guardar ocurrencias de una plantilla recurrente (ya validada) y encolar las de la ventana leída.
+     * Se encolan tras el commit del llamador: el hilo de disparo no debe ver filas que aún pueden deshacerse.
+     */
+    public void scheduleOccurrences(Long recurringScheduleId, Long blockId, List<LocalDateTime> startTimes) {
+        List<ScheduledBlock> entries = new ArrayList<>(startTimes.size());
+        for (LocalDateTime startAt : startTimes) {
+            ScheduledBlock entry = new ScheduledBlock(blockId, startAt);
+            entry.setRecurringScheduleId(recurringScheduleId);
+            entries.add(entry);
+        }
+        List<ScheduledBlock> saved = scheduledBlockRepository.saveAll(entries);
+
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                for (ScheduledBlock entry : saved) {
+                    if (!entry.getTriggerAt().isAfter(horizon)) {
+                        enqueue(entry);
+                        changed.signal();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Cancelar las ocurrencias pendientes de una plantilla recurrente; las que ya se están
+     * disparando se dejan terminar
+     */
+    public void cancelOccurrences(Long recurringScheduleId) {
+        scheduledBlockRepository.findByRecurringScheduleIdAndStatus(recurringScheduleId, ScheduleStatus.PENDING)
+            .forEach(entry -> cancelIfPending(entry.getId()));
+    }
+
+    /**
+     * Cancelar un inicio pendiente
+     */
+    public ScheduledBlockDTO cancel(Long id) {
+        if (!cancelIfPending(id)) {
+            throw new IllegalStateException("Scheduled block is not pending. Current status: " + getEntry(id).getStatus());
+        }
+        return toDTO(getEntry(id));
+    }
+
+    private boolean cancelIfPending(Long id) {
+        Integer updated = statusTransaction.execute(tx -> {
+            int count = scheduledBlockRepository.transition(id, ScheduleStatus.PENDING, ScheduleStatus.CANCELLED);
+            if (count > 0) {
+                // Hasta el commit sigue en cola, pero fire() ya no puede reclamarla
+                afterCommit(() -> dequeue(id));
+            }
+            return count;
+        });
+        return updated != null && updated > 0;
+    }
+
+    private void dequeue(long id) {
+        lock.lock();
+        try {
+            if (queuedIds.remove(id)) {
+                queue.removeIf(trigger -> trigger.id() == id);
+                changed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ScheduledBlockDTO get(Long id) {
+        return toDTO(getEntry(id));
+    }
+
+    /**
+     * Vista de calendario: entradas con inicio en [from, to]
+     */
+    public List<ScheduledBlockDTO> getCalendar(LocalDateTime from, LocalDateTime to) {
+        return scheduledBlockRepository.findByTriggerAtBetweenOrderByTriggerAtAsc(from, to).stream()
+            .map(this::toDTO)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Entradas en la cola de disparo (solo la ventana próxima)
+     */
+    public int queuedCount() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        recoverInterrupted();
+        lock.lock();
+        try {
+            // Reconstruir desde el índice: tras un reinicio la cola en memoria no existe
+            queue.clear();
+            queuedIds.clear();
+            horizon = EPOCH;
+            horizonId = Long.MAX_VALUE;
+        } finally {
+            lock.unlock();
+        }
+        running = true;
+        triggerThread = Thread.ofPlatform().name("block-trigger").daemon(true).start(this::runLoop);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (triggerThread != null) {
+            triggerThread.interrupt();
+            try {
+                triggerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            triggerThread = null;
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                Trigger due = awaitNextDue();
+                if (due != null) {
+                    fire(due);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("Error in block trigger loop: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Esperar al siguiente disparo o a que toque leer más del índice; null si solo se ha releído
+     */
+    private Trigger awaitNextDue() throws InterruptedException {
+        lock.lock();
+        try {
+            LocalDateTime now = clock.now();
+            // Releer cuando quede menos de media ventana leída por delante, sin pasar de un lote en cola
+            boolean canRefill = queue.size() < batchSize;
+            if (canRefill && !now.plus(lookahead.dividedBy(2)).isBefore(horizon)) {
+                refill(now);
+                canRefill = queue.size() < batchSize;
+            }
+
+            Trigger head = queue.peek();
+            if (head != null && !head.triggerAt().isAfter(now)) {
+                queue.poll();
+                queuedIds.remove(head.id());
+                return head;
+            }
+
+            LocalDateTime wakeAt = now.plus(lookahead);
+            if (canRefill) {
+                wakeAt = horizon.minus(lookahead.dividedBy(2));
+            }
+            if (head != null && head.triggerAt().isBefore(wakeAt)) {
+                wakeAt = head.triggerAt();
+            }
+            long waitNanos = Duration.between(now, wakeAt).toNanos();
+            changed.awaitNanos(waitNanos > 0 ? waitNanos : MIN_WAIT_NANOS);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Leer del índice los pendientes después de (horizon, horizonId) hasta now + lookahead
+     */
+    private void refill(LocalDateTime now) {
+        LocalDateTime upTo = now.plus(lookahead);
+        List<ScheduledBlock> batch = scheduledBlockRepository.findDueAfter(
+            ScheduleStatus.PENDING, horizon, horizonId, upTo, PageRequest.of(0, batchSize));
+        batch.forEach(this::enqueue);
+
+        if (batch.size() < batchSize) {
+            horizon = upTo;
+            horizonId = Long.MAX_VALUE;
+        } else {
+            // Lote lleno: seguir justo después del último leído, aunque comparta trigger_at con el siguiente
+            ScheduledBlock last = batch.get(batch.size() - 1);
+            horizon = last.getTriggerAt();
+            horizonId = last.getId();
+        }
+    }
+
+    private void enqueue(ScheduledBlock entry) {
+        if (queuedIds.add(entry.getId())) {
+            queue.add(new Trigger(entry.getId(), entry.getTriggerAt()));
+        }
+    }
+
+    /**
+     * Reclamar la entrada e iniciar la sesión del bloque, o marcarlo como perdido si no se puede
+     */
+    private void fire(Trigger trigger) {
+        Integer claimed = statusTransaction.execute(tx ->
+            scheduledBlockRepository.transition(trigger.id(), ScheduleStatus.PENDING, ScheduleStatus.FIRING));
+        if (claimed == null || claimed == 0) {
+            return; // Cancelada o ya disparada
+        }
+        ScheduledBlock entry = getEntry(trigger.id());
+
+        LocalDateTime now = clock.now();
+        entry.setFiredAt(now);
+        Duration late = Duration.between(entry.getTriggerAt(), now);
+        if (late.compareTo(grace) > 0) {
+            entry.setStatus(ScheduleStatus.MISSED);
+            entry.setNote("Trigger time passed " + late.toSeconds() + "s ago");
+        } else {
+            try {
+                TimerStatusDTO status = timerService.startBlock(entry.getTimeBlockId());
+                entry.setStatus(ScheduleStatus.STARTED);
+                entry.setSessionId(status.getSessionId());
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                entry.setStatus(ScheduleStatus.MISSED);
+                entry.setNote(e.getMessage());
+            }
+        }
+        scheduledBlockRepository.save(entry);
+    }
+
+    /**
+     * Entradas que quedaron en FIRING por una caída: la sesión pudo iniciarse o no, así que
+     * no se repiten
+     */
+    private void recoverInterrupted() {
+        for (ScheduledBlock entry : scheduledBlockRepository.findByStatus(ScheduleStatus.FIRING)) {
+            entry.setStatus(ScheduleStatus.MISSED);
+            entry.setNote("Interrupted while starting; not retried");
+            scheduledBlockRepository.save(entry);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private ScheduledBlock getEntry(Long id) {
+        return scheduledBlockRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Scheduled block not found with id: " + id));
+    }
+
+    private ScheduledBlockDTO toDTO(ScheduledBlock entry) {
+        ScheduledBlockDTO dto = new ScheduledBlockDTO();
+        dto.setId(entry.getId());
+        dto.setBlockId(entry.getTimeBlockId());
+        dto.setStartAt(entry.getTriggerAt());
+        dto.setStatus(entry.getStatus());
+        dto.setSessionId(entry.getSessionId());
+        dto.setFiredAt(entry.getFiredAt());
+        dto.setNote(entry.getNote());
+        dto.setRecurringScheduleId(entry.getRecurringScheduleId());
+        return dto;
+    }
+}
@@ -1,14 +1,19 @@
 package com.portafolio.PhaseLock_timer.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.portafolio.PhaseLock_timer.config.BlockConfiguration;
+import com.portafolio.PhaseLock_timer.dto.BatchPreviewRequestDTO;
 import com.portafolio.PhaseLock_timer.dto.BlockConfigurationDTO;
 import com.portafolio.PhaseLock_timer.dto.BlockSequenceDTO;
-import com.portafolio.PhaseLock_timer.dto.PhaseSequenceItem;
+import com.portafolio.PhaseLock_timer.dto.IntRangeDTO;
+import com.portafolio.PhaseLock_timer.dto.SequencePreviewCellDTO;
 import com.portafolio.PhaseLock_timer.dto.TimeBlockDTO;
-import com.portafolio.PhaseLock_timer.model.Phase;
+import com.portafolio.PhaseLock_timer.exception.BadRequestException;
 import com.portafolio.PhaseLock_timer.model.TimeBlock;
 import com.portafolio.PhaseLock_timer.repository.TimeBlockRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,9 +25,23 @@ import java.util.stream.Collectors;
 @Transactional
 public class BlockService {
 
+    public static final String BLOCKS_CACHE = "blocks";
+
+    // Límite de configuraciones evaluadas por una sola petición de preview por lotes
+    private static final int MAX_BATCH_CELLS = 10000;
+
+    // Límite de secuencias distintas guardadas en caché
+    private static final int MAX_CACHED_SEQUENCES = 10000;
+
     private final TimeBlockRepository timeBlockRepository;
     private final BlockConfiguration defaultConfig;
 
+    // Las secuencias solo dependen de la configuración: se compilan una vez y se comparten.
+    // Acotada: al llenarse se desalojan las menos usadas (un patrón inválido no se guarda)
+    private final Cache<SequenceKey, CompiledSequence> sequenceCache = Caffeine.newBuilder()
+        .maximumSize(MAX_CACHED_SEQUENCES)
+        .build();
+
     @Autowired
     public BlockService(TimeBlockRepository timeBlockRepository, BlockConfiguration defaultConfig) {
         this.timeBlockRepository = timeBlockRepository;
@@ -44,7 +63,7 @@ public class BlockService {
             return 1; // Al menos un pomodoro
         }
         
-        return availableTime / cycleDuration;
+        return Math.max(availableTime / cycleDuration, 1); // Al menos un pomodoro
     }
 
     /**
@@ -55,79 +74,70 @@ public class BlockService {
                                               Integer pomodoroDurationMinutes,
                                               Integer shortBreakDurationMinutes,
                                               Integer longBreakDurationMinutes) {
-        Integer numberOfPomodoros = calculateNumberOfPomodoros(
-            totalDurationMinutes, pomodoroDurationMinutes, 
-            shortBreakDurationMinutes, longBreakDurationMinutes
-        );
+        return compileSequence(totalDurationMinutes, pomodoroDurationMinutes,
+                               shortBreakDurationMinutes, longBreakDurationMinutes, null).toDTO();
+    }
 
-        List<PhaseSequenceItem> sequence = new ArrayList<>();
-        int sequenceNumber = 1;
-
-        // Agregar pomodoros con sus breaks cortos
-        for (int i = 0; i < numberOfPomodoros; i++) {
-            // Pomodoro
-            sequence.add(new PhaseSequenceItem(
-                Phase.POMODORO, 
-                pomodoroDurationMinutes, 
-                sequenceNumber++
-            ));
-
-            // Short break después de cada pomodoro (excepto el último)
-            if (i < numberOfPomodoros - 1) {
-                sequence.add(new PhaseSequenceItem(
-                    Phase.SHORT_BREAK, 
-                    shortBreakDurationMinutes, 
-                    sequenceNumber++
-                ));
+    /**
+     * Secuencia compilada a enteros: la clásica o la del patrón de fases si lo hay.
+     * Se compila una vez por configuración y la comparten todas las sesiones.
+     */
+    public CompiledSequence compileSequence(Integer totalDurationMinutes,
+                                            Integer pomodoroDurationMinutes,
+                                            Integer shortBreakDurationMinutes,
+                                            Integer longBreakDurationMinutes,
+                                            String phasePattern) {
+        SequenceKey key = new SequenceKey(totalDurationMinutes, pomodoroDurationMinutes,
+                                          shortBreakDurationMinutes, longBreakDurationMinutes, phasePattern);
+        return sequenceCache.get(key, k -> {
+            if (phasePattern != null) {
+                return PhasePattern.compile(phasePattern, pomodoroDurationMinutes,
+                                            shortBreakDurationMinutes, longBreakDurationMinutes);
             }
-        }
-
-        // Agregar el break largo final
-        if (longBreakDurationMinutes > 0) {
-            sequence.add(new PhaseSequenceItem(
-                Phase.LONG_BREAK, 
-                longBreakDurationMinutes, 
-                sequenceNumber
-            ));
-        }
+            Integer numberOfPomodoros = calculateNumberOfPomodoros(
+                totalDurationMinutes, pomodoroDurationMinutes,
+                shortBreakDurationMinutes, longBreakDurationMinutes
+            );
+            return PhasePattern.classic(totalDurationMinutes, numberOfPomodoros, pomodoroDurationMinutes,
+                                        shortBreakDurationMinutes, longBreakDurationMinutes);
+        });
+    }
 
-        return new BlockSequenceDTO(totalDurationMinutes, numberOfPomodoros, sequence);
+    public CompiledSequence compileSequence(TimeBlock timeBlock) {
+        return compileSequence(timeBlock.getTotalDurationMinutes(), timeBlock.getPomodoroDurationMinutes(),
+                               timeBlock.getShortBreakDurationMinutes(), timeBlock.getLongBreakDurationMinutes(),
+                               timeBlock.getPhasePattern());
     }
 
     /**
      * Crea un nuevo TimeBlock con la configuración proporcionada
      */
     public TimeBlockDTO createBlock(BlockConfigurationDTO configDTO) {
-        // Calcular número de pomodoros
-        Integer numberOfPomodoros = calculateNumberOfPomodoros(
+        // Compilar la secuencia antes de guardar: un patrón inválido no llega a la BD
+        String phasePattern = normalizePattern(configDTO.getPhasePattern());
+        CompiledSequence sequence = compileSequence(
             configDTO.getTotalDurationMinutes(),
             configDTO.getPomodoroDurationMinutes(),
             configDTO.getShortBreakDurationMinutes(),
-            configDTO.getLongBreakDurationMinutes()
+            configDTO.getLongBreakDurationMinutes(),
+            phasePattern
         );
 
-        // Crear entidad
+        // Crear entidad (con patrón, la duración total y los pomodoros salen de la secuencia)
         TimeBlock timeBlock = new TimeBlock(
-            configDTO.getTotalDurationMinutes(),
+            phasePattern != null ? sequence.totalSeconds() / 60 : configDTO.getTotalDurationMinutes(),
             configDTO.getPomodoroDurationMinutes(),
             configDTO.getShortBreakDurationMinutes(),
             configDTO.getLongBreakDurationMinutes()
         );
-        timeBlock.setNumberOfPomodoros(numberOfPomodoros);
+        timeBlock.setPhasePattern(phasePattern);
+        timeBlock.setNumberOfPomodoros(sequence.numberOfPomodoros());
 
         // Guardar en BD
         TimeBlock saved = timeBlockRepository.save(timeBlock);
 
-        // Generar secuencia
-        BlockSequenceDTO sequence = calculateSequence(
-            saved.getTotalDurationMinutes(),
-            saved.getPomodoroDurationMinutes(),
-            saved.getShortBreakDurationMinutes(),
-            saved.getLongBreakDurationMinutes()
-        );
-
         // Convertir a DTO
-        return toDTO(saved, sequence);
+        return toDTO(saved, sequence.toDTO());
     }
 
     /**
@@ -144,21 +154,15 @@ public class BlockService {
     }
 
     /**
-     * Obtiene un TimeBlock por ID
+     * Obtiene un TimeBlock por ID (los bloques no cambian: el DTO se cachea)
      */
+    @Cacheable(BLOCKS_CACHE)
     @Transactional(readOnly = true)
     public TimeBlockDTO getBlockById(Long id) {
         TimeBlock timeBlock = timeBlockRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("TimeBlock not found with id: " + id));
 
-        BlockSequenceDTO sequence = calculateSequence(
-            timeBlock.getTotalDurationMinutes(),
-            timeBlock.getPomodoroDurationMinutes(),
-            timeBlock.getShortBreakDurationMinutes(),
-            timeBlock.getLongBreakDurationMinutes()
-        );
-
-        return toDTO(timeBlock, sequence);
+        return toDTO(timeBlock, compileSequence(timeBlock).toDTO());
     }
 
     /**
@@ -167,15 +171,7 @@ public class BlockService {
     @Transactional(readOnly = true)
     public List<TimeBlockDTO> getAllBlocks() {
         return timeBlockRepository.findAll().stream()
-            .map(block -> {
-                BlockSequenceDTO sequence = calculateSequence(
-                    block.getTotalDurationMinutes(),
-                    block.getPomodoroDurationMinutes(),
-                    block.getShortBreakDurationMinutes(),
-                    block.getLongBreakDurationMinutes()
-                );
-                return toDTO(block, sequence);
-            })
+            .map(block -> toDTO(block, compileSequence(block).toDTO()))
             .collect(Collectors.toList());
     }
 
@@ -184,12 +180,95 @@ public class BlockService {
      */
     @Transactional(readOnly = true)
     public BlockSequenceDTO previewSequence(BlockConfigurationDTO configDTO) {
-        return calculateSequence(
+        return compileSequence(
             configDTO.getTotalDurationMinutes(),
             configDTO.getPomodoroDurationMinutes(),
             configDTO.getShortBreakDurationMinutes(),
-            configDTO.getLongBreakDurationMinutes()
-        );
+            configDTO.getLongBreakDurationMinutes(),
+            normalizePattern(configDTO.getPhasePattern())
+        ).toDTO();
+    }
+
+    /**
+     * Evalúa en paralelo la rejilla de configuraciones (producto de los cuatro rangos)
+     */
+    @Transactional(readOnly = true)
+    public List<SequencePreviewCellDTO> previewBatch(BatchPreviewRequestDTO request) {
+        IntRangeDTO[] ranges = {request.getTotalDurationMinutes(), request.getPomodoroDurationMinutes(),
+                                request.getShortBreakDurationMinutes(), request.getLongBreakDurationMinutes()};
+        String[] fields = {"totalDurationMinutes", "pomodoroDurationMinutes",
+                           "shortBreakDurationMinutes", "longBreakDurationMinutes"};
+        int[] mins = {1, 1, 0, 0};
+
+        // Tamaño de la rejilla antes de reservar nada: cada rango se cuenta en long y el
+        // producto se corta en cuanto supera el límite (nunca desborda: <= MAX * 2^32)
+        long cells = 1;
+        for (int i = 0; i < ranges.length; i++) {
+            cells *= rangeSize(ranges[i], fields[i], mins[i]);
+            if (cells > MAX_BATCH_CELLS) {
+                throw new BadRequestException(
+                    "Batch preview grid exceeds " + MAX_BATCH_CELLS + " configurations");
+            }
+        }
+
+        List<Integer> totals = expand(ranges[0]);
+        List<Integer> pomodoros = expand(ranges[1]);
+        List<Integer> shortBreaks = expand(ranges[2]);
+        List<Integer> longBreaks = expand(ranges[3]);
+
+        List<BlockConfigurationDTO> grid = new ArrayList<>((int) cells);
+        for (Integer total : totals) {
+            for (Integer pomodoro : pomodoros) {
+                for (Integer shortBreak : shortBreaks) {
+                    for (Integer longBreak : longBreaks) {
+                        grid.add(new BlockConfigurationDTO(total, pomodoro, shortBreak, longBreak));
+                    }
+                }
+            }
+        }
+
+        boolean includeSequence = !Boolean.FALSE.equals(request.getIncludeSequence());
+        return grid.parallelStream()
+            .map(config -> {
+                BlockSequenceDTO sequence = previewSequence(config);
+                return new SequencePreviewCellDTO(config, sequence.getNumberOfPomodoros(),
+                                                  sequence.getTotalPhases(), includeSequence ? sequence : null);
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Número de valores del rango, validándolo (min <= from <= to <= MAX_PHASE_MINUTES, step >= 1)
+     */
+    private long rangeSize(IntRangeDTO range, String field, int min) {
+        if (range == null || range.getFrom() == null || range.getTo() == null) {
+            throw new BadRequestException("Range for " + field + " is required");
+        }
+        int step = range.getStep() != null ? range.getStep() : 1;
+        if (range.getFrom() < min || range.getTo() < range.getFrom()
+                || range.getTo() > PhasePattern.MAX_PHASE_MINUTES || step <= 0) {
+            throw new BadRequestException("Invalid range for " + field + ": " + range.getFrom()
+                + ".." + range.getTo() + " step " + step + " (values must be between " + min + " and "
+                + PhasePattern.MAX_PHASE_MINUTES + ", from <= to and step >= 1)");
+        }
+        return ((long) range.getTo() - range.getFrom()) / step + 1;
+    }
+
+    /**
+     * Valores de un rango ya validado; se calculan por índice para no desbordar cerca de Integer.MAX_VALUE
+     */
+    private List<Integer> expand(IntRangeDTO range) {
+        int step = range.getStep() != null ? range.getStep() : 1;
+        int size = (int) (((long) range.getTo() - range.getFrom()) / step + 1);
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(range.getFrom() + i * step);
+        }
+        return values;
+    }
+
+    private String normalizePattern(String phasePattern) {
+        return phasePattern == null || phasePattern.isBlank() ? null : phasePattern.trim();
     }
 
     /**
@@ -203,9 +282,15 @@ public class BlockService {
         dto.setShortBreakDurationMinutes(timeBlock.getShortBreakDurationMinutes());
         dto.setLongBreakDurationMinutes(timeBlock.getLongBreakDurationMinutes());
         dto.setNumberOfPomodoros(timeBlock.getNumberOfPomodoros());
+        dto.setPhasePattern(timeBlock.getPhasePattern());
         dto.setCreatedAt(timeBlock.getCreatedAt());
         dto.setSequence(sequence);
         return dto;
     }
+
+    private record SequenceKey(int totalDurationMinutes, int pomodoroDurationMinutes,
+                               int shortBreakDurationMinutes, int longBreakDurationMinutes,
+                               String phasePattern) {
+    }
 }
 
@@ -0,0 +1,68 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.portafolio.PhaseLock_timer.dto.CacheStatsDTO;
+import com.portafolio.PhaseLock_timer.model.TimeBlock;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aciertos y fallos de las cachés de bloques: caché de segundo nivel de Hibernate
+ * (entidad y consultas) y la caché de Spring sobre getBlockById. Incluye la caché de
+ * Idempotency-Key (aciertos = reintentos servidos sin tocar el servicio).
+ */
+@Service
+public class CacheMetricsService {
+
+    private final Statistics statistics;
+    private final CacheManager cacheManager;
+    private final IdempotencyCache idempotencyCache;
+
+    @Autowired
+    public CacheMetricsService(EntityManagerFactory entityManagerFactory, CacheManager cacheManager,
+                               IdempotencyCache idempotencyCache) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.cacheManager = cacheManager;
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    public List<CacheStatsDTO> getStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+
+        CacheRegionStatistics blocks = statistics.getDomainDataRegionStatistics(TimeBlock.CACHE_REGION);
+        stats.add(new CacheStatsDTO(TimeBlock.CACHE_REGION, "hibernate-entity",
+                                    blocks.getHitCount(), blocks.getMissCount(), blocks.getPutCount(),
+                                    sizeOrNull(blocks.getElementCountInMemory())));
+
+        stats.add(new CacheStatsDTO("query-results", "hibernate-query",
+                                    statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                                    statistics.getQueryCachePutCount(), null));
+
+        Cache cache = cacheManager.getCache(BlockService.BLOCKS_CACHE);
+        if (cache instanceof CaffeineCache caffeine) {
+            CacheStats caffeineStats = caffeine.getNativeCache().stats();
+            stats.add(new CacheStatsDTO(BlockService.BLOCKS_CACHE, "spring",
+                                        caffeineStats.hitCount(), caffeineStats.missCount(), null,
+                                        caffeine.getNativeCache().estimatedSize()));
+        }
+
+        stats.add(new CacheStatsDTO(IdempotencyCache.NAME, "idempotency",
+                                    idempotencyCache.getReplays(), idempotencyCache.getExecutions(), null,
+                                    idempotencyCache.estimatedSize()));
+        return stats;
+    }
+
+    private static Long sizeOrNull(long count) {
+        return count < 0 ? null : count; // -1 si el proveedor no lo expone
+    }
+}
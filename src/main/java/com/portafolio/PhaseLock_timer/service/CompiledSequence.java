@@ -0,0 +1,103 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.BlockSequenceDTO;
+import com.portafolio.PhaseLock_timer.dto.PhaseSequenceItem;
+import com.portafolio.PhaseLock_timer.model.Phase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Secuencia de fases compilada a enteros: cada fase es (segundos << 2) | ordinal de Phase.
+ * Es inmutable y se comparte entre sesiones; el motor del timer avanza sobre ella sin
+ * objetos por fase. El BlockSequenceDTO solo se construye (una vez) al salir hacia la API.
+ */
+public final class CompiledSequence {
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final int PHASE_BITS = 2;
+    private static final int PHASE_MASK = (1 << PHASE_BITS) - 1;
+
+    private final int[] phases;      // (durationSeconds << 2) | phase.ordinal()
+    private final int totalSeconds;
+    private final int totalDurationMinutes;
+    private final int numberOfPomodoros;
+
+    private volatile BlockSequenceDTO dto;
+
+    private CompiledSequence(int[] phases, int totalDurationMinutes) {
+        this.phases = phases;
+        int seconds = 0;
+        int pomodoros = 0;
+        for (int i = 0; i < phases.length; i++) {
+            seconds = Math.addExact(seconds, phases[i] >>> PHASE_BITS);
+            if ((phases[i] & PHASE_MASK) == Phase.POMODORO.ordinal()) {
+                pomodoros++;
+            }
+        }
+        this.totalSeconds = seconds;
+        this.totalDurationMinutes = totalDurationMinutes >= 0 ? totalDurationMinutes : seconds / 60;
+        this.numberOfPomodoros = pomodoros;
+    }
+
+    /**
+     * Empaqueta una fase; los llamadores ya limitan los minutos, pero un desbordamiento
+     * lanza ArithmeticException en lugar de dar una duración negativa o truncada
+     */
+    static int pack(Phase phase, int durationMinutes) {
+        int seconds = Math.multiplyExact(durationMinutes, 60);
+        return Math.multiplyExact(seconds, 1 << PHASE_BITS) | phase.ordinal();
+    }
+
+    /**
+     * Compila fases ya empaquetadas; totalDurationMinutes es el valor que se publica en el DTO
+     */
+    static CompiledSequence of(int[] packedPhases, int totalDurationMinutes) {
+        return new CompiledSequence(packedPhases, totalDurationMinutes);
+    }
+
+    /**
+     * Compila fases ya empaquetadas; la duración publicada es la suma de las fases
+     */
+    static CompiledSequence of(int[] packedPhases) {
+        return new CompiledSequence(packedPhases, -1);
+    }
+
+    public int size() {
+        return phases.length;
+    }
+
+    public Phase phase(int index) {
+        return PHASES[phases[index] & PHASE_MASK];
+    }
+
+    public int durationSeconds(int index) {
+        return phases[index] >>> PHASE_BITS;
+    }
+
+    public int totalSeconds() {
+        return totalSeconds;
+    }
+
+    public int numberOfPomodoros() {
+        return numberOfPomodoros;
+    }
+
+    /**
+     * Forma pública de la secuencia (listas y enteros en caja), construida una sola vez
+     */
+    public BlockSequenceDTO toDTO() {
+        BlockSequenceDTO result = dto;
+        if (result == null) {
+            List<PhaseSequenceItem> items = new ArrayList<>(phases.length);
+            for (int i = 0; i < phases.length; i++) {
+                items.add(new PhaseSequenceItem(phase(i), durationSeconds(i) / 60, i + 1));
+            }
+            result = new BlockSequenceDTO(totalDurationMinutes, numberOfPomodoros,
+                                          Collections.unmodifiableList(items));
+            dto = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.OutboxEventDTO;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Añade cada evento como una línea JSON (JSON Lines) al final del fichero.
+ */
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final JsonMapper jsonMapper;
+
+    public FileOutboxSink(Path path, JsonMapper jsonMapper) {
+        this.path = path;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<OutboxEventDTO> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (OutboxEventDTO event : events) {
+            lines.write(jsonMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        // Una sola escritura por lote: un fallo a medias deja como mucho una línea cortada
+        Files.write(path, lines.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
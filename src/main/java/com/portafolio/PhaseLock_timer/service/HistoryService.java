@@ -0,0 +1,142 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.DailyStatsDTO;
+import com.portafolio.PhaseLock_timer.exception.BadRequestException;
+import com.portafolio.PhaseLock_timer.model.DailyFocusRollup;
+import com.portafolio.PhaseLock_timer.model.Phase;
+import com.portafolio.PhaseLock_timer.repository.DailyFocusRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class HistoryService {
+
+    private final DailyFocusRollupRepository rollupRepository;
+    private final TimerClock clock;
+    private final TransactionTemplate createRowTransaction;
+
+    @Autowired
+    public HistoryService(DailyFocusRollupRepository rollupRepository, TimerClock clock,
+                          PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.clock = clock;
+        // La fila del día se crea en una transacción aparte: un choque con otro creador no
+        // deja marcada para rollback la transacción de quien llama
+        this.createRowTransaction = new TransactionTemplate(transactionManager);
+        this.createRowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Registra una fase terminada (completada o saltada) en el acumulado del día
+     */
+    public void recordPhase(Long timeBlockId, Phase phase, int elapsedSeconds, boolean skipped) {
+        boolean focus = phase == Phase.POMODORO;
+        add(timeBlockId,
+            focus && !skipped ? 1 : 0,
+            focus ? elapsedSeconds : 0,
+            focus ? 0 : elapsedSeconds,
+            skipped ? 1 : 0,
+            0);
+    }
+
+    /**
+     * Registra un bloque completado en el acumulado del día
+     */
+    public void recordBlockCompleted(Long timeBlockId) {
+        add(timeBlockId, 0, 0, 0, 0, 1);
+    }
+
+    /**
+     * Historial diario de todos los bloques entre dos fechas (inclusive)
+     */
+    @Transactional(readOnly = true)
+    public List<DailyStatsDTO> getDailyStats(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return rollupRepository.sumByDay(from, to);
+    }
+
+    /**
+     * Historial diario de un bloque entre dos fechas (inclusive)
+     */
+    @Transactional(readOnly = true)
+    public List<DailyStatsDTO> getDailyStatsForBlock(Long timeBlockId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return rollupRepository.findByTimeBlockIdAndRollupDateBetweenOrderByRollupDateAsc(timeBlockId, from, to)
+            .stream()
+            .map(this::toDTO)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Totales del rango, sumando los acumulados diarios
+     */
+    @Transactional(readOnly = true)
+    public DailyStatsDTO getSummary(LocalDate from, LocalDate to) {
+        DailyStatsDTO summary = new DailyStatsDTO(null, 0L, 0L, 0L, 0L, 0L);
+        for (DailyStatsDTO day : getDailyStats(from, to)) {
+            summary.setCompletedPomodoros(summary.getCompletedPomodoros() + day.getCompletedPomodoros());
+            summary.setFocusSeconds(summary.getFocusSeconds() + day.getFocusSeconds());
+            summary.setBreakSeconds(summary.getBreakSeconds() + day.getBreakSeconds());
+            summary.setSkippedPhases(summary.getSkippedPhases() + day.getSkippedPhases());
+            summary.setCompletedBlocks(summary.getCompletedBlocks() + day.getCompletedBlocks());
+        }
+        return summary;
+    }
+
+    /**
+     * Día actual según el reloj del timer, el mismo con el que se agrupan los acumulados
+     */
+    public LocalDate today() {
+        return clock.now().toLocalDate();
+    }
+
+    /**
+     * Sumar al acumulado del día con un UPDATE atómico; si la fila aún no existe se crea
+     * (o la crea otro hilo a la vez) y se repite el UPDATE
+     */
+    private void add(Long timeBlockId, int pomodoros, long focusSeconds, long breakSeconds,
+                     int skippedPhases, int completedBlocks) {
+        LocalDate date = today();
+        if (rollupRepository.increment(date, timeBlockId, pomodoros, focusSeconds, breakSeconds,
+                                       skippedPhases, completedBlocks) > 0) {
+            return;
+        }
+        try {
+            createRowTransaction.executeWithoutResult(tx -> rollupRepository.insertIfAbsent(date, timeBlockId));
+        } catch (DataIntegrityViolationException e) {
+            // Otro hilo creó la fila entre el NOT EXISTS y el INSERT: ya existe, que es lo que se quería
+        }
+        if (rollupRepository.increment(date, timeBlockId, pomodoros, focusSeconds, breakSeconds,
+                                       skippedPhases, completedBlocks) == 0) {
+            throw new IllegalStateException("Daily rollup row missing for block " + timeBlockId + " on " + date);
+        }
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+    }
+
+    private DailyStatsDTO toDTO(DailyFocusRollup rollup) {
+        return new DailyStatsDTO(
+            rollup.getRollupDate(),
+            rollup.getTimeBlockId(),
+            rollup.getCompletedPomodoros().longValue(),
+            rollup.getFocusSeconds(),
+            rollup.getBreakSeconds(),
+            rollup.getSkippedPhases().longValue(),
+            rollup.getCompletedBlocks().longValue()
+        );
+    }
+}
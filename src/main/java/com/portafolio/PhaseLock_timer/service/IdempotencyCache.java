@@ -0,0 +1,97 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import com.portafolio.PhaseLock_timer.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Resultados de las operaciones de control por Idempotency-Key, acotados en número y con
+ * caducidad. Un reintento con la misma clave (misma operación y sesión) devuelve el
+ * resultado guardado sin llamar al servicio; si el original sigue en curso, lo espera.
+ * Los fallos no se guardan: el reintento vuelve a ejecutar la operación.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final String NAME = "idempotency";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<Key, CompletableFuture<TimerStatusDTO>> results;
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+
+    @Autowired
+    public IdempotencyCache(@Value("${phaselock.idempotency.max-entries:10000}") long maxEntries,
+                            @Value("${phaselock.idempotency.ttl-ms:600000}") long ttlMs) {
+        this.results = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .build();
+    }
+
+    /**
+     * Ejecutar la operación una sola vez por clave. Sin clave se ejecuta siempre.
+     */
+    public Result execute(String operation, Long targetId, String idempotencyKey,
+                          Supplier<TimerStatusDTO> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return new Result(action.get(), false);
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Key key = new Key(operation, targetId, idempotencyKey);
+        CompletableFuture<TimerStatusDTO> mine = new CompletableFuture<>();
+        CompletableFuture<TimerStatusDTO> existing = results.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                TimerStatusDTO replayed = existing.join();
+                replays.incrementAndGet();
+                return new Result(replayed, true);
+            } catch (CompletionException e) {
+                // El original falló y ya no está en la caché: este intento lo repite
+                return execute(operation, targetId, idempotencyKey, action);
+            }
+        }
+
+        executions.incrementAndGet();
+        try {
+            TimerStatusDTO status = action.get();
+            mine.complete(status);
+            return new Result(status, false);
+        } catch (RuntimeException e) {
+            results.asMap().remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long getReplays() {
+        return replays.get();
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    public long estimatedSize() {
+        return results.estimatedSize();
+    }
+
+    public record Result(TimerStatusDTO status, boolean replayed) {
+    }
+
+    private record Key(String operation, Long targetId, String idempotencyKey) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.OutboxEventDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Guarda en memoria los últimos eventos entregados (desarrollo y pruebas).
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxEventDTO> events = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxEventDTO> batch) {
+        for (OutboxEventDTO event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<OutboxEventDTO> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
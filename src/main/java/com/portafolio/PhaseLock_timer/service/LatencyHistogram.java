@@ -0,0 +1,72 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.LatencyHistogramDTO;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias con cubos fijos en milisegundos, sin bloqueos.
+ */
+public class LatencyHistogram {
+
+    // Límite superior (inclusive) de cada cubo; el último cubo recoge el resto
+    private static final long[] BUCKET_UPPER_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MS.length + 1);
+    private final AtomicLong negative = new AtomicLong(); // Desfase de relojes entre cliente y servidor
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long millis) {
+        if (millis < 0) {
+            negative.incrementAndGet();
+            return;
+        }
+        int index = Arrays.binarySearch(BUCKET_UPPER_BOUNDS_MS, millis);
+        counts.incrementAndGet(index >= 0 ? index : -index - 1);
+    }
+
+    public LatencyHistogramDTO snapshot() {
+        long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+
+        LatencyHistogramDTO dto = new LatencyHistogramDTO();
+        dto.setName(name);
+        dto.setBucketUpperBoundsMs(BUCKET_UPPER_BOUNDS_MS.clone());
+        dto.setCounts(snapshot);
+        dto.setCount(total);
+        dto.setNegativeCount(negative.get());
+        dto.setP50Ms(percentile(snapshot, total, 0.50));
+        dto.setP90Ms(percentile(snapshot, total, 0.90));
+        dto.setP99Ms(percentile(snapshot, total, 0.99));
+        return dto;
+    }
+
+    /**
+     * Percentil aproximado: límite superior del cubo que contiene el rango pedido
+     * (null si no hay muestras o si cae en el cubo abierto)
+     */
+    private Long percentile(long[] snapshot, long total, double quantile) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MS.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return BUCKET_UPPER_BOUNDS_MS[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.ClockProbeDTO;
+import com.portafolio.PhaseLock_timer.dto.LatencyHistogramDTO;
+import com.portafolio.PhaseLock_timer.dto.LatencySampleDTO;
+import com.portafolio.PhaseLock_timer.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Agrega las latencias reportadas por los clientes separando cada tramo:
+ * scheduler (tick programado → frame construido), broker (construido → entregado
+ * al canal del cliente) y red (entregado → recibido en el navegador).
+ *
+ * Los dos primeros tramos usan solo el reloj del servidor. Red y extremo a extremo
+ * comparan con la hora del navegador, así que solo se calculan si la muestra trae el
+ * desfase estimado al estilo NTP contra {@link #probeClock()} (error de ±RTT/2).
+ */
+@Service
+public class LatencyReportService {
+
+    // Límite de muestras aceptadas por petición
+    public static final int MAX_SAMPLES_PER_REPORT = 1000;
+
+    private final LatencyHistogram schedulerLag = new LatencyHistogram("scheduler");
+    private final LatencyHistogram brokerLag = new LatencyHistogram("broker");
+    private final LatencyHistogram networkLag = new LatencyHistogram("network");
+    private final LatencyHistogram endToEnd = new LatencyHistogram("endToEnd");
+
+    private final TimerClock clock;
+
+    @Autowired
+    public LatencyReportService(TimerClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Hora del servidor; el cliente la compara con el punto medio de su ida y vuelta
+     */
+    public ClockProbeDTO probeClock() {
+        return new ClockProbeDTO(clock.epochMillis());
+    }
+
+    public void record(List<LatencySampleDTO> samples) {
+        if (samples.size() > MAX_SAMPLES_PER_REPORT) {
+            throw new BadRequestException("Too many latency samples: " + samples.size()
+                + " (max " + MAX_SAMPLES_PER_REPORT + ")");
+        }
+        for (LatencySampleDTO sample : samples) {
+            if (sample.getScheduledAt() != null && sample.getProducedAt() != null) {
+                schedulerLag.record(sample.getProducedAt() - sample.getScheduledAt());
+            }
+            if (sample.getProducedAt() != null && sample.getSentAt() != null) {
+                brokerLag.record(sample.getSentAt() - sample.getProducedAt());
+            }
+            if (sample.getReceivedAt() == null || sample.getClockOffset() == null) {
+                continue; // Sin desfase la resta mezclaría el reloj del cliente con el del servidor
+            }
+            long receivedAt = sample.getReceivedAt() + sample.getClockOffset();
+            if (sample.getSentAt() != null) {
+                networkLag.record(receivedAt - sample.getSentAt());
+            }
+            Long origin = sample.getScheduledAt() != null ? sample.getScheduledAt() : sample.getProducedAt();
+            if (origin != null) {
+                endToEnd.record(receivedAt - origin);
+            }
+        }
+    }
+
+    public List<LatencyHistogramDTO> getHistograms() {
+        return List.of(schedulerLag.snapshot(), brokerLag.snapshot(), networkLag.snapshot(), endToEnd.snapshot());
+    }
+}
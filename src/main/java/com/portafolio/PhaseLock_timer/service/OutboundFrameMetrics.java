@@ -0,0 +1,50 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.OutboundStatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores del canal de salida WebSocket: frames de timer sustituidos por uno más
+ * reciente (conflated), frames descartados y sesiones cerradas por cliente lento.
+ */
+@Component
+public class OutboundFrameMetrics {
+
+    private final AtomicLong sentFrames = new AtomicLong();
+    private final AtomicLong conflatedFrames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong terminatedSessions = new AtomicLong();
+    private final AtomicLong rejectedDrains = new AtomicLong();
+
+    public void frameSent() {
+        sentFrames.incrementAndGet();
+    }
+
+    public void frameConflated() {
+        conflatedFrames.incrementAndGet();
+    }
+
+    public void framesDropped(int count) {
+        droppedFrames.addAndGet(count);
+    }
+
+    public void sessionTerminated() {
+        terminatedSessions.incrementAndGet();
+    }
+
+    public void drainRejected() {
+        rejectedDrains.incrementAndGet();
+    }
+
+    public OutboundStatsDTO getStats() {
+        OutboundStatsDTO dto = new OutboundStatsDTO();
+        dto.setSentFrames(sentFrames.get());
+        dto.setConflatedFrames(conflatedFrames.get());
+        dto.setDroppedFrames(droppedFrames.get());
+        dto.setTerminatedSessions(terminatedSessions.get());
+        dto.setRejectedDrains(rejectedDrains.get());
+        return dto;
+    }
+}
@@ -0,0 +1,154 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.OutboxEventDTO;
+import com.portafolio.PhaseLock_timer.dto.OutboxStatsDTO;
+import com.portafolio.PhaseLock_timer.model.OutboxEvent;
+import com.portafolio.PhaseLock_timer.model.OutboxEventType;
+import com.portafolio.PhaseLock_timer.model.OutboxStatus;
+import com.portafolio.PhaseLock_timer.model.TimerSession;
+import com.portafolio.PhaseLock_timer.repository.OutboxEventRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox transaccional de transiciones de sesión. {@link #record} inserta el evento en la
+ * transacción del cambio de TimerSession (no envía nada); el dispatcher lo entrega después
+ * por lotes, en orden de id, a los sinks configurados, con reintentos y espera exponencial.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TimerClock clock;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+
+    private final AtomicLong deliveredSinceStart = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong dispatchedBatches = new AtomicLong();
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         ObjectProvider<OutboxSink> sinks,
+                         TimerClock clock,
+                         @Value("${phaselock.outbox.batch-size:100}") int batchSize,
+                         @Value("${phaselock.outbox.max-attempts:10}") int maxAttempts,
+                         @Value("${phaselock.outbox.retry-base-ms:1000}") long retryBaseMs,
+                         @Value("${phaselock.outbox.retry-max-ms:300000}") long retryMaxMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks.orderedStream().toList();
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+    }
+
+    public boolean isEnabled() {
+        return !sinks.isEmpty();
+    }
+
+    /**
+     * Registrar la transición en la transacción en curso (sin sinks no se escribe nada)
+     */
+    public void record(TimerSession session, OutboxEventType type) {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        outboxEventRepository.save(new OutboxEvent(session, type, clock.now()));
+    }
+
+    /**
+     * Entregar los pendientes lote a lote. Corre en el hilo del scheduler, nunca en el de
+     * un endpoint. Si un lote falla se detiene: los posteriores esperan para no adelantarlo.
+     */
+    @Scheduled(fixedDelayString = "${phaselock.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        while (dispatchBatch() == batchSize) {
+            // Lote completo: puede haber más pendientes
+        }
+    }
+
+    private int dispatchBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findByStatusOrderByIdAsc(OutboxStatus.PENDING,
+                                                                                  Limit.of(batchSize));
+        LocalDateTime now = clock.now();
+        if (batch.isEmpty() || batch.get(0).getNextAttemptAt().isAfter(now)) {
+            return 0;
+        }
+
+        List<OutboxEventDTO> events = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            events.add(toDTO(event));
+        }
+        dispatchedBatches.incrementAndGet();
+        try {
+            for (OutboxSink sink : sinks) {
+                sink.deliver(events);
+            }
+        } catch (Exception e) {
+            failedAttempts.incrementAndGet();
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            System.err.println("Error delivering outbox batch of " + batch.size() + ": " + error);
+            LocalDateTime retryAt = now.plusNanos(backoffMs(batch.get(0).getAttempts()) * 1_000_000);
+            for (OutboxEvent event : batch) {
+                event.markAttemptFailed(error, retryAt, maxAttempts);
+            }
+            outboxEventRepository.saveAll(batch);
+            return 0;
+        }
+
+        for (OutboxEvent event : batch) {
+            event.markDelivered(now);
+        }
+        outboxEventRepository.saveAll(batch);
+        deliveredSinceStart.addAndGet(batch.size());
+        return batch.size();
+    }
+
+    private long backoffMs(int attempts) {
+        return Math.min(retryBaseMs << Math.min(attempts, 20), retryMaxMs);
+    }
+
+    public OutboxStatsDTO getStats() {
+        OutboxStatsDTO stats = new OutboxStatsDTO();
+        stats.setSinks(sinks.stream().map(OutboxSink::getName).toList());
+        stats.setPending(outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+        stats.setDelivered(outboxEventRepository.countByStatus(OutboxStatus.DELIVERED));
+        stats.setFailed(outboxEventRepository.countByStatus(OutboxStatus.FAILED));
+        stats.setDeliveredSinceStart(deliveredSinceStart.get());
+        stats.setFailedAttempts(failedAttempts.get());
+        stats.setDispatchedBatches(dispatchedBatches.get());
+        return stats;
+    }
+
+    private OutboxEventDTO toDTO(OutboxEvent event) {
+        OutboxEventDTO dto = new OutboxEventDTO();
+        dto.setId(event.getId());
+        dto.setSessionId(event.getSessionId());
+        dto.setBlockId(event.getTimeBlockId());
+        dto.setType(event.getEventType());
+        dto.setStatus(event.getSessionStatus());
+        dto.setPhase(event.getPhase());
+        dto.setPhaseIndex(event.getPhaseIndex());
+        dto.setRemainingSeconds(event.getRemainingSeconds());
+        dto.setTotalElapsedSeconds(event.getTotalElapsedSeconds());
+        dto.setOccurredAt(event.getOccurredAt());
+        return dto;
+    }
+}
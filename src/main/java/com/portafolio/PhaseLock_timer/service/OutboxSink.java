@@ -0,0 +1,17 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.OutboxEventDTO;
+
+import java.util.List;
+
+/**
+ * Destino de las transiciones del outbox. Recibe lotes en orden de id; un lote que lanza
+ * excepción se reintenta entero, así que la entrega es "al menos una vez" y el receptor
+ * debe descartar duplicados por id.
+ */
+public interface OutboxSink {
+
+    String getName();
+
+    void deliver(List<OutboxEventDTO> events) throws Exception;
+}
@@ -0,0 +1,50 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.PhaseEventDTO;
+import com.portafolio.PhaseLock_timer.model.Phase;
+import com.portafolio.PhaseLock_timer.model.PhaseEvent;
+import com.portafolio.PhaseLock_timer.repository.PhaseEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Escribe las transiciones de fase en la transacción de quien llama, junto al cambio de
+ * TimerSession y su evento de outbox: si el estado se confirma, el evento también, y un
+ * rollback o una caída no dejan uno sin el otro.
+ *
+ * Es un INSERT síncrono de una fila por transición, no un lote: en el tick solo lo pagan
+ * los que terminan una fase, que ya escriben la sesión y el outbox en esa transacción.
+ * Se renunció a la escritura asíncrona por lotes porque perdía eventos en una caída.
+ */
+@Service
+public class PhaseEventRecorder {
+
+    private final PhaseEventRepository phaseEventRepository;
+
+    @Autowired
+    public PhaseEventRecorder(PhaseEventRepository phaseEventRepository) {
+        this.phaseEventRepository = phaseEventRepository;
+    }
+
+    /**
+     * Registrar el fin de una fase en la transacción actual
+     */
+    public void record(Long sessionId, Integer phaseIndex, Phase phase,
+                       LocalDateTime startedAt, LocalDateTime endedAt, boolean skipped) {
+        phaseEventRepository.save(new PhaseEvent(sessionId, phaseIndex, phase, startedAt, endedAt, skipped));
+    }
+
+    /**
+     * Eventos de una sesión, en orden de secuencia
+     */
+    public List<PhaseEventDTO> getEvents(Long sessionId) {
+        return phaseEventRepository.findBySessionIdOrderByPhaseIndexAscEndedAtAsc(sessionId).stream()
+            .map(e -> new PhaseEventDTO(e.getPhaseIndex().intValue(), e.getPhase(),
+                                        e.getStartedAt(), e.getEndedAt(), e.getSkipped()))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,205 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.exception.BadRequestException;
+import com.portafolio.PhaseLock_timer.model.Phase;
+
+import java.util.Arrays;
+
+/**
+ * Compilador del patrón de fases de un bloque a una CompiledSequence.
+ *
+ * Gramática (mayúsculas o minúsculas, separadores: espacios o comas):
+ *   secuencia := elemento*
+ *   elemento  := (fase | '(' secuencia ')') repetición?
+ *   fase      := ('P' | 'S' | 'L') minutos?
+ *   repetición:= ('x' | '*') veces
+ *
+ * P, S y L son pomodoro, descanso corto y largo; sin minutos usan las duraciones
+ * configuradas del bloque. Ejemplos:
+ *   "(P S)x3 P L"           cuatro pomodoros y un descanso largo
+ *   "P10 S2 ((P S)x3 P L)x2" calentamiento y dos rondas con descanso largo cada cuatro
+ */
+public final class PhasePattern {
+
+    // Límites para que un patrón corto no se expanda a una secuencia desmesurada
+    public static final int MAX_PHASES = 1000;
+    public static final int MAX_PHASE_MINUTES = 1440;
+
+    private final String pattern;
+    private final int[] defaults; // Minutos por ordinal de Phase
+    private int[] out = new int[16];
+    private int size;
+    private int pos;
+
+    private PhasePattern(String pattern, int pomodoroMinutes, int shortBreakMinutes, int longBreakMinutes) {
+        this.pattern = pattern;
+        this.defaults = new int[Phase.values().length];
+        defaults[Phase.POMODORO.ordinal()] = pomodoroMinutes;
+        defaults[Phase.SHORT_BREAK.ordinal()] = shortBreakMinutes;
+        defaults[Phase.LONG_BREAK.ordinal()] = longBreakMinutes;
+    }
+
+    /**
+     * Compila un patrón; la duración total publicada es la suma de sus fases
+     */
+    public static CompiledSequence compile(String pattern, int pomodoroMinutes,
+                                           int shortBreakMinutes, int longBreakMinutes) {
+        PhasePattern parser = new PhasePattern(pattern, pomodoroMinutes, shortBreakMinutes, longBreakMinutes);
+        parser.parseSequence();
+        if (parser.pos < pattern.length()) {
+            throw parser.error("unexpected ')'");
+        }
+        if (parser.size == 0) {
+            throw parser.error("pattern has no phases");
+        }
+        CompiledSequence sequence = CompiledSequence.of(Arrays.copyOf(parser.out, parser.size));
+        if (sequence.totalSeconds() == 0) {
+            throw parser.error("all phases last 0 minutes");
+        }
+        return sequence;
+    }
+
+    /**
+     * Secuencia clásica: N pomodoros con descansos cortos entre ellos y un descanso largo final (si > 0)
+     */
+    public static CompiledSequence classic(int totalDurationMinutes, int numberOfPomodoros, int pomodoroMinutes,
+                                           int shortBreakMinutes, int longBreakMinutes) {
+        // En long: con pomodoros de 1 minuto y una duración enorme, 2 * N desbordaría int
+        long phaseCount = 2L * numberOfPomodoros - 1 + (longBreakMinutes > 0 ? 1 : 0);
+        if (phaseCount > MAX_PHASES) {
+            throw new BadRequestException("Configuration produces " + phaseCount + " phases (max "
+                + MAX_PHASES + "); use longer pomodoros or a shorter total duration");
+        }
+        requireMinutes(pomodoroMinutes, "pomodoro");
+        requireMinutes(shortBreakMinutes, "short break");
+        requireMinutes(longBreakMinutes, "long break");
+        int[] phases = new int[(int) phaseCount];
+        int i = 0;
+        for (int n = 0; n < numberOfPomodoros; n++) {
+            phases[i++] = CompiledSequence.pack(Phase.POMODORO, pomodoroMinutes);
+            if (n < numberOfPomodoros - 1) {
+                phases[i++] = CompiledSequence.pack(Phase.SHORT_BREAK, shortBreakMinutes);
+            }
+        }
+        if (longBreakMinutes > 0) {
+            phases[i] = CompiledSequence.pack(Phase.LONG_BREAK, longBreakMinutes);
+        }
+        return CompiledSequence.of(phases, totalDurationMinutes);
+    }
+
+    private static void requireMinutes(int minutes, String phase) {
+        if (minutes < 0 || minutes > MAX_PHASE_MINUTES) {
+            throw new BadRequestException("Invalid " + phase + " duration: " + minutes
+                + " minutes (must be between 0 and " + MAX_PHASE_MINUTES + ")");
+        }
+    }
+
+    private void parseSequence() {
+        while (true) {
+            skipSeparators();
+            if (pos >= pattern.length() || pattern.charAt(pos) == ')') {
+                return;
+            }
+            parseElement();
+        }
+    }
+
+    private void parseElement() {
+        int start = size;
+        char c = Character.toUpperCase(pattern.charAt(pos));
+        if (c == '(') {
+            pos++;
+            parseSequence();
+            if (pos >= pattern.length()) {
+                throw error("missing ')'");
+            }
+            pos++;
+        } else {
+            Phase phase = switch (c) {
+                case 'P' -> Phase.POMODORO;
+                case 'S' -> Phase.SHORT_BREAK;
+                case 'L' -> Phase.LONG_BREAK;
+                default -> throw error("expected P, S, L or '(' but found '" + pattern.charAt(pos) + "'");
+            };
+            pos++;
+            int minutes = peekDigit() ? parseNumber(0, MAX_PHASE_MINUTES, "phase minutes")
+                                      : defaults[phase.ordinal()];
+            append(CompiledSequence.pack(phase, minutes));
+        }
+        repeat(start);
+    }
+
+    private void repeat(int start) {
+        skipSpaces();
+        if (pos >= pattern.length()) {
+            return;
+        }
+        char c = Character.toUpperCase(pattern.charAt(pos));
+        if (c != 'X' && c != '*') {
+            return;
+        }
+        pos++;
+        skipSpaces();
+        if (!peekDigit()) {
+            throw error("expected a repeat count");
+        }
+        int times = parseNumber(1, MAX_PHASES, "repeat count");
+        int length = size - start;
+        if ((long) length * times + start > MAX_PHASES) {
+            throw error("pattern expands to more than " + MAX_PHASES + " phases");
+        }
+        for (int i = 1; i < times; i++) {
+            ensureCapacity(size + length);
+            System.arraycopy(out, start, out, size, length);
+            size += length;
+        }
+    }
+
+    private int parseNumber(int min, int max, String what) {
+        int at = pos;
+        long value = 0;
+        while (peekDigit()) {
+            value = Math.min(value * 10 + (pattern.charAt(pos++) - '0'), Integer.MAX_VALUE);
+        }
+        if (value < min || value > max) {
+            pos = at;
+            throw error(what + " must be between " + min + " and " + max);
+        }
+        return (int) value;
+    }
+
+    private void append(int phase) {
+        if (size >= MAX_PHASES) {
+            throw error("pattern expands to more than " + MAX_PHASES + " phases");
+        }
+        ensureCapacity(size + 1);
+        out[size++] = phase;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > out.length) {
+            out = Arrays.copyOf(out, Math.max(capacity, out.length * 2));
+        }
+    }
+
+    private boolean peekDigit() {
+        return pos < pattern.length() && pattern.charAt(pos) >= '0' && pattern.charAt(pos) <= '9';
+    }
+
+    private void skipSpaces() {
+        while (pos < pattern.length() && Character.isWhitespace(pattern.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private void skipSeparators() {
+        while (pos < pattern.length()
+               && (Character.isWhitespace(pattern.charAt(pos)) || pattern.charAt(pos) == ',')) {
+            pos++;
+        }
+    }
+
+    private BadRequestException error(String message) {
+        return new BadRequestException("Invalid phase pattern at position " + pos + ": " + message);
+    }
+}
@@ -0,0 +1,99 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.exception.BadRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Regla semanal (días de la semana a una hora fija, dentro de un rango de fechas).
+ * Las ocurrencias se calculan bajo demanda: el iterador solo guarda la siguiente.
+ */
+public final class RecurrenceRule {
+
+    private final int daysMask;          // bit (DayOfWeek.getValue() - 1)
+    private final LocalTime time;
+    private final LocalDate validFrom;   // inclusive
+    private final LocalDate validUntil;  // inclusive, null = sin fin
+
+    public RecurrenceRule(int daysMask, LocalTime time, LocalDate validFrom, LocalDate validUntil) {
+        if ((daysMask & 0x7F) == 0 || (daysMask & ~0x7F) != 0) {
+            throw new BadRequestException("Recurrence needs at least one valid day of week");
+        }
+        this.daysMask = daysMask;
+        this.time = time;
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+    }
+
+    public static int maskOf(Set<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    public static Set<DayOfWeek> daysOf(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & (1 << (day.getValue() - 1))) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Primera ocurrencia estrictamente posterior a {@code after}, o null si la regla ya terminó
+     */
+    public LocalDateTime firstAfter(LocalDateTime after) {
+        LocalDate date = after.toLocalDate();
+        if (!time.isAfter(after.toLocalTime())) {
+            date = date.plusDays(1);
+        }
+        if (date.isBefore(validFrom)) {
+            date = validFrom;
+        }
+        // Como mucho 7 días hasta el siguiente día marcado
+        for (int i = 0; i < 7; i++, date = date.plusDays(1)) {
+            if (validUntil != null && date.isAfter(validUntil)) {
+                return null;
+            }
+            if ((daysMask & (1 << (date.getDayOfWeek().getValue() - 1))) != 0) {
+                return date.atTime(time);
+            }
+        }
+        throw new IllegalStateException("Unreachable: mask has at least one day");
+    }
+
+    /**
+     * Ocurrencias posteriores a {@code after}, en orden y sin límite (salvo validUntil)
+     */
+    public Iterator<LocalDateTime> occurrencesAfter(LocalDateTime after) {
+        return new Iterator<>() {
+            private LocalDateTime next = firstAfter(after);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public LocalDateTime next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                LocalDateTime current = next;
+                next = firstAfter(current);
+                return current;
+            }
+        };
+    }
+}
@@ -0,0 +1,229 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.RecurringOccurrenceDTO;
+import com.portafolio.PhaseLock_timer.dto.RecurringScheduleDTO;
+import com.portafolio.PhaseLock_timer.dto.RecurringScheduleRequestDTO;
+import com.portafolio.PhaseLock_timer.model.RecurringSchedule;
+import com.portafolio.PhaseLock_timer.repository.RecurringScheduleRepository;
+import com.portafolio.PhaseLock_timer.repository.TimeBlockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Plantillas recurrentes de bloques. Las ocurrencias se expanden de forma incremental:
+ * cada plantilla guarda hasta dónde se materializó y un job periódico solo escribe en
+ * scheduled_blocks las de la ventana próxima, por lotes de plantillas.
+ *
+ * La marca materializedUntil solo se mueve con un UPDATE condicional (sigue activa y con el
+ * valor leído) en la misma transacción que inserta las ocurrencias: dos expansiones de la
+ * misma ventana no pueden confirmar ambas, y desactivar nunca se deshace.
+ */
+@Service
+@Transactional
+public class RecurringScheduleService {
+
+    private static final int MAX_NEXT_OCCURRENCES = 1000;
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RecurringScheduleRepository recurringScheduleRepository;
+    private final TimeBlockRepository timeBlockRepository;
+    private final BlockScheduleService blockScheduleService;
+    private final TimerClock clock;
+    private final Duration window;
+    private final int batchSize;
+    private final TransactionTemplate expandTransaction;
+
+    @Autowired
+    public RecurringScheduleService(RecurringScheduleRepository recurringScheduleRepository,
+                                    TimeBlockRepository timeBlockRepository,
+                                    BlockScheduleService blockScheduleService,
+                                    TimerClock clock,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${phaselock.recurring.window-ms:86400000}") long windowMs,
+                                    @Value("${phaselock.recurring.batch-size:500}") int batchSize) {
+        this.recurringScheduleRepository = recurringScheduleRepository;
+        this.timeBlockRepository = timeBlockRepository;
+        this.blockScheduleService = blockScheduleService;
+        this.clock = clock;
+        this.window = Duration.ofMillis(windowMs);
+        this.batchSize = batchSize;
+        // Una transacción por plantilla: un fallo solo deshace esa plantilla
+        this.expandTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Crear una plantilla y programar ya las ocurrencias de la ventana actual
+     */
+    public RecurringScheduleDTO create(RecurringScheduleRequestDTO request) {
+        if (!timeBlockRepository.existsById(request.getBlockId())) {
+            throw new IllegalArgumentException("TimeBlock not found with id: " + request.getBlockId());
+        }
+        // Precisión de la columna: la marca se compara tal cual en el UPDATE condicional
+        LocalDateTime now = clock.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDate validFrom = request.getValidFrom() != null ? request.getValidFrom() : now.toLocalDate();
+        RecurringSchedule schedule = new RecurringSchedule(
+            request.getBlockId(),
+            RecurrenceRule.maskOf(request.getDaysOfWeek()),
+            request.getStartTime(),
+            validFrom,
+            request.getValidUntil(),
+            now // Nada anterior a la creación
+        );
+        ruleOf(schedule); // Valida la regla antes de guardar
+        RecurringSchedule saved = recurringScheduleRepository.save(schedule);
+        // Misma transacción: el job no ve la plantilla hasta que sus ocurrencias estén escritas
+        expand(saved, now.plus(window));
+        return toDTO(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringScheduleDTO> getActive() {
+        return recurringScheduleRepository.findByActiveTrue().stream()
+            .map(this::toDTO)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Desactivar la plantilla y cancelar sus ocurrencias ya programadas
+     */
+    public RecurringScheduleDTO deactivate(Long id) {
+        // Si una expansión tiene la fila, el UPDATE espera a su commit y después se cancelan
+        // también las ocurrencias que acaba de escribir
+        if (recurringScheduleRepository.deactivate(id) == 0) {
+            throw new IllegalArgumentException("Recurring schedule not found with id: " + id);
+        }
+        blockScheduleService.cancelOccurrences(id);
+        return toDTO(recurringScheduleRepository.findById(id).orElseThrow());
+    }
+
+    /**
+     * Próximas {@code limit} ocurrencias de todas las plantillas activas, sin materializarlas
+     */
+    @Transactional(readOnly = true)
+    public List<RecurringOccurrenceDTO> nextOccurrences(LocalDateTime after, int limit) {
+        int bounded = Math.min(Math.max(limit, 1), MAX_NEXT_OCCURRENCES);
+        return mergeNext(recurringScheduleRepository.findByActiveTrue(), after, bounded);
+    }
+
+    /**
+     * Mezcla k-vías: un cursor (siguiente ocurrencia) por plantilla en un heap; cada extracción
+     * avanza solo ese cursor. Memoria O(plantillas + limit), nunca O(ocurrencias).
+     */
+    static List<RecurringOccurrenceDTO> mergeNext(List<RecurringSchedule> schedules, LocalDateTime after, int limit) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(schedules.size(), 1),
+            Comparator.comparing(Cursor::at).thenComparing(cursor -> cursor.schedule().getId()));
+        for (RecurringSchedule schedule : schedules) {
+            RecurrenceRule rule = ruleOf(schedule);
+            LocalDateTime first = rule.firstAfter(after);
+            if (first != null) {
+                heap.add(new Cursor(first, schedule, rule));
+            }
+        }
+
+        List<RecurringOccurrenceDTO> next = new ArrayList<>(limit);
+        while (next.size() < limit && !heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            next.add(new RecurringOccurrenceDTO(cursor.schedule().getId(), cursor.schedule().getTimeBlockId(),
+                                                cursor.at()));
+            LocalDateTime following = cursor.rule().firstAfter(cursor.at());
+            if (following != null) {
+                heap.add(new Cursor(following, cursor.schedule(), cursor.rule()));
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Avanzar la ventana materializada de las plantillas que se han quedado cortas, por lotes
+     * leídos por keyset y una transacción por plantilla
+     */
+    @Scheduled(fixedDelayString = "${phaselock.recurring.expand-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void expandWindows() {
+        LocalDateTime until = clock.now().plus(window);
+        LocalDateTime afterUntil = KEYSET_START;
+        long afterId = 0;
+        List<RecurringSchedule> batch;
+        do {
+            batch = recurringScheduleRepository.findStaleAfter(until, afterUntil, afterId, PageRequest.of(0, batchSize));
+            if (!batch.isEmpty()) {
+                // Cursor con los valores leídos: expand mueve la marca en memoria aunque luego falle
+                RecurringSchedule last = batch.get(batch.size() - 1);
+                afterUntil = last.getMaterializedUntil();
+                afterId = last.getId();
+            }
+            for (RecurringSchedule schedule : batch) {
+                try {
+                    expandTransaction.executeWithoutResult(tx -> expand(schedule, until));
+                } catch (Exception e) {
+                    System.err.println("Error expanding recurring schedule " + schedule.getId() + ": " + e.getMessage());
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Reclamar la ventana (materializedUntil, until] y programar sus ocurrencias, en la
+     * transacción del llamador. Si la plantilla se desactivó o alguien movió ya la marca,
+     * no se escribe nada.
+     */
+    private void expand(RecurringSchedule schedule, LocalDateTime until) {
+        LocalDateTime from = schedule.getMaterializedUntil();
+        if (recurringScheduleRepository.advanceMaterializedUntil(schedule.getId(), from, until) == 0) {
+            return;
+        }
+        schedule.setMaterializedUntil(until);
+
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        Iterator<LocalDateTime> iterator = ruleOf(schedule).occurrencesAfter(from);
+        while (iterator.hasNext()) {
+            LocalDateTime occurrence = iterator.next();
+            if (occurrence.isAfter(until)) {
+                break;
+            }
+            occurrences.add(occurrence);
+        }
+        if (!occurrences.isEmpty()) {
+            blockScheduleService.scheduleOccurrences(schedule.getId(), schedule.getTimeBlockId(), occurrences);
+        }
+    }
+
+    private static RecurrenceRule ruleOf(RecurringSchedule schedule) {
+        return new RecurrenceRule(schedule.getDaysMask(), schedule.getStartTime(),
+                                  schedule.getValidFrom(), schedule.getValidUntil());
+    }
+
+    private RecurringScheduleDTO toDTO(RecurringSchedule schedule) {
+        RecurringScheduleDTO dto = new RecurringScheduleDTO();
+        dto.setId(schedule.getId());
+        dto.setBlockId(schedule.getTimeBlockId());
+        dto.setDaysOfWeek(RecurrenceRule.daysOf(schedule.getDaysMask()));
+        dto.setStartTime(schedule.getStartTime());
+        dto.setValidFrom(schedule.getValidFrom());
+        dto.setValidUntil(schedule.getValidUntil());
+        dto.setActive(schedule.isActive());
+        dto.setMaterializedUntil(schedule.getMaterializedUntil());
+        return dto;
+    }
+
+    private record Cursor(LocalDateTime at, RecurringSchedule schedule, RecurrenceRule rule) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.RetentionStatsDTO;
+import com.portafolio.PhaseLock_timer.model.ArchivedTimerSession;
+import com.portafolio.PhaseLock_timer.model.TimerSession;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+import com.portafolio.PhaseLock_timer.repository.ArchivedTimerSessionRepository;
+import com.portafolio.PhaseLock_timer.repository.TimerSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Retención de timer_sessions: las sesiones COMPLETED y STOPPED iniciadas hace más de
+ * {@code phaselock.retention.days} salen de la tabla viva hacia timer_sessions_archive
+ * (target=table) o a ficheros JSON Lines comprimidos (target=file). Se recorren por keyset
+ * sobre (status, started_at) y se mueven en trozos de batch-size, una transacción por trozo.
+ */
+@Service
+public class RetentionService {
+
+    public enum Target { TABLE, FILE }
+
+    private static final List<TimerStatus> FINISHED = List.of(TimerStatus.COMPLETED, TimerStatus.STOPPED);
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final TimerSessionRepository timerSessionRepository;
+    private final ArchivedTimerSessionRepository archivedTimerSessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final TimerClock clock;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int batchSize;
+    private final Target target;
+    private final Path archiveDir;
+
+    private final AtomicLong archivedSinceStart = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile int lastRunArchived;
+    private volatile long lastRunMillis;
+
+    @Autowired
+    public RetentionService(TimerSessionRepository timerSessionRepository,
+                            ArchivedTimerSessionRepository archivedTimerSessionRepository,
+                            TransactionTemplate transactionTemplate,
+                            JsonMapper jsonMapper,
+                            TimerClock clock,
+                            @Value("${phaselock.retention.enabled:true}") boolean enabled,
+                            @Value("${phaselock.retention.days:30}") int retentionDays,
+                            @Value("${phaselock.retention.batch-size:500}") int batchSize,
+                            @Value("${phaselock.retention.target:table}") String target,
+                            @Value("${phaselock.retention.archive-dir:data/archive}") String archiveDir) {
+        this.timerSessionRepository = timerSessionRepository;
+        this.archivedTimerSessionRepository = archivedTimerSessionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonMapper = jsonMapper;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.target = Target.valueOf(target.trim().toUpperCase(Locale.ROOT));
+        this.archiveDir = Path.of(archiveDir);
+    }
+
+    @Scheduled(initialDelayString = "${phaselock.retention.interval-ms:3600000}",
+               fixedDelayString = "${phaselock.retention.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveFinished(clock.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            System.err.println("Error archiving finished sessions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Archivar las sesiones terminadas iniciadas antes de {@code cutoff}. Devuelve cuántas se movieron.
+     */
+    public synchronized int archiveFinished(LocalDateTime cutoff) {
+        long start = System.nanoTime();
+        LocalDateTime archivedAt = clock.now();
+        int archived = 0;
+        try (ArchiveFile file = target == Target.FILE ? new ArchiveFile(archivedAt) : null) {
+            for (TimerStatus status : FINISHED) {
+                LocalDateTime afterStartedAt = KEYSET_START;
+                long afterId = 0;
+                while (true) {
+                    List<TimerSessionRepository.SessionKey> keys = timerSessionRepository.findKeysStartedBefore(
+                        status, cutoff, afterStartedAt, afterId, PageRequest.of(0, batchSize));
+                    if (keys.isEmpty()) {
+                        break;
+                    }
+                    List<Long> ids = keys.stream().map(TimerSessionRepository.SessionKey::getId).toList();
+                    archived += moveChunk(ids, status, archivedAt, file);
+
+                    TimerSessionRepository.SessionKey last = keys.get(keys.size() - 1);
+                    afterStartedAt = last.getStartedAt();
+                    afterId = last.getId();
+                    if (keys.size() < batchSize) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            archivedSinceStart.addAndGet(archived);
+            lastRunAt = archivedAt;
+            lastRunArchived = archived;
+            lastRunMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        }
+        return archived;
+    }
+
+    /**
+     * Copiar y borrar un trozo en una transacción corta. En modo fichero las líneas se vuelcan
+     * antes del DELETE: un fallo entre ambos solo puede duplicar filas en el archivo, no perderlas.
+     */
+    private int moveChunk(List<Long> ids, TimerStatus status, LocalDateTime archivedAt, ArchiveFile file) {
+        Integer moved = transactionTemplate.execute(tx -> {
+            if (target == Target.TABLE) {
+                archivedTimerSessionRepository.copyFromLive(ids, status.name(), archivedAt);
+            } else {
+                for (TimerSession session : timerSessionRepository.findAllById(ids)) {
+                    if (session.getStatus() == status) {
+                        file.write(new ArchivedTimerSession(session, archivedAt));
+                    }
+                }
+                file.flush();
+            }
+            return timerSessionRepository.deleteByIdInAndStatus(ids, status);
+        });
+        return moved != null ? moved : 0;
+    }
+
+    public RetentionStatsDTO getStats() {
+        RetentionStatsDTO stats = new RetentionStatsDTO();
+        stats.setEnabled(enabled);
+        stats.setTarget(target.name().toLowerCase(Locale.ROOT));
+        stats.setRetentionDays(retentionDays);
+        stats.setLiveSessions(timerSessionRepository.count());
+        stats.setArchivedSessions(target == Target.TABLE ? archivedTimerSessionRepository.count() : null);
+        stats.setArchivedSinceStart(archivedSinceStart.get());
+        stats.setLastRunAt(lastRunAt);
+        stats.setLastRunArchived(lastRunArchived);
+        stats.setLastRunMillis(lastRunMillis);
+        return stats;
+    }
+
+    /**
+     * Un fichero .jsonl.gz por ejecución, creado al escribir la primera sesión
+     */
+    private class ArchiveFile implements Closeable {
+
+        private final Path path;
+        private OutputStream out;
+
+        ArchiveFile(LocalDateTime runAt) {
+            this.path = archiveDir.resolve("timer-sessions-" + FILE_STAMP.format(runAt) + ".jsonl.gz");
+        }
+
+        void write(ArchivedTimerSession session) {
+            try {
+                if (out == null) {
+                    Files.createDirectories(archiveDir);
+                    // syncFlush: cada flush() deja el trozo escrito y legible antes del DELETE
+                    out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(path,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)), true);
+                }
+                out.write(jsonMapper.writeValueAsBytes(session));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flush() {
+            try {
+                if (out != null) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+}
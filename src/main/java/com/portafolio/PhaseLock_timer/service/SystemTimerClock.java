@@ -0,0 +1,32 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Reloj de producción: la hora de pared es la del sistema (sigue a NTP y a las suspensiones
+ * de la VM, así que coincide con la que usan @Future, los días del historial y los clientes);
+ * los intervalos y el ritmo del tick usan System.nanoTime() y no saltan con esos ajustes.
+ */
+@Component
+public class SystemTimerClock implements TimerClock {
+
+    private final Clock wallClock = Clock.systemDefaultZone();
+
+    @Override
+    public LocalDateTime now() {
+        return LocalDateTime.now(wallClock);
+    }
+
+    @Override
+    public long epochMillis() {
+        return wallClock.millis();
+    }
+
+    @Override
+    public long monotonicNanos() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,127 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión en memoria del estado de cada sesión. Solo cambia con transiciones de
+ * fase o de estado (no con cada tick), de modo que sirve como ETag débil: entre
+ * dos versiones la cuenta atrás es determinista y el cliente puede extrapolarla.
+ * Solo se guardan las sesiones vivas; las demás tienen versión {@link #UNTRACKED}.
+ */
+@Service
+public class TimerChangeNotifier {
+
+    /** Versión de una sesión que no está en memoria (terminada, o aún sin ningún cambio) */
+    public static final long UNTRACKED = 0;
+
+    // El contador vuelve a 0 en cada arranque: el ETag lleva el instante de arranque para
+    // que una versión anterior al reinicio no coincida por casualidad con una nueva
+    private final String bootEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Contador global: una versión nunca se repite, ni siquiera entre sesiones
+    private final AtomicLong versionCounter = new AtomicLong();
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Map<Long, List<CompletableFuture<Long>>> waiters = new ConcurrentHashMap<>();
+    private final ExecutorService notifier = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Versión actual de la sesión, o {@link #UNTRACKED} si no está en memoria. No registra
+     * nada: consultar ids arbitrarios no hace crecer el mapa.
+     */
+    public long getVersion(Long sessionId) {
+        return versions.getOrDefault(sessionId, UNTRACKED);
+    }
+
+    public String etag(Long sessionId, long version) {
+        return "W/\"" + bootEpoch + "-" + sessionId + "-" + version + "\"";
+    }
+
+    /**
+     * Marcar un cambio de fase o de estado. Dentro de una transacción el aviso se
+     * difiere al commit para que las peticiones en espera lean el estado nuevo.
+     */
+    public void markChanged(Long sessionId) {
+        afterCommit(() -> bump(sessionId));
+    }
+
+    /**
+     * Futuro que se completa con la nueva versión en cuanto deje de ser {@code sinceVersion}.
+     * El llamador valida antes que la sesión existe; la lista de esperas se quita del mapa
+     * al quedarse vacía.
+     */
+    public CompletableFuture<Long> awaitChange(Long sessionId, long sinceVersion) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        waiters.compute(sessionId, (id, list) -> {
+            List<CompletableFuture<Long>> sessionWaiters = list != null ? list : new CopyOnWriteArrayList<>();
+            sessionWaiters.add(future);
+            return sessionWaiters;
+        });
+        future.whenComplete((v, e) -> waiters.computeIfPresent(sessionId, (id, list) -> {
+            list.remove(future);
+            return list.isEmpty() ? null : list;
+        }));
+
+        // Re-comprobar tras registrarse para no perder un cambio concurrente
+        long current = getVersion(sessionId);
+        if (current != sinceVersion) {
+            future.complete(current);
+        }
+        return future;
+    }
+
+    /**
+     * Olvidar la sesión al terminar (las esperas pendientes se despiertan)
+     */
+    public void forget(Long sessionId) {
+        afterCommit(() -> {
+            bump(sessionId);
+            versions.remove(sessionId);
+            waiters.remove(sessionId);
+        });
+    }
+
+    int getTrackedCount() {
+        return versions.size() + waiters.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdownNow();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void bump(Long sessionId) {
+        long version = versionCounter.incrementAndGet();
+        versions.put(sessionId, version);
+        List<CompletableFuture<Long>> sessionWaiters = waiters.get(sessionId);
+        if (sessionWaiters != null && !sessionWaiters.isEmpty()) {
+            // Despertar fuera del hilo del tick / del commit: las esperas vuelven a leer el estado
+            notifier.execute(() -> sessionWaiters.forEach(f -> f.complete(version)));
+        }
+    }
+}
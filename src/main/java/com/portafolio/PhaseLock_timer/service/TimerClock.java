@@ -0,0 +1,26 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fuente de tiempo del timer. En producción, hora de pared del sistema más un contador
+ * monotónico para intervalos; en simulación es un reloj virtual que avanza a voluntad.
+ */
+public interface TimerClock {
+
+    /**
+     * Fecha y hora actual de pared (puede retroceder si se corrige la hora del sistema;
+     * para medir intervalos usar {@link #monotonicNanos()})
+     */
+    LocalDateTime now();
+
+    /**
+     * Milisegundos desde epoch, coherentes con {@link #now()} (para sellar frames)
+     */
+    long epochMillis();
+
+    /**
+     * Nanosegundos monotónicos, solo válidos para medir intervalos
+     */
+    long monotonicNanos();
+}
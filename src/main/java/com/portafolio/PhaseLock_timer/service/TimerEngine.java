@@ -0,0 +1,121 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.model.TimerSession;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transiciones de estado de una sesión, sin persistencia ni efectos secundarios.
+ * TimerService la usa para el timer real y el arnés de simulación con un reloj virtual.
+ */
+@Component
+public class TimerEngine {
+
+    public enum TickOutcome {
+        NOT_RUNNING, // La sesión no está en marcha, no se descuenta nada
+        TICKED,      // Un segundo menos en la fase actual
+        PHASE_ENDED  // La fase actual llegó a cero; el llamador decide avanzar o completar
+    }
+
+    private final TimerClock clock;
+
+    @Autowired
+    public TimerEngine(TimerClock clock) {
+        this.clock = clock;
+    }
+
+    public TimerClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Poner la sesión en marcha desde la primera fase (inicio y reinicio)
+     */
+    public void start(TimerSession session, CompiledSequence sequence) {
+        session.setStatus(TimerStatus.RUNNING);
+        session.setStartedAt(clock.now());
+        session.setPausedAt(null);
+        session.setCompletedAt(null);
+        session.setTotalElapsedSeconds(0);
+        enterPhase(session, sequence, 0);
+        skipEmptyPhases(session, sequence);
+    }
+
+    public void pause(TimerSession session) {
+        session.setStatus(TimerStatus.PAUSED);
+        session.setPausedAt(clock.now());
+    }
+
+    public void resume(TimerSession session) {
+        session.setStatus(TimerStatus.RUNNING);
+        session.setPausedAt(null);
+    }
+
+    /**
+     * Descontar un segundo de la fase actual. Una fase que ya está a cero (p. ej. un
+     * descanso final de 0 min, que skipEmptyPhases no puede saltar) termina sin descontar:
+     * el tiempo restante nunca baja de cero.
+     */
+    public TickOutcome tick(TimerSession session) {
+        if (session.getStatus() != TimerStatus.RUNNING) {
+            return TickOutcome.NOT_RUNNING;
+        }
+        if (session.getRemainingSeconds() <= 0) {
+            return TickOutcome.PHASE_ENDED;
+        }
+
+        int remaining = session.getRemainingSeconds() - 1;
+        session.setRemainingSeconds(remaining);
+        session.setTotalElapsedSeconds(session.getTotalElapsedSeconds() + 1);
+
+        return remaining > 0 ? TickOutcome.TICKED : TickOutcome.PHASE_ENDED;
+    }
+
+    /**
+     * Pasar a la siguiente fase. Devuelve false si la actual ya era la última.
+     * Las fases de duración cero (p. ej. descansos de 0 min) se saltan directamente.
+     */
+    public boolean advance(TimerSession session, CompiledSequence sequence) {
+        if (isLastPhase(session, sequence)) {
+            return false;
+        }
+        enterPhase(session, sequence, session.getCurrentPhaseIndex() + 1);
+        skipEmptyPhases(session, sequence);
+        return true;
+    }
+
+    public void complete(TimerSession session) {
+        session.setStatus(TimerStatus.COMPLETED);
+        session.setCompletedAt(clock.now());
+    }
+
+    public void cancel(TimerSession session) {
+        session.setStatus(TimerStatus.STOPPED);
+    }
+
+    public boolean isLastPhase(TimerSession session, CompiledSequence sequence) {
+        return session.getCurrentPhaseIndex() >= sequence.size() - 1;
+    }
+
+    /**
+     * Segundos realmente transcurridos en la fase actual
+     */
+    public int phaseElapsedSeconds(TimerSession session, CompiledSequence sequence) {
+        return Math.max(sequence.durationSeconds(session.getCurrentPhaseIndex()) - session.getRemainingSeconds(), 0);
+    }
+
+    private void enterPhase(TimerSession session, CompiledSequence sequence, int index) {
+        session.setCurrentPhaseIndex(index);
+        session.setCurrentPhase(sequence.phase(index));
+        session.setRemainingSeconds(sequence.durationSeconds(index));
+        session.setPhaseStartedAt(clock.now());
+    }
+
+    private void skipEmptyPhases(TimerSession session, CompiledSequence sequence) {
+        int index = session.getCurrentPhaseIndex();
+        while (session.getRemainingSeconds() <= 0 && index < sequence.size() - 1) {
+            enterPhase(session, sequence, ++index);
+        }
+    }
+}
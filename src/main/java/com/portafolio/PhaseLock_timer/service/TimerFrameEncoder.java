@@ -0,0 +1,81 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.config.TimerCborMessageConverter;
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serializa cada frame del timer una sola vez por formato. El mismo byte[] JSON se
+ * publica en el topic STOMP (el broker lo comparte entre suscriptores) y en los
+ * streams SSE; la variante CBOR solo se genera si hay suscriptores binarios.
+ */
+@Component
+public class TimerFrameEncoder {
+
+    private final JsonMapper jsonMapper;
+    private final TimerCborMessageConverter cborConverter;
+    private final AtomicLong encodedFrames = new AtomicLong();
+    private final AtomicLong encodedBytes = new AtomicLong();
+
+    @Autowired
+    public TimerFrameEncoder(JsonMapper jsonMapper, TimerCborMessageConverter cborConverter) {
+        this.jsonMapper = jsonMapper;
+        this.cborConverter = cborConverter;
+    }
+
+    /**
+     * JSON del frame. Jackson reutiliza sus buffers internos (BufferRecycler); solo el
+     * array final es nuevo, ya que el broker lo entrega de forma asíncrona.
+     */
+    public byte[] encode(TimerStatusDTO status) {
+        byte[] json = jsonMapper.writeValueAsBytes(status);
+        encodedFrames.incrementAndGet();
+        encodedBytes.addAndGet(json.length);
+        return json;
+    }
+
+    /**
+     * Frame binario (layout descrito en {@link TimerCborMessageConverter})
+     */
+    public byte[] encodeCbor(TimerStatusDTO status) {
+        return cborConverter.encode(status);
+    }
+
+    /**
+     * Mensaje STOMP ya codificado: el template no vuelve a pasar por el conversor
+     */
+    public Message<byte[]> toMessage(String destination, byte[] json) {
+        return toMessage(destination, json, MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    public Message<byte[]> toCborMessage(String destination, byte[] cbor) {
+        return toMessage(destination, cbor, TimerCborMessageConverter.CBOR_FRAME);
+    }
+
+    private Message<byte[]> toMessage(String destination, byte[] payload, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setHeader(MessageHeaders.CONTENT_TYPE, contentType);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    public long getEncodedFrames() {
+        return encodedFrames.get();
+    }
+
+    public long getEncodedBytes() {
+        return encodedBytes.get();
+    }
+}
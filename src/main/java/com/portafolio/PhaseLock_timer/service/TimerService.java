@@ -1,8 +1,14 @@
 package com.portafolio.PhaseLock_timer.service;
 
-import com.portafolio.PhaseLock_timer.dto.BlockSequenceDTO;
-import com.portafolio.PhaseLock_timer.dto.PhaseSequenceItem;
+import com.portafolio.PhaseLock_timer.dto.PhaseEventDTO;
 import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import com.portafolio.PhaseLock_timer.jfr.BlockCompleteEvent;
+import com.portafolio.PhaseLock_timer.jfr.PhaseAdvanceEvent;
+import com.portafolio.PhaseLock_timer.jfr.SessionDbEvent;
+import com.portafolio.PhaseLock_timer.jfr.TimerSendEvent;
+import com.portafolio.PhaseLock_timer.jfr.TimerTickEvent;
+import com.portafolio.PhaseLock_timer.model.BlockPlan;
+import com.portafolio.PhaseLock_timer.model.OutboxEventType;
 import com.portafolio.PhaseLock_timer.model.Phase;
 import com.portafolio.PhaseLock_timer.model.TimeBlock;
 import com.portafolio.PhaseLock_timer.model.TimerSession;
@@ -14,8 +20,8 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -23,6 +29,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Transactional
@@ -32,22 +39,54 @@ public class TimerService {
     private final TimeBlockRepository timeBlockRepository;
     private final BlockService blockService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final HistoryService historyService;
+    private final PhaseEventRecorder phaseEventRecorder;
+    private final TimerStreamService timerStreamService;
+    private final TimerChangeNotifier changeNotifier;
+    private final TimerEngine timerEngine;
+    private final TimerSubscriptionRegistry subscriptionRegistry;
+    private final TimerFrameEncoder frameEncoder;
+    private final TimerStatusMapper statusMapper;
+    private final TimerClock clock;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
     
     // Mapa para almacenar los schedulers activos por sesión
     private final Map<Long, ScheduledExecutorService> activeTimers = new ConcurrentHashMap<>();
     
     // Mapa para almacenar las secuencias calculadas por sesión
-    private final Map<Long, BlockSequenceDTO> sessionSequences = new ConcurrentHashMap<>();
+    private final Map<Long, CompiledSequence> sessionSequences = new ConcurrentHashMap<>();
 
     @Autowired
     public TimerService(TimerSessionRepository timerSessionRepository,
                        TimeBlockRepository timeBlockRepository,
                        BlockService blockService,
-                       SimpMessagingTemplate messagingTemplate) {
+                       SimpMessagingTemplate messagingTemplate,
+                       HistoryService historyService,
+                       PhaseEventRecorder phaseEventRecorder,
+                       TimerStreamService timerStreamService,
+                       TimerChangeNotifier changeNotifier,
+                       TimerEngine timerEngine,
+                       TimerSubscriptionRegistry subscriptionRegistry,
+                       TimerFrameEncoder frameEncoder,
+                       TimerStatusMapper statusMapper,
+                       OutboxService outboxService,
+                       TransactionTemplate transactionTemplate) {
         this.timerSessionRepository = timerSessionRepository;
         this.timeBlockRepository = timeBlockRepository;
         this.blockService = blockService;
         this.messagingTemplate = messagingTemplate;
+        this.historyService = historyService;
+        this.phaseEventRecorder = phaseEventRecorder;
+        this.timerStreamService = timerStreamService;
+        this.changeNotifier = changeNotifier;
+        this.timerEngine = timerEngine;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.frameEncoder = frameEncoder;
+        this.statusMapper = statusMapper;
+        this.clock = timerEngine.getClock();
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -68,28 +107,15 @@ public class TimerService {
         TimeBlock timeBlock = timeBlockRepository.findById(blockId)
             .orElseThrow(() -> new IllegalArgumentException("TimeBlock not found with id: " + blockId));
 
-        // Calcular la secuencia
-        BlockSequenceDTO sequence = blockService.calculateSequence(
-            timeBlock.getTotalDurationMinutes(),
-            timeBlock.getPomodoroDurationMinutes(),
-            timeBlock.getShortBreakDurationMinutes(),
-            timeBlock.getLongBreakDurationMinutes()
-        );
+        // Secuencia compilada (compartida con otras sesiones del mismo bloque)
+        CompiledSequence sequence = blockService.compileSequence(timeBlock);
 
-        // Crear nueva sesión
+        // Crear nueva sesión e inicializar con la primera fase
         TimerSession session = new TimerSession(timeBlock);
-        session.setStatus(TimerStatus.RUNNING);
-        session.setStartedAt(LocalDateTime.now());
-        
-        // Inicializar con la primera fase
-        PhaseSequenceItem firstPhase = sequence.getSequence().get(0);
-        session.setCurrentPhase(firstPhase.getPhase());
-        session.setCurrentPhaseIndex(0);
-        session.setRemainingSeconds(firstPhase.getDurationMinutes() * 60);
-        session.setTotalElapsedSeconds(0);
+        timerEngine.start(session, sequence);
 
         // Guardar sesión
-        TimerSession saved = timerSessionRepository.save(session);
+        TimerSession saved = saveSession(session, OutboxEventType.STARTED);
         
         // Guardar secuencia en memoria
         sessionSequences.put(saved.getId(), sequence);
@@ -97,7 +123,8 @@ public class TimerService {
         // Iniciar el timer
         startTimer(saved.getId());
 
-        TimerStatusDTO dto = toDTO(saved, sequence);
+        TimerStatusDTO dto = statusMapper.toDTO(saved, sequence);
+        changeNotifier.markChanged(saved.getId());
         // Send initial update via WebSocket
         sendTimerUpdate(saved.getId());
         return dto;
@@ -117,12 +144,12 @@ public class TimerService {
         stopScheduler(sessionId);
 
         // Actualizar estado
-        session.setStatus(TimerStatus.PAUSED);
-        session.setPausedAt(LocalDateTime.now());
-        timerSessionRepository.save(session);
+        timerEngine.pause(session);
+        saveSession(session, OutboxEventType.PAUSED);
 
-        BlockSequenceDTO sequence = sessionSequences.get(sessionId);
-        TimerStatusDTO dto = toDTO(session, sequence);
+        CompiledSequence sequence = sessionSequences.get(sessionId);
+        TimerStatusDTO dto = statusMapper.toDTO(session, sequence);
+        changeNotifier.markChanged(sessionId);
         sendTimerUpdate(sessionId);
         return dto;
     }
@@ -138,14 +165,14 @@ public class TimerService {
         }
 
         // Reanudar el scheduler
-        session.setStatus(TimerStatus.RUNNING);
-        session.setPausedAt(null);
-        timerSessionRepository.save(session);
+        timerEngine.resume(session);
+        saveSession(session, OutboxEventType.RESUMED);
         
         startTimer(sessionId);
 
-        BlockSequenceDTO sequence = sessionSequences.get(sessionId);
-        TimerStatusDTO dto = toDTO(session, sequence);
+        CompiledSequence sequence = sessionSequences.get(sessionId);
+        TimerStatusDTO dto = statusMapper.toDTO(session, sequence);
+        changeNotifier.markChanged(sessionId);
         sendTimerUpdate(sessionId);
         return dto;
     }
@@ -159,25 +186,21 @@ public class TimerService {
         // Detener el scheduler actual
         stopScheduler(sessionId);
 
+        // La fase en curso queda interrumpida
+        if (session.getStatus() == TimerStatus.RUNNING || session.getStatus() == TimerStatus.PAUSED) {
+            logPhaseEvent(session, true);
+        }
+
         // Reiniciar a la primera fase
-        BlockSequenceDTO sequence = sessionSequences.get(sessionId);
-        PhaseSequenceItem firstPhase = sequence.getSequence().get(0);
-        
-        session.setStatus(TimerStatus.RUNNING);
-        session.setCurrentPhase(firstPhase.getPhase());
-        session.setCurrentPhaseIndex(0);
-        session.setRemainingSeconds(firstPhase.getDurationMinutes() * 60);
-        session.setTotalElapsedSeconds(0);
-        session.setStartedAt(LocalDateTime.now());
-        session.setPausedAt(null);
-        session.setCompletedAt(null);
-        
-        timerSessionRepository.save(session);
+        CompiledSequence sequence = sessionSequences.get(sessionId);
+        timerEngine.start(session, sequence);
+        saveSession(session, OutboxEventType.RESTARTED);
 
         // Reiniciar el timer
         startTimer(sessionId);
 
-        TimerStatusDTO dto = toDTO(session, sequence);
+        TimerStatusDTO dto = statusMapper.toDTO(session, sequence);
+        changeNotifier.markChanged(sessionId);
         sendTimerUpdate(sessionId);
         return dto;
     }
@@ -192,10 +215,13 @@ public class TimerService {
             throw new IllegalStateException("Cannot skip. Timer is not active.");
         }
 
-        BlockSequenceDTO sequence = sessionSequences.get(sessionId);
+        CompiledSequence sequence = sessionSequences.get(sessionId);
+
+        // Registrar la fase saltada en el historial
+        recordPhaseEnd(session, sequence, true);
         
         // Verificar si hay siguiente fase
-        if (session.getCurrentPhaseIndex() >= sequence.getSequence().size() - 1) {
+        if (timerEngine.isLastPhase(session, sequence)) {
             // Ya estamos en la última fase, completar el bloque
             return completeBlock(sessionId);
         }
@@ -204,23 +230,22 @@ public class TimerService {
         stopScheduler(sessionId);
 
         // Avanzar a la siguiente fase
-        int nextIndex = session.getCurrentPhaseIndex() + 1;
-        PhaseSequenceItem nextPhase = sequence.getSequence().get(nextIndex);
-        
-        session.setCurrentPhaseIndex(nextIndex);
-        session.setCurrentPhase(nextPhase.getPhase());
-        session.setRemainingSeconds(nextPhase.getDurationMinutes() * 60);
+        Phase fromPhase = session.getCurrentPhase();
+        timerEngine.advance(session, sequence);
+        new PhaseAdvanceEvent().commit(sessionId, fromPhase, session.getCurrentPhase(),
+                                       session.getCurrentPhaseIndex(), true);
         
         // Si estaba pausado, mantener pausado; si estaba corriendo, continuar
         if (session.getStatus() == TimerStatus.PAUSED) {
-            timerSessionRepository.save(session);
+            saveSession(session, OutboxEventType.PHASE_SKIPPED);
         } else {
             session.setStatus(TimerStatus.RUNNING);
-            timerSessionRepository.save(session);
+            saveSession(session, OutboxEventType.PHASE_SKIPPED);
             startTimer(sessionId);
         }
 
-        TimerStatusDTO dto = toDTO(session, sequence);
+        TimerStatusDTO dto = statusMapper.toDTO(session, sequence);
+        changeNotifier.markChanged(sessionId);
         sendTimerUpdate(sessionId);
         return dto;
     }
@@ -234,12 +259,19 @@ public class TimerService {
         // Detener el scheduler
         stopScheduler(sessionId);
 
+        if (session.getStatus() == TimerStatus.RUNNING || session.getStatus() == TimerStatus.PAUSED) {
+            logPhaseEvent(session, true);
+        }
+
         // Actualizar estado
-        session.setStatus(TimerStatus.STOPPED);
-        timerSessionRepository.save(session);
+        timerEngine.cancel(session);
+        saveSession(session, OutboxEventType.CANCELLED);
 
         // Limpiar de memoria
         sessionSequences.remove(sessionId);
+        timerStreamService.close(sessionId);
+        changeNotifier.forget(sessionId);
+        forgetLater(sessionId);
     }
 
     /**
@@ -248,21 +280,15 @@ public class TimerService {
     @Transactional(readOnly = true)
     public TimerStatusDTO getTimerStatus(Long sessionId) {
         TimerSession session = getSession(sessionId);
-        BlockSequenceDTO sequence = sessionSequences.get(sessionId);
-        
-        if (sequence == null) {
-            // Recalcular si no está en memoria
-            TimeBlock block = session.getTimeBlock();
-            sequence = blockService.calculateSequence(
-                block.getTotalDurationMinutes(),
-                block.getPomodoroDurationMinutes(),
-                block.getShortBreakDurationMinutes(),
-                block.getLongBreakDurationMinutes()
-            );
-            sessionSequences.put(sessionId, sequence);
-        }
-        
-        return toDTO(session, sequence);
+        return statusMapper.toDTO(session, sequenceOf(session));
+    }
+
+    /**
+     * Comprobar que la sesión existe (IllegalArgumentException si no)
+     */
+    @Transactional(readOnly = true)
+    public void requireSession(Long sessionId) {
+        getSession(sessionId);
     }
 
     /**
@@ -280,20 +306,23 @@ public class TimerService {
         }
 
         TimerSession session = activeSession.get();
-        BlockSequenceDTO sequence = sessionSequences.get(session.getId());
-        
-        if (sequence == null) {
-            TimeBlock block = session.getTimeBlock();
-            sequence = blockService.calculateSequence(
-                block.getTotalDurationMinutes(),
-                block.getPomodoroDurationMinutes(),
-                block.getShortBreakDurationMinutes(),
-                block.getLongBreakDurationMinutes()
+        return Optional.of(statusMapper.toDTO(session, sequenceOf(session)));
+    }
+
+    /**
+     * Secuencia de la sesión: en memoria o recalculada desde la copia del plan (sin tocar time_blocks)
+     */
+    private CompiledSequence sequenceOf(TimerSession session) {
+        return sessionSequences.computeIfAbsent(session.getId(), id -> {
+            BlockPlan plan = session.getBlockPlan();
+            return blockService.compileSequence(
+                plan.getTotalDurationMinutes(),
+                plan.getPomodoroDurationMinutes(),
+                plan.getShortBreakDurationMinutes(),
+                plan.getLongBreakDurationMinutes(),
+                plan.getPhasePattern()
             );
-            sessionSequences.put(session.getId(), sequence);
-        }
-        
-        return Optional.of(toDTO(session, sequence));
+        });
     }
 
     /**
@@ -303,12 +332,18 @@ public class TimerService {
         // Detener cualquier scheduler existente
         stopScheduler(sessionId);
 
-        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("timer-tick-" + sessionId).daemon(false).factory());
         activeTimers.put(sessionId, scheduler);
 
+        // Con fixed rate el tick n debería dispararse exactamente en firstTickAt + n segundos
+        long firstTickAt = clock.epochMillis() + 1000;
+        AtomicLong tickNumber = new AtomicLong();
+
         scheduler.scheduleAtFixedRate(() -> {
+            long scheduledAt = firstTickAt + tickNumber.getAndIncrement() * 1000;
             try {
-                updateTimer(sessionId);
+                updateTimer(sessionId, scheduledAt);
             } catch (Exception e) {
                 // Log error
                 System.err.println("Error updating timer: " + e.getMessage());
@@ -320,55 +355,93 @@ public class TimerService {
      * Actualizar el timer cada segundo
      */
     @Async
-    private void updateTimer(Long sessionId) {
-        TimerSession session = timerSessionRepository.findById(sessionId)
-            .orElse(null);
+    private void updateTimer(Long sessionId, long scheduledAt) {
+        TimerTickEvent tickEvent = new TimerTickEvent();
+        tickEvent.begin();
+        TimerSession session = loadSession(sessionId).orElse(null);
         
-        if (session == null || session.getStatus() != TimerStatus.RUNNING) {
+        TimerEngine.TickOutcome outcome = session != null
+            ? timerEngine.tick(session)
+            : TimerEngine.TickOutcome.NOT_RUNNING;
+
+        if (outcome == TimerEngine.TickOutcome.NOT_RUNNING) {
             stopScheduler(sessionId);
+            tickEvent.commit(sessionId, null, null, outcome.name());
             return;
         }
 
-        // Decrementar segundos restantes
-        int remaining = session.getRemainingSeconds() - 1;
-        session.setRemainingSeconds(remaining);
-        session.setTotalElapsedSeconds(session.getTotalElapsedSeconds() + 1);
-
-        // Si la fase actual terminó, avanzar a la siguiente
-        if (remaining <= 0) {
-            BlockSequenceDTO sequence = sessionSequences.get(sessionId);
-            
-            if (session.getCurrentPhaseIndex() >= sequence.getSequence().size() - 1) {
-                // Última fase completada
+        // Si la fase actual terminó, avanzar a la siguiente. El evento de fase, el nuevo estado
+        // y su outbox se confirman juntos (un INSERT síncrono más, solo en este tick); el
+        // historial va después, fuera de esa transacción.
+        if (outcome == TimerEngine.TickOutcome.PHASE_ENDED) {
+            CompiledSequence sequence = sessionSequences.get(sessionId);
+            Phase fromPhase = session.getCurrentPhase();
+            int phaseElapsed = timerEngine.phaseElapsedSeconds(session, sequence);
+
+            boolean advanced = Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+                logPhaseEvent(session, false);
+                if (!timerEngine.advance(session, sequence)) {
+                    // Última fase completada: guardar antes de completar para no sobrescribir el estado final
+                    saveSession(session);
+                    return false;
+                }
+                saveSession(session, OutboxEventType.PHASE_CHANGED);
+                return true;
+            }));
+            recordPhaseHistory(session.getTimeBlockId(), fromPhase, phaseElapsed, false);
+
+            if (!advanced) {
                 completeBlock(sessionId);
-            } else {
-                // Avanzar a la siguiente fase
-                int nextIndex = session.getCurrentPhaseIndex() + 1;
-                PhaseSequenceItem nextPhase = sequence.getSequence().get(nextIndex);
-                
-                session.setCurrentPhaseIndex(nextIndex);
-                session.setCurrentPhase(nextPhase.getPhase());
-                session.setRemainingSeconds(nextPhase.getDurationMinutes() * 60);
+                tickEvent.commit(sessionId, fromPhase, session.getCurrentPhaseIndex(), outcome.name());
+                return;
             }
+            new PhaseAdvanceEvent().commit(sessionId, fromPhase, session.getCurrentPhase(),
+                                           session.getCurrentPhaseIndex(), false);
+            changeNotifier.markChanged(sessionId);
+        } else {
+            saveSession(session);
         }
-
-        timerSessionRepository.save(session);
         
-        // Send update via WebSocket
-        sendTimerUpdate(sessionId);
+        // Send update via WebSocket, solo si alguien está mirando esta sesión
+        if (subscriptionRegistry.isWatched(sessionId)) {
+            sendTimerUpdate(sessionId, scheduledAt);
+        } else {
+            subscriptionRegistry.recordAvoidedSend();
+        }
+        tickEvent.commit(sessionId, session.getCurrentPhase(), session.getCurrentPhaseIndex(), outcome.name());
     }
 
     /**
-     * Send timer update via WebSocket
+     * Send timer update via WebSocket and SSE
      */
     private void sendTimerUpdate(Long sessionId) {
+        sendTimerUpdate(sessionId, null);
+    }
+
+    private void sendTimerUpdate(Long sessionId, Long scheduledAt) {
         try {
-            TimerSession session = timerSessionRepository.findById(sessionId).orElse(null);
+            TimerSession session = loadSession(sessionId).orElse(null);
             if (session != null) {
-                BlockSequenceDTO sequence = sessionSequences.get(sessionId);
+                CompiledSequence sequence = sessionSequences.get(sessionId);
                 if (sequence != null) {
-                    TimerStatusDTO status = toDTO(session, sequence);
-                    messagingTemplate.convertAndSend("/topic/timer/" + sessionId, status);
+                    String destination = TimerSubscriptionRegistry.jsonDestination(sessionId);
+                    TimerSendEvent sendEvent = new TimerSendEvent();
+                    sendEvent.begin();
+                    TimerStatusDTO status = statusMapper.toDTO(session, sequence);
+                    status.setScheduledAt(scheduledAt);
+                    // Serializar una vez por formato y compartir el payload JSON entre STOMP y SSE.
+                    // Los cambios de estado (sin scheduledAt) siempre se publican en JSON.
+                    if (scheduledAt == null || subscriptionRegistry.hasJsonWatchers(sessionId)) {
+                        byte[] json = frameEncoder.encode(status);
+                        messagingTemplate.send(destination, frameEncoder.toMessage(destination, json));
+                        timerStreamService.publish(status, json);
+                    }
+                    String cborDestination = TimerSubscriptionRegistry.cborDestination(sessionId);
+                    if (subscriptionRegistry.hasSubscribers(cborDestination)) {
+                        byte[] cbor = frameEncoder.encodeCbor(status);
+                        messagingTemplate.send(cborDestination, frameEncoder.toCborMessage(cborDestination, cbor));
+                    }
+                    sendEvent.commit(sessionId, session.getCurrentPhase(), destination);
                 }
             }
         } catch (Exception e) {
@@ -380,29 +453,81 @@ public class TimerService {
      * Completar el bloque
      */
     private TimerStatusDTO completeBlock(Long sessionId) {
+        // El evento JFR cubre todo el cierre: guardado final, historial y último frame
+        BlockCompleteEvent completeEvent = new BlockCompleteEvent();
+        completeEvent.begin();
         TimerSession session = getSession(sessionId);
         
         stopScheduler(sessionId);
         
-        session.setStatus(TimerStatus.COMPLETED);
-        session.setCompletedAt(LocalDateTime.now());
-        timerSessionRepository.save(session);
+        timerEngine.complete(session);
+        saveSession(session, OutboxEventType.COMPLETED);
+        try {
+            historyService.recordBlockCompleted(session.getTimeBlockId());
+        } catch (Exception e) {
+            System.err.println("Error recording block history: " + e.getMessage());
+        }
 
-        BlockSequenceDTO sequence = sessionSequences.get(sessionId);
-        TimerStatusDTO dto = toDTO(session, sequence);
+        CompiledSequence sequence = sessionSequences.get(sessionId);
+        TimerStatusDTO dto = statusMapper.toDTO(session, sequence);
+        changeNotifier.markChanged(sessionId);
         
         // Send final update via WebSocket
         sendTimerUpdate(sessionId);
+        completeEvent.commit(sessionId, session.getCurrentPhase(), session.getTotalElapsedSeconds());
         
         // Limpiar de memoria después de un delay
+        forgetLater(sessionId);
+
+        return dto;
+    }
+
+    /**
+     * Limpiar de memoria una sesión terminada 5 segundos después (secuencia, versión y stream SSE)
+     */
+    private void forgetLater(Long sessionId) {
         new Timer().schedule(new TimerTask() {
             @Override
             public void run() {
                 sessionSequences.remove(sessionId);
+                changeNotifier.forget(sessionId);
+                timerStreamService.forget(sessionId);
             }
-        }, 5000); // 5 segundos después
+        }, 5000);
+    }
 
-        return dto;
+    /**
+     * Registrar la fase que termina: evento en la transacción actual y tiempo real en el historial
+     */
+    private void recordPhaseEnd(TimerSession session, CompiledSequence sequence, boolean skipped) {
+        logPhaseEvent(session, skipped);
+        recordPhaseHistory(session.getTimeBlockId(), session.getCurrentPhase(),
+                           timerEngine.phaseElapsedSeconds(session, sequence), skipped);
+    }
+
+    private void recordPhaseHistory(Long timeBlockId, Phase phase, int elapsedSeconds, boolean skipped) {
+        try {
+            historyService.recordPhase(timeBlockId, phase, elapsedSeconds, skipped);
+        } catch (Exception e) {
+            System.err.println("Error recording phase history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Escribir el evento de fin de la fase actual (en la transacción de la sesión)
+     */
+    private void logPhaseEvent(TimerSession session, boolean skipped) {
+        phaseEventRecorder.record(session.getId(), session.getCurrentPhaseIndex(), session.getCurrentPhase(),
+                                  session.getPhaseStartedAt(), clock.now(), skipped);
+    }
+
+    /**
+     * Obtener el historial de fases de una sesión
+     */
+    @Transactional(readOnly = true)
+    public List<PhaseEventDTO> getPhaseEvents(Long sessionId) {
+        getSession(sessionId);
+        return phaseEventRecorder.getEvents(sessionId);
     }
 
     /**
@@ -419,45 +544,41 @@ public class TimerService {
      * Obtener sesión o lanzar excepción
      */
     private TimerSession getSession(Long sessionId) {
-        return timerSessionRepository.findById(sessionId)
+        return loadSession(sessionId)
             .orElseThrow(() -> new IllegalArgumentException("TimerSession not found with id: " + sessionId));
     }
 
     /**
-     * Convertir a DTO
+     * Cargar sesión registrando el acceso como evento JFR
      */
-    private TimerStatusDTO toDTO(TimerSession session, BlockSequenceDTO sequence) {
-        TimerStatusDTO dto = new TimerStatusDTO();
-        dto.setSessionId(session.getId());
-        dto.setBlockId(session.getTimeBlock().getId());
-        dto.setStatus(session.getStatus());
-        dto.setCurrentPhase(session.getCurrentPhase());
-        dto.setCurrentPhaseIndex(session.getCurrentPhaseIndex());
-        dto.setRemainingSeconds(session.getRemainingSeconds());
-        dto.setTotalElapsedSeconds(session.getTotalElapsedSeconds());
-        dto.setTotalPhases(sequence.getSequence().size());
-        dto.setFormattedRemainingTime(formatTime(session.getRemainingSeconds()));
-        dto.setFormattedElapsedTime(formatElapsedTime(session.getTotalElapsedSeconds()));
-        return dto;
+    private Optional<TimerSession> loadSession(Long sessionId) {
+        SessionDbEvent event = new SessionDbEvent();
+        event.begin();
+        Optional<TimerSession> session = timerSessionRepository.findById(sessionId);
+        event.commit(sessionId, session.map(TimerSession::getCurrentPhase).orElse(null), SessionDbEvent.LOAD);
+        return session;
     }
 
     /**
-     * Formatear tiempo en MM:SS
+     * Guardar sesión registrando el acceso como evento JFR
      */
-    private String formatTime(int totalSeconds) {
-        int minutes = totalSeconds / 60;
-        int seconds = totalSeconds % 60;
-        return String.format("%02d:%02d", minutes, seconds);
+    private TimerSession saveSession(TimerSession session) {
+        SessionDbEvent event = new SessionDbEvent();
+        event.begin();
+        TimerSession saved = timerSessionRepository.save(session);
+        event.commit(saved.getId(), saved.getCurrentPhase(), SessionDbEvent.SAVE);
+        return saved;
     }
 
     /**
-     * Formatear tiempo transcurrido en HH:MM:SS
+     * Guardar la sesión y su evento de outbox en la misma transacción: la del endpoint si
+     * la hay, o una propia en el hilo del tick. La entrega a los sinks es asíncrona.
      */
-    private String formatElapsedTime(int totalSeconds) {
-        int hours = totalSeconds / 3600;
-        int minutes = (totalSeconds % 3600) / 60;
-        int seconds = totalSeconds % 60;
-        return String.format("%02d:%02d:%02d", hours, minutes, seconds);
+    private TimerSession saveSession(TimerSession session, OutboxEventType transition) {
+        return transactionTemplate.execute(tx -> {
+            TimerSession saved = saveSession(session);
+            outboxService.record(saved, transition);
+            return saved;
+        });
     }
 }
-
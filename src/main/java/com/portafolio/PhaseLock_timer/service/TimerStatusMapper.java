@@ -0,0 +1,65 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import com.portafolio.PhaseLock_timer.model.TimerSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Construye el TimerStatusDTO de una sesión. Solo asigna el DTO y sus dos cadenas
+ * formateadas: es el único punto donde el estado sale hacia la API.
+ */
+@Component
+public class TimerStatusMapper {
+
+    // "00".."99": concatenar estas constantes asigna solo la cadena final
+    private static final String[] TWO_DIGITS = new String[100];
+
+    static {
+        for (int i = 0; i < TWO_DIGITS.length; i++) {
+            TWO_DIGITS[i] = (i < 10 ? "0" : "") + i;
+        }
+    }
+
+    private final TimerClock clock;
+
+    @Autowired
+    public TimerStatusMapper(TimerClock clock) {
+        this.clock = clock;
+    }
+
+    public TimerStatusDTO toDTO(TimerSession session, CompiledSequence sequence) {
+        TimerStatusDTO dto = new TimerStatusDTO();
+        dto.setSessionId(session.getId());
+        dto.setBlockId(session.getTimeBlockId());
+        dto.setStatus(session.getStatus());
+        dto.setCurrentPhase(session.getCurrentPhase());
+        dto.setCurrentPhaseIndex(session.getCurrentPhaseIndex());
+        dto.setRemainingSeconds(session.getRemainingSeconds());
+        dto.setTotalElapsedSeconds(session.getTotalElapsedSeconds());
+        dto.setTotalPhases(sequence.size());
+        dto.setFormattedRemainingTime(formatTime(session.getRemainingSeconds()));
+        dto.setFormattedElapsedTime(formatElapsedTime(session.getTotalElapsedSeconds()));
+        dto.setProducedAt(clock.epochMillis());
+        return dto;
+    }
+
+    /**
+     * Formatear tiempo en MM:SS (negativos como 00:00)
+     */
+    static String formatTime(int totalSeconds) {
+        totalSeconds = Math.max(0, totalSeconds);
+        int minutes = totalSeconds / 60;
+        return (minutes < 100 ? TWO_DIGITS[minutes] : Integer.toString(minutes)) + ":" + TWO_DIGITS[totalSeconds % 60];
+    }
+
+    /**
+     * Formatear tiempo transcurrido en HH:MM:SS (negativos como 00:00:00)
+     */
+    static String formatElapsedTime(int totalSeconds) {
+        totalSeconds = Math.max(0, totalSeconds);
+        int hours = totalSeconds / 3600;
+        return (hours < 100 ? TWO_DIGITS[hours] : Integer.toString(hours)) + ":"
+            + TWO_DIGITS[(totalSeconds % 3600) / 60] + ":" + TWO_DIGITS[totalSeconds % 60];
+    }
+}
@@ -0,0 +1,299 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Canal Server-Sent Events alimentado por el mismo tick que el topic STOMP.
+ * Las conexiones son asíncronas (no retienen un hilo del servlet) y los envíos
+ * se hacen en hilos virtuales para que un cliente lento no frene el tick.
+ * Cada sesión tiene una cola de envío serie: los frames de un stream salen de uno
+ * en uno y en orden de id, y nunca hay dos send() a la vez sobre el mismo emitter.
+ */
+@Service
+public class TimerStreamService {
+
+    private static final String EVENT_NAME = "timer";
+
+    private final long emitterTimeoutMs;
+    private final int replaySize;
+    private final TimerFrameEncoder frameEncoder;
+
+    private final Map<Long, SessionStream> streams = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TimerStreamService(@Value("${phaselock.sse.timeout-ms:1800000}") long emitterTimeoutMs,
+                              @Value("${phaselock.sse.replay-size:16}") int replaySize,
+                              TimerFrameEncoder frameEncoder) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.replaySize = replaySize;
+        this.frameEncoder = frameEncoder;
+    }
+
+    /**
+     * Registrar un cliente. Con Last-Event-ID se reenvían los frames perdidos que
+     * sigan en el buffer; si no, se envía el estado actual. Si la sesión ya terminó
+     * se envía ese estado y se cierra la conexión sin registrar nada.
+     */
+    public SseEmitter subscribe(Long sessionId, Long lastEventId, TimerStatusDTO current) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        if (isFinished(current)) {
+            sendAndComplete(emitter, List.of(new Frame(0, frameEncoder.encode(current))));
+            return emitter;
+        }
+
+        SessionStream stream = streams.computeIfAbsent(sessionId, id -> new SessionStream(sender));
+        // Réplica y alta bajo el mismo cerrojo que publish(): ningún frame queda entre ambas
+        synchronized (stream) {
+            List<Frame> replay = stream.framesAfter(lastEventId);
+            if (stream.closed) {
+                // Terminó entre la consulta del estado y este punto: último frame y cierre
+                Frame last = stream.recent.peekLast();
+                sendAndComplete(emitter, !replay.isEmpty() ? replay
+                    : List.of(last != null ? last : new Frame(0, frameEncoder.encode(current))));
+                return emitter;
+            }
+            if (replay.isEmpty()) {
+                replay = List.of(new Frame(stream.lastId(), frameEncoder.encode(current)));
+            }
+            emitter.onCompletion(() -> stream.emitters.remove(emitter));
+            emitter.onTimeout(() -> stream.emitters.remove(emitter));
+            emitter.onError(e -> stream.emitters.remove(emitter));
+            stream.emitters.add(emitter);
+
+            List<Frame> frames = replay;
+            stream.queue.execute(() -> {
+                for (Frame frame : frames) {
+                    if (!send(stream, emitter, frame)) {
+                        return;
+                    }
+                }
+            });
+            return emitter;
+        }
+    }
+
+    /**
+     * Publicar un frame a todos los suscriptores SSE de la sesión. {@code json} es el
+     * payload ya codificado para el topic STOMP; se escribe tal cual en cada emitter.
+     */
+    public void publish(TimerStatusDTO status, byte[] json) {
+        SessionStream stream = streams.get(status.getSessionId());
+        if (stream == null) {
+            return;
+        }
+
+        boolean finished = isFinished(status);
+        synchronized (stream) {
+            if (stream.closed) {
+                return;
+            }
+            Frame frame = stream.append(json, replaySize);
+            // Cerrado pero aún en el mapa hasta forget(): quien se suscriba tarde recibe este
+            // último frame y se cierra, en lugar de abrir un stream nuevo que nadie cerraría
+            stream.closed = finished;
+            if (stream.emitters.isEmpty()) {
+                return;
+            }
+            stream.queue.execute(() -> {
+                for (SseEmitter emitter : stream.emitters) {
+                    if (send(stream, emitter, frame) && finished) {
+                        emitter.complete();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Cerrar todos los streams de una sesión (p. ej. al cancelarla), después de los
+     * frames que sigan en su cola
+     */
+    public void close(Long sessionId) {
+        SessionStream stream = streams.get(sessionId);
+        if (stream != null) {
+            synchronized (stream) {
+                stream.closed = true;
+                stream.queue.execute(() -> stream.emitters.forEach(SseEmitter::complete));
+            }
+        }
+    }
+
+    /**
+     * Quitar el stream ya cerrado de una sesión terminada (limpieza diferida de TimerService)
+     */
+    public void forget(Long sessionId) {
+        streams.computeIfPresent(sessionId, (id, stream) -> {
+            synchronized (stream) {
+                return stream.closed ? null : stream;
+            }
+        });
+    }
+
+    /**
+     * ¿Hay algún cliente SSE abierto para esta sesión?
+     */
+    public boolean hasSubscribers(Long sessionId) {
+        SessionStream stream = streams.get(sessionId);
+        return stream != null && !stream.emitters.isEmpty();
+    }
+
+    public int getSubscriberCount() {
+        return streams.values().stream().mapToInt(s -> s.emitters.size()).sum();
+    }
+
+    int getStreamCount() {
+        return streams.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.keySet().forEach(this::close);
+        streams.clear();
+        sender.shutdownNow();
+    }
+
+    private boolean send(SessionStream stream, SseEmitter emitter, Frame frame) {
+        try {
+            emitter.send(toEvent(frame));
+            return true;
+        } catch (Exception e) {
+            stream.emitters.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void sendAndComplete(SseEmitter emitter, List<Frame> frames) {
+        sender.execute(() -> {
+            try {
+                for (Frame frame : frames) {
+                    emitter.send(toEvent(frame));
+                }
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+    }
+
+    private static boolean isFinished(TimerStatusDTO status) {
+        return status.getStatus() == TimerStatus.COMPLETED || status.getStatus() == TimerStatus.STOPPED;
+    }
+
+    private SseEmitter.SseEventBuilder toEvent(Frame frame) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(EVENT_NAME);
+        if (frame.id() > 0) {
+            event.id(Long.toString(frame.id()));
+        }
+        return event.data(frame.json(), MediaType.APPLICATION_JSON);
+    }
+
+    private record Frame(long id, byte[] json) {
+    }
+
+    private static final class SessionStream {
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final SerialQueue queue;
+        private final Deque<Frame> recent = new ArrayDeque<>();
+        private long nextId = 1;
+        private boolean closed; // Protegido por el monitor del stream
+
+        SessionStream(Executor executor) {
+            this.queue = new SerialQueue(executor);
+        }
+
+        Frame append(byte[] json, int replaySize) {
+            Frame frame = new Frame(nextId++, json);
+            recent.addLast(frame);
+            while (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            return frame;
+        }
+
+        long lastId() {
+            return nextId - 1;
+        }
+
+        List<Frame> framesAfter(Long lastEventId) {
+            List<Frame> frames = new ArrayList<>();
+            if (lastEventId == null || recent.isEmpty() || recent.peekFirst().id() > lastEventId + 1) {
+                return frames; // Sin historial suficiente: el llamador envía el estado actual
+            }
+            for (Frame frame : recent) {
+                if (frame.id() > lastEventId) {
+                    frames.add(frame);
+                }
+            }
+            return frames;
+        }
+    }
+
+    /**
+     * Ejecuta las tareas de una en una y en orden de llegada sobre el executor compartido;
+     * solo ocupa un hilo virtual mientras tiene trabajo pendiente
+     */
+    private static final class SerialQueue implements Executor {
+        private final Executor executor;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        SerialQueue(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false); // Executor cerrado: la app se está parando
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        System.err.println("Error sending SSE frame: " + e.getMessage());
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            if (!tasks.isEmpty()) {
+                schedule(); // Llegó una tarea entre el último poll y soltar la marca
+            }
+        }
+    }
+}
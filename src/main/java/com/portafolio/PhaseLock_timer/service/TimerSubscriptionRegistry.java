@@ -0,0 +1,120 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.SubscriptionStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cuenta suscriptores STOMP por destino de timer (y consulta los SSE) para no
+ * publicar ticks que nadie recibe.
+ */
+@Component
+public class TimerSubscriptionRegistry {
+
+    public static final String TIMER_TOPIC_PREFIX = "/topic/timer/";
+    public static final String CBOR_SUFFIX = "/cbor";
+
+    // sesión WebSocket -> (id de suscripción -> destino)
+    private final Map<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+    private final AtomicLong avoidedSends = new AtomicLong();
+    private final TimerStreamService timerStreamService;
+
+    @Autowired
+    public TimerSubscriptionRegistry(TimerStreamService timerStreamService) {
+        this.timerStreamService = timerStreamService;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(TIMER_TOPIC_PREFIX)
+                || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String previous = subscriptions
+            .computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+            .put(accessor.getSubscriptionId(), destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        counts.merge(destination, 1, Integer::sum);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> bySubscription = sessionSubscriptions(event.getMessage());
+        if (bySubscription == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String destination = bySubscription.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> bySubscription = subscriptions.remove(event.getSessionId());
+        if (bySubscription != null) {
+            bySubscription.values().forEach(this::decrement);
+        }
+    }
+
+    /**
+     * ¿Hay algún cliente STOMP o SSE mirando esta sesión?
+     */
+    public boolean isWatched(Long sessionId) {
+        return hasSubscribers(jsonDestination(sessionId)) || hasSubscribers(cborDestination(sessionId))
+            || timerStreamService.hasSubscribers(sessionId);
+    }
+
+    /**
+     * ¿Hay consumidores del payload JSON (topic STOMP o SSE)?
+     */
+    public boolean hasJsonWatchers(Long sessionId) {
+        return hasSubscribers(jsonDestination(sessionId)) || timerStreamService.hasSubscribers(sessionId);
+    }
+
+    public boolean hasSubscribers(String destination) {
+        return counts.containsKey(destination);
+    }
+
+    public static String jsonDestination(Long sessionId) {
+        return TIMER_TOPIC_PREFIX + sessionId;
+    }
+
+    public static String cborDestination(Long sessionId) {
+        return TIMER_TOPIC_PREFIX + sessionId + CBOR_SUFFIX;
+    }
+
+    public void recordAvoidedSend() {
+        avoidedSends.incrementAndGet();
+    }
+
+    public SubscriptionStatsDTO getStats() {
+        return new SubscriptionStatsDTO(Map.copyOf(counts), timerStreamService.getSubscriberCount(), avoidedSends.get());
+    }
+
+    private Map<String, String> sessionSubscriptions(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? subscriptions.get(sessionId) : null;
+    }
+
+    private void decrement(String destination) {
+        // Al llegar a cero se elimina la entrada para que hasSubscribers sea un containsKey
+        counts.computeIfPresent(destination, (key, count) -> count > 1 ? count - 1 : null);
+    }
+}
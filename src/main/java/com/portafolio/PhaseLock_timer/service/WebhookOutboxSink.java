@@ -0,0 +1,48 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.OutboxEventDTO;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Envía cada lote como un array JSON en un POST. Cualquier respuesta que no sea 2xx
+ * (o un timeout) hace que el lote se reintente.
+ */
+public class WebhookOutboxSink implements OutboxSink {
+
+    private final URI uri;
+    private final Duration timeout;
+    private final JsonMapper jsonMapper;
+    private final HttpClient httpClient;
+
+    public WebhookOutboxSink(String url, Duration timeout, JsonMapper jsonMapper) {
+        this.uri = URI.create(url);
+        this.timeout = timeout;
+        this.jsonMapper = jsonMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(List<OutboxEventDTO> events) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(events)))
+            .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Webhook " + uri + " responded " + response.statusCode());
+        }
+    }
+}
@@ -7,6 +7,30 @@ let websocketConnected = false;
 let reconnectAttempts = 0;
 const MAX_RECONNECT_ATTEMPTS = 5;
 
+// Conditional polling state (ETag changes only on phase/status changes)
+let lastPolledStatus = null;
+let lastPolledEtag = null;
+let pollsSinceFullRefresh = 0;
+const FULL_REFRESH_EVERY_POLLS = 30;
+
+// Prefer the plain WebSocket endpoint (no SockJS framing, permessage-deflate negotiated by the browser).
+// Binary timer frames (CBOR, /topic/timer/{id}/cbor) need it too: SockJS only carries text.
+// If the native connection fails once, fall back to SockJS + JSON.
+const NATIVE_WEBSOCKET_PATH = '/ws-native';
+const USE_BINARY_FRAMES = true;
+let nativeWebSocketFailed = false;
+
+// CBOR layout v1 (see TimerCborMessageConverter): enums travel as ordinals
+const TIMER_STATUSES = ['STOPPED', 'RUNNING', 'PAUSED', 'COMPLETED'];
+const PHASES = ['POMODORO', 'SHORT_BREAK', 'LONG_BREAK'];
+
+// Latency sampling (scheduler / broker / network lag), reported to /api/metrics/latency
+const LATENCY_SAMPLE_RATE = 0.1;
+const LATENCY_REPORT_BATCH = 20;
+const CLOCK_PROBES = 5;
+let latencySamples = [];
+let clockOffset = null; // ms to add to Date.now() to get server time; null until estimated
+
 // Track previous phase for change detection
 let previousPhase = null;
 let previousPhaseIndex = null;
@@ -542,22 +566,35 @@ function connectWebSocket() {
         return; // No active session
     }
 
+    const useNative = !nativeWebSocketFailed && typeof WebSocket !== 'undefined';
+    const binary = useNative && USE_BINARY_FRAMES;
+
     try {
-        const socket = new SockJS('/ws');
-        stompClient = Stomp.over(socket);
-        
-        // Disable debug logging
-        stompClient.debug = () => {};
-        
-        stompClient.connect({}, function(frame) {
-            console.log('WebSocket connected: ' + frame);
+        const client = new StompJs.Client({
+            reconnectDelay: 0, // Reconnection is handled by handleWebSocketError
+            debug: () => {} // Disable debug logging
+        });
+        if (useNative) {
+            const scheme = location.protocol === 'https:' ? 'wss://' : 'ws://';
+            client.brokerURL = scheme + location.host + NATIVE_WEBSOCKET_PATH;
+        } else {
+            client.webSocketFactory = () => new SockJS('/ws');
+        }
+        stompClient = client;
+
+        client.onConnect = function(frame) {
+            console.log('WebSocket connected (' + (useNative ? 'native' : 'sockjs') + ', ' + (binary ? 'cbor' : 'json') + ')');
             websocketConnected = true;
             reconnectAttempts = 0;
+            estimateClockOffset();
             
             // Subscribe to timer updates
-            stompClient.subscribe('/topic/timer/' + currentSessionId, function(message) {
+            const destination = '/topic/timer/' + currentSessionId + (binary ? '/cbor' : '');
+            client.subscribe(destination, function(message) {
                 try {
-                    const status = JSON.parse(message.body);
+                    const receivedAt = Date.now();
+                    const status = binary ? decodeTimerFrame(message.binaryBody) : JSON.parse(message.body);
+                    sampleLatency(status, message.headers['x-sent-at'], receivedAt);
                     updateTimerDisplay(status);
                     
                     if (status.status === 'COMPLETED') {
@@ -571,17 +608,103 @@ function connectWebSocket() {
                     console.error('Error processing WebSocket message:', error);
                 }
             });
-        }, function(error) {
+        };
+
+        const onConnectionLost = function(error) {
+            if (client !== stompClient) {
+                return; // Closed on purpose by disconnectWebSocket
+            }
             console.error('WebSocket connection error:', error);
+            if (useNative && !websocketConnected) {
+                nativeWebSocketFailed = true;
+            }
             websocketConnected = false;
+            stompClient = null;
+            client.deactivate();
             handleWebSocketError();
-        });
+        };
+        client.onStompError = (frame) => onConnectionLost(frame.headers['message']);
+        client.onWebSocketClose = (event) => onConnectionLost('closed (' + event.code + ')');
+
+        client.activate();
     } catch (error) {
         console.error('Error creating WebSocket connection:', error);
         handleWebSocketError();
     }
 }
 
+// Decode a binary timer frame (CBOR array, layout v1) into the same shape as the JSON status
+function decodeTimerFrame(bytes) {
+    const f = decodeCbor(bytes);
+    return {
+        sessionId: f[0],
+        blockId: f[1],
+        status: f[2] === null ? null : TIMER_STATUSES[f[2]],
+        currentPhase: f[3] === null ? null : PHASES[f[3]],
+        currentPhaseIndex: f[4],
+        remainingSeconds: f[5],
+        totalElapsedSeconds: f[6],
+        totalPhases: f[7],
+        scheduledAt: f[8],
+        producedAt: f[9],
+        formattedRemainingTime: f[5] === null ? null : formatSeconds(f[5], false),
+        formattedElapsedTime: f[6] === null ? null : formatSeconds(f[6], true)
+    };
+}
+
+// Minimal CBOR decoder: integers, floats, strings, arrays, maps, true/false/null
+function decodeCbor(bytes) {
+    const view = new DataView(bytes.buffer, bytes.byteOffset, bytes.byteLength);
+    let offset = 0;
+
+    function readLength(info) {
+        if (info < 24) return info;
+        if (info === 24) return view.getUint8(offset++);
+        if (info === 25) { const v = view.getUint16(offset); offset += 2; return v; }
+        if (info === 26) { const v = view.getUint32(offset); offset += 4; return v; }
+        if (info === 27) {
+            const v = view.getUint32(offset) * 0x100000000 + view.getUint32(offset + 4);
+            offset += 8;
+            return v;
+        }
+        throw new Error('Unsupported CBOR length ' + info);
+    }
+
+    function readItem() {
+        const initial = view.getUint8(offset++);
+        const major = initial >> 5;
+        const info = initial & 0x1f;
+        switch (major) {
+            case 0: return readLength(info);
+            case 1: return -1 - readLength(info);
+            case 2: { const n = readLength(info); const v = bytes.slice(offset, offset + n); offset += n; return v; }
+            case 3: {
+                const n = readLength(info);
+                const v = new TextDecoder().decode(bytes.subarray(offset, offset + n));
+                offset += n;
+                return v;
+            }
+            case 4: { const n = readLength(info); const a = []; for (let i = 0; i < n; i++) a.push(readItem()); return a; }
+            case 5: {
+                const n = readLength(info);
+                const m = {};
+                for (let i = 0; i < n; i++) { const k = readItem(); m[k] = readItem(); }
+                return m;
+            }
+            case 7:
+                if (info === 20) return false;
+                if (info === 21) return true;
+                if (info === 22 || info === 23) return null;
+                if (info === 25) { const v = view.getFloat16 ? view.getFloat16(offset) : NaN; offset += 2; return v; }
+                if (info === 26) { const v = view.getFloat32(offset); offset += 4; return v; }
+                if (info === 27) { const v = view.getFloat64(offset); offset += 8; return v; }
+        }
+        throw new Error('Unsupported CBOR item 0x' + initial.toString(16));
+    }
+
+    return readItem();
+}
+
 // Handle WebSocket connection errors - fallback to polling
 function handleWebSocketError() {
     if (reconnectAttempts < MAX_RECONNECT_ATTEMPTS) {
@@ -598,12 +721,65 @@ function handleWebSocketError() {
     }
 }
 
+// Keep a fraction of frames' timing stamps and report them in batches
+function sampleLatency(status, sentAtHeader, receivedAt) {
+    if (Math.random() >= LATENCY_SAMPLE_RATE) {
+        return;
+    }
+    latencySamples.push({
+        scheduledAt: status.scheduledAt,
+        producedAt: status.producedAt,
+        sentAt: sentAtHeader ? Number(sentAtHeader) : null,
+        receivedAt: receivedAt,
+        clockOffset: clockOffset // Without it the server only records its own segments
+    });
+    if (latencySamples.length >= LATENCY_REPORT_BATCH) {
+        flushLatencySamples();
+    }
+}
+
+// NTP-style offset: server time minus the midpoint of the round trip, keeping the
+// probe with the shortest round trip (error at most half of it)
+async function estimateClockOffset() {
+    let bestRtt = Infinity;
+    for (let i = 0; i < CLOCK_PROBES; i++) {
+        try {
+            const sentAt = Date.now();
+            const response = await fetch(`${API_BASE}/metrics/clock`, { cache: 'no-store' });
+            const receivedAt = Date.now();
+            const probe = await response.json();
+            const rtt = receivedAt - sentAt;
+            if (rtt < bestRtt) {
+                bestRtt = rtt;
+                clockOffset = Math.round(probe.serverTime - (sentAt + receivedAt) / 2);
+            }
+        } catch (e) {
+            return; // Keep the previous estimate, if any
+        }
+    }
+}
+
+function flushLatencySamples() {
+    if (latencySamples.length === 0) {
+        return;
+    }
+    const batch = latencySamples;
+    latencySamples = [];
+    fetch(`${API_BASE}/metrics/latency`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify(batch)
+    }).catch(() => {}); // Best effort
+}
+
 // Disconnect WebSocket
 function disconnectWebSocket() {
-    if (stompClient && stompClient.connected) {
-        stompClient.disconnect();
+    flushLatencySamples();
+    const client = stompClient;
+    stompClient = null; // Before deactivate, so the close callback knows it was on purpose
+    if (client) {
+        client.deactivate();
     }
-    stompClient = null;
     websocketConnected = false;
     reconnectAttempts = 0;
 }
@@ -631,9 +807,20 @@ function startPolling() {
         }
         
         try {
-            const response = await fetch(`${API_BASE}/timer/${currentSessionId}`);
-            if (response.ok) {
+            // Resync with a full response now and then to absorb drift of the local countdown
+            const useEtag = lastPolledEtag && lastPolledStatus &&
+                            pollsSinceFullRefresh < FULL_REFRESH_EVERY_POLLS;
+            const headers = useEtag ? { 'If-None-Match': lastPolledEtag } : {};
+            const response = await fetch(`${API_BASE}/timer/${currentSessionId}`, { headers });
+
+            if (response.status === 304) {
+                pollsSinceFullRefresh++;
+                updateTimerDisplay(extrapolateStatus(lastPolledStatus));
+            } else if (response.ok) {
                 const status = await response.json();
+                lastPolledStatus = status;
+                lastPolledEtag = response.headers.get('ETag');
+                pollsSinceFullRefresh = 0;
                 updateTimerDisplay(status);
                 
                 if (status.status === 'COMPLETED') {
@@ -652,8 +839,33 @@ function startPolling() {
     }, 1000); // Update every second
 }
 
+// Advance a cached status by one second (the server only changes the ETag on phase/status changes)
+function extrapolateStatus(status) {
+    if (status.status === 'RUNNING') {
+        status.remainingSeconds = Math.max(status.remainingSeconds - 1, 0);
+        status.totalElapsedSeconds++;
+        status.formattedRemainingTime = formatSeconds(status.remainingSeconds, false);
+        status.formattedElapsedTime = formatSeconds(status.totalElapsedSeconds, true);
+    }
+    return status;
+}
+
+// Format seconds as MM:SS or HH:MM:SS (same format as the server)
+function formatSeconds(totalSeconds, withHours) {
+    const pad = (n) => String(n).padStart(2, '0');
+    if (withHours) {
+        const hours = Math.floor(totalSeconds / 3600);
+        const minutes = Math.floor((totalSeconds % 3600) / 60);
+        return `${pad(hours)}:${pad(minutes)}:${pad(totalSeconds % 60)}`;
+    }
+    return `${pad(Math.floor(totalSeconds / 60))}:${pad(totalSeconds % 60)}`;
+}
+
 // Stop polling and WebSocket
 function stopPolling() {
+    lastPolledStatus = null;
+    lastPolledEtag = null;
+    pollsSinceFullRefresh = 0;
     disconnectWebSocket();
     if (updateInterval) {
         clearInterval(updateInterval);
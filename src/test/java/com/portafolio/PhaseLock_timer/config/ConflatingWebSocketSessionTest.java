@@ -0,0 +1,169 @@
+package com.portafolio.PhaseLock_timer.config;
+
+import com.portafolio.PhaseLock_timer.service.OutboundFrameMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cliente lento simulado: el primer envío se bloquea hasta liberar el latch.
+ * La conflación es por suscripción y un vaciado rechazado por el pool lo reintenta el barrido.
+ */
+class ConflatingWebSocketSessionTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final OutboundFrameMetrics metrics = new OutboundFrameMetrics();
+    private final DrainRetrySweeper sweeper = new DrainRetrySweeper();
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slowClientReceivesOnlyLatestTimerFrame() throws Exception {
+        ConflatingWebSocketSession session = new ConflatingWebSocketSession(
+            blockingSession(), executor, 10_000, 65_536, metrics, sweeper);
+
+        session.sendMessage(timerFrame(1));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        for (int tick = 2; tick <= 10; tick++) {
+            session.sendMessage(timerFrame(tick));
+        }
+        session.sendMessage(new TextMessage("RECEIPT\nreceipt-id:r1\n\n\0"));
+        release.countDown();
+
+        waitForDelivered(3);
+        assertEquals(List.of("tick-1", "RECEIPT", "tick-10"), delivered);
+        assertEquals(8L, metrics.getStats().getConflatedFrames());
+        assertEquals(0L, metrics.getStats().getTerminatedSessions());
+    }
+
+    @Test
+    void stuckSendClosesSession() throws Exception {
+        WebSocketSession delegate = blockingSession();
+        ConflatingWebSocketSession session = new ConflatingWebSocketSession(
+            delegate, executor, 50, 65_536, metrics, sweeper);
+
+        session.sendMessage(timerFrame(1));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        session.sendMessage(timerFrame(2));
+
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1L, metrics.getStats().getTerminatedSessions());
+        release.countDown();
+    }
+
+    @Test
+    void eachSubscriptionKeepsItsOwnLatestFrame() throws Exception {
+        ConflatingWebSocketSession session = new ConflatingWebSocketSession(
+            blockingSession(), executor, 10_000, 65_536, metrics, sweeper);
+
+        session.sendMessage(timerFrame(1));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        session.sendMessage(timerFrame("sub-1", 2));
+        session.sendMessage(timerFrame(3));
+        session.sendMessage(timerFrame("sub-1", 4));
+        release.countDown();
+
+        waitForDelivered(3);
+        // Solo tick-2 se sustituye (por tick-4, misma suscripción); tick-3 va por la otra
+        assertEquals(List.of("tick-1", "tick-3", "tick-4"), delivered.stream().sorted().toList());
+        assertEquals(1L, metrics.getStats().getConflatedFrames());
+    }
+
+    @Test
+    void rejectedDrainIsRetriedBySweeperNotOnTheCallingThread() throws Exception {
+        WebSocketSession delegate = mock(WebSocketSession.class);
+        AtomicBoolean poolFull = new AtomicBoolean(true);
+        Executor executorOrReject = task -> {
+            if (poolFull.get()) {
+                throw new RejectedExecutionException("pool full");
+            }
+            executor.execute(task);
+        };
+        ConflatingWebSocketSession session = new ConflatingWebSocketSession(
+            delegate, executorOrReject, 10_000, 65_536, metrics, sweeper);
+
+        session.sendMessage(timerFrame(1));
+        session.sendMessage(timerFrame(2)); // Rechazado otra vez: sigue apuntado una sola vez
+
+        verify(delegate, never()).sendMessage(any());
+        assertEquals(2L, metrics.getStats().getRejectedDrains());
+        assertEquals(1, sweeper.getPendingCount());
+
+        sweeper.sweep(); // Pool aún lleno: vuelve a quedar apuntada
+        assertEquals(1, sweeper.getPendingCount());
+
+        poolFull.set(false);
+        sweeper.sweep();
+        verify(delegate, timeout(5000)).sendMessage(any());
+        assertEquals(0, sweeper.getPendingCount());
+    }
+
+    @Test
+    void onlyTimerMessagesAreConflated() {
+        assertEquals("/topic/timer/7\nsub-0", ConflatingWebSocketSession.conflationKeyOf(timerFrame(1)));
+        assertNotEquals(ConflatingWebSocketSession.conflationKeyOf(timerFrame(1)),
+                        ConflatingWebSocketSession.conflationKeyOf(timerFrame("sub-1", 1)));
+        // El orden de las cabeceras no importa
+        assertEquals("/topic/timer/7\nsub-0", ConflatingWebSocketSession.conflationKeyOf(
+            new TextMessage("MESSAGE\nsubscription:sub-0\ndestination:/topic/timer/7\n\n1\0")));
+        assertNull(ConflatingWebSocketSession.conflationKeyOf(
+            new TextMessage("MESSAGE\ndestination:/topic/other\n\n{}\0")));
+        assertNull(ConflatingWebSocketSession.conflationKeyOf(
+            new TextMessage("CONNECTED\nversion:1.2\n\n\0")));
+    }
+
+    private WebSocketSession blockingSession() throws Exception {
+        WebSocketSession delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("s1");
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            String payload = (String) message.getPayload();
+            firstSendStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            delivered.add(payload.startsWith("MESSAGE")
+                ? "tick-" + payload.substring(payload.indexOf("\n\n") + 2, payload.indexOf('\0'))
+                : payload.substring(0, payload.indexOf('\n')));
+            return null;
+        }).when(delegate).sendMessage(any());
+        return delegate;
+    }
+
+    private static TextMessage timerFrame(int tick) {
+        return timerFrame("sub-0", tick);
+    }
+
+    private static TextMessage timerFrame(String subscription, int tick) {
+        return new TextMessage("MESSAGE\ndestination:/topic/timer/7\nsubscription:" + subscription + "\n\n" + tick + "\0");
+    }
+
+    private void waitForDelivered(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (delivered.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.portafolio.PhaseLock_timer.config;
+
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import com.portafolio.PhaseLock_timer.model.Phase;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Frames de timer en CBOR (layout v1) frente a JSON de Jackson: ida y vuelta, y un
+ * benchmark de coste de codificación y tamaño en el cable.
+ *
+ * Benchmark: ./mvnw -Pload-test test -Dtest=TimerFrameEncodingBenchmarkTest
+ */
+class TimerFrameEncodingBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private final TimerCborMessageConverter cbor = new TimerCborMessageConverter();
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    @Test
+    void cborFrameRoundTripsWithoutFormattedFields() {
+        TimerStatusDTO status = frame(1234);
+        TimerStatusDTO decoded = cbor.decode(cbor.encode(status));
+
+        assertEquals(status.getSessionId(), decoded.getSessionId());
+        assertEquals(status.getBlockId(), decoded.getBlockId());
+        assertEquals(status.getStatus(), decoded.getStatus());
+        assertEquals(status.getCurrentPhase(), decoded.getCurrentPhase());
+        assertEquals(status.getCurrentPhaseIndex(), decoded.getCurrentPhaseIndex());
+        assertEquals(status.getRemainingSeconds(), decoded.getRemainingSeconds());
+        assertEquals(status.getTotalElapsedSeconds(), decoded.getTotalElapsedSeconds());
+        assertEquals(status.getTotalPhases(), decoded.getTotalPhases());
+        assertEquals(status.getScheduledAt(), decoded.getScheduledAt());
+        assertEquals(status.getProducedAt(), decoded.getProducedAt());
+        assertNull(decoded.getFormattedRemainingTime());
+
+        // Array de 10 elementos: 0x8a
+        assertEquals((byte) 0x8a, cbor.encode(status)[0]);
+    }
+
+    @Test
+    @Tag("load")
+    void compareEncodeCostAndWireSize() throws Exception {
+        Result jsonResult = measure("json", json::writeValueAsBytes);
+        Result cborResult = measure("cbor", cbor::encode);
+
+        String report = String.join(System.lineSeparator(),
+            "Timer frame encoding: " + ITERATIONS + " frames",
+            jsonResult.toString(),
+            cborResult.toString(),
+            String.format("cbor/json: size %.2f, time %.2f",
+                cborResult.avgBytes() / jsonResult.avgBytes(), cborResult.nsPerOp() / jsonResult.nsPerOp()));
+        System.out.println(report);
+        Path out = Path.of("target", "loadtest", "frame-encoding.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report + System.lineSeparator());
+
+        assertTrue(cborResult.avgBytes() < jsonResult.avgBytes());
+    }
+
+    private Result measure(String name, Function<TimerStatusDTO, byte[]> encoder) {
+        TimerStatusDTO[] frames = new TimerStatusDTO[1024];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = frame(i * 37);
+        }
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += encoder.apply(frames[i & 1023]).length;
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes += encoder.apply(frames[i & 1023]).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertTrue(sink > 0);
+        return new Result(name, elapsed / (double) ITERATIONS, bytes / (double) ITERATIONS,
+                          allocated / (double) ITERATIONS);
+    }
+
+    private static TimerStatusDTO frame(int elapsed) {
+        TimerStatusDTO status = new TimerStatusDTO();
+        status.setSessionId(42L);
+        status.setBlockId(7L);
+        status.setStatus(TimerStatus.RUNNING);
+        status.setCurrentPhase(Phase.values()[elapsed % 3]);
+        status.setCurrentPhaseIndex(elapsed / 1800);
+        status.setRemainingSeconds(1500 - elapsed % 1500);
+        status.setTotalElapsedSeconds(elapsed);
+        status.setTotalPhases(8);
+        status.setFormattedRemainingTime(String.format("%02d:%02d", (1500 - elapsed % 1500) / 60, elapsed % 60));
+        status.setFormattedElapsedTime(String.format("%02d:%02d:%02d", elapsed / 3600, elapsed / 60 % 60, elapsed % 60));
+        status.setScheduledAt(1_760_000_000_000L + elapsed * 1000L);
+        status.setProducedAt(1_760_000_000_000L + elapsed * 1000L + 3);
+        return status;
+    }
+
+    private record Result(String name, double nsPerOp, double avgBytes, double allocatedPerOp) {
+        @Override
+        public String toString() {
+            return String.format("%s: %.0f ns/frame, %.1f bytes on the wire, %.0f bytes allocated/frame",
+                name, nsPerOp, avgBytes, allocatedPerOp);
+        }
+    }
+}
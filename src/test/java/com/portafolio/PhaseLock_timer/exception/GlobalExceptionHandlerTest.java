@@ -0,0 +1,70 @@
+package com.portafolio.PhaseLock_timer.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Entradas inválidas responden 400 y los recursos que no existen 404.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.datasource.url=jdbc:h2:mem:errortest")
+class GlobalExceptionHandlerTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void invalidInputIsABadRequest() throws Exception {
+        HttpResponse<String> longKey = send(HttpRequest.newBuilder(uri("/api/timer/1/pause"))
+            .header("Idempotency-Key", "k".repeat(256))
+            .POST(HttpRequest.BodyPublishers.noBody()));
+        assertEquals(400, longKey.statusCode(), longKey.body());
+
+        HttpResponse<String> pattern = postJson("/api/blocks", """
+            {"totalDurationMinutes": 60, "pomodoroDurationMinutes": 25, "shortBreakDurationMinutes": 5,
+             "longBreakDurationMinutes": 15, "phasePattern": "P S)"}""");
+        assertEquals(400, pattern.statusCode(), pattern.body());
+        assertTrue(pattern.body().contains("Invalid phase pattern"));
+
+        HttpResponse<String> range = postJson("/api/blocks/preview/batch", """
+            {"totalDurationMinutes": {"from": 120, "to": 60, "step": 1},
+             "pomodoroDurationMinutes": {"from": 25, "to": 25, "step": 1},
+             "shortBreakDurationMinutes": {"from": 5, "to": 5, "step": 1},
+             "longBreakDurationMinutes": {"from": 15, "to": 15, "step": 1}}""");
+        assertEquals(400, range.statusCode(), range.body());
+
+        HttpResponse<String> history = send(HttpRequest.newBuilder(
+            uri("/api/history/daily?from=2025-02-01&to=2025-01-01")).GET());
+        assertEquals(400, history.statusCode(), history.body());
+    }
+
+    @Test
+    void missingResourcesAreStillNotFound() throws Exception {
+        assertEquals(404, send(HttpRequest.newBuilder(uri("/api/timer/999999")).GET()).statusCode());
+        assertEquals(404, send(HttpRequest.newBuilder(uri("/api/blocks/999999")).GET()).statusCode());
+    }
+
+    private HttpResponse<String> postJson(String path, String json) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
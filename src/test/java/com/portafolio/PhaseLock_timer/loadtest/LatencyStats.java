@@ -0,0 +1,46 @@
+package com.portafolio.PhaseLock_timer.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Acumulador de latencias en nanosegundos con percentiles exactos (ordena al final).
+ */
+class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    /**
+     * Percentil (0-100) en milisegundos
+     */
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+
+    synchronized double maxMillis() {
+        return percentileMillis(100);
+    }
+
+    String summary() {
+        return String.format("n=%d p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+            count(), percentileMillis(50), percentileMillis(90), percentileMillis(99),
+            percentileMillis(99.9), maxMillis());
+    }
+}
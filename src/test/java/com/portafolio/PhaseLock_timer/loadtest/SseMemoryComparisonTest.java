@@ -0,0 +1,355 @@
+package com.portafolio.PhaseLock_timer.loadtest;
+
+import com.portafolio.PhaseLock_timer.PhaseLockTimerApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memoria del servidor con N clientes suscritos al mismo timer en marcha: stream SSE
+ * frente a STOMP sobre /ws-native. Cada transporte se mide en un proceso servidor
+ * propio (heap vivo tras GC vía jcmd, RSS e hilos de /proc) antes y después de abrir
+ * las conexiones. El heap se reserva y toca entero al arrancar, así que la diferencia
+ * de RSS es solo memoria fuera del heap (pilas, buffers de socket, memoria directa). Los clientes son sockets NIO en crudo leídos por un único selector,
+ * para que el coste del cliente no se mezcle con el del servidor.
+ *
+ * Ejecutar con: ./mvnw -Pload-test test -Dtest=SseMemoryComparisonTest -Dsse.clients=10000
+ */
+@Tag("load")
+class SseMemoryComparisonTest {
+
+    private static final Pattern ID = Pattern.compile("\"(?:id|sessionId)\":(\\d+)");
+    // Una línea por generación (Serial/Parallel) o una para todo el heap (G1)
+    private static final Pattern HEAP_USED = Pattern.compile("(?:generation|heap)\\s+total \\d+K, used (\\d+)K");
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(120);
+
+    private final int clients = Integer.getInteger("sse.clients", 2000);
+    private final String heap = System.getProperty("sse.xmx", "2g");
+    private final Path javaHome = Path.of(System.getProperty("java.home"));
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void serverMemoryPerSubscriberSseVersusStomp() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("Server memory with " + clients + " subscribers to one running timer, -Xmx" + heap + ", "
+                  + Runtime.version() + ", " + Runtime.getRuntime().availableProcessors() + " CPUs");
+        lines.add(String.format("%-9s %10s %10s %12s %12s %10s %10s %14s %14s", "transport", "heap0 MB", "heap MB",
+                                "heap B/conn", "off-heap MB", "off KB/conn", "threads", "connect s", "receiving"));
+        lines.add(measure("sse"));
+        lines.add(measure("stomp"));
+
+        String report = String.join(System.lineSeparator(), lines);
+        System.out.println(report);
+        Path out = Path.of("target", "loadtest", "sse-memory-" + clients + ".txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report + System.lineSeparator());
+    }
+
+    /**
+     * Arrancar un servidor, tomar la línea base, abrir los clientes y medir de nuevo
+     */
+    private String measure(String transport) throws Exception {
+        int port = freePort();
+        List<String> command = List.of(
+            javaHome.resolve("bin").resolve("java").toString(), "-Xms" + heap, "-Xmx" + heap,
+            "-XX:+AlwaysPreTouch",
+            "-cp", System.getProperty("java.class.path"), PhaseLockTimerApplication.class.getName(),
+            "--server.port=" + port, "--server.tomcat.max-connections=" + (clients + 1000),
+            "--spring.jpa.show-sql=false");
+        Process server = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        try (Selector selector = Selector.open()) {
+            awaitStarted(server, port);
+            long blockId = idOf(post(port, "/api/blocks/default"));
+            long sessionId = idOf(post(port, "/api/timer/start/" + blockId));
+
+            Thread.sleep(2000); // Que el tick y los pools estén en régimen antes de la línea base
+            Usage before = usage(server.pid());
+
+            ClientLoop loop = new ClientLoop(selector, transport, sessionId);
+            Thread reader = Thread.ofPlatform().name("sse-memory-clients").start(loop);
+            long start = System.nanoTime();
+            for (int i = 0; i < clients; i++) {
+                loop.open(port);
+            }
+            double connectSeconds = (System.nanoTime() - start) / 1e9;
+
+            // Todos suscritos: esperar a que cada cliente haya recibido al menos un tick
+            loop.resetReceived();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (loop.receiving() < clients && System.nanoTime() < deadline) {
+                Thread.sleep(500);
+            }
+            int receiving = loop.receiving();
+            Usage after = usage(server.pid());
+
+            loop.stop();
+            reader.join(5000);
+            assertTrue(receiving >= clients * 0.99, transport + ": only " + receiving + " of " + clients + " clients received ticks");
+
+            return String.format("%-9s %10d %10d %12d %12d %10.1f %+10d %14.1f %14d", transport,
+                                 before.heapKb() / 1024, after.heapKb() / 1024,
+                                 (after.heapKb() - before.heapKb()) * 1024 / clients,
+                                 (after.rssKb() - before.rssKb()) / 1024,
+                                 (after.rssKb() - before.rssKb()) / (double) clients,
+                                 after.threads() - before.threads(), connectSeconds, receiving);
+        } finally {
+            server.destroy();
+            if (!server.waitFor(20, TimeUnit.SECONDS)) {
+                server.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * Heap vivo tras un GC completo (jcmd), VmRSS e hilos del proceso
+     */
+    private Usage usage(long pid) throws Exception {
+        jcmd(pid, "GC.run");
+        Thread.sleep(1000);
+        Matcher used = HEAP_USED.matcher(jcmd(pid, "GC.heap_info"));
+        long heapKb = 0;
+        while (used.find()) {
+            heapKb += Long.parseLong(used.group(1));
+        }
+        assertTrue(heapKb > 0, "no heap usage from jcmd");
+        long rss = 0;
+        long threads = 0;
+        for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                rss = Long.parseLong(line.replaceAll("\\D", ""));
+            } else if (line.startsWith("Threads:")) {
+                threads = Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return new Usage(heapKb, rss, threads);
+    }
+
+    private String jcmd(long pid, String command) throws Exception {
+        Process jcmd = new ProcessBuilder(javaHome.resolve("bin").resolve("jcmd").toString(), String.valueOf(pid), command)
+            .redirectErrorStream(true)
+            .start();
+        String output = new String(jcmd.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(jcmd.waitFor(60, TimeUnit.SECONDS) && jcmd.exitValue() == 0, () -> "jcmd " + command + ": " + output);
+        return output;
+    }
+
+    private void awaitStarted(Process server, int port) throws Exception {
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        HttpRequest active = HttpRequest.newBuilder(uri(port, "/api/timer/active")).timeout(Duration.ofSeconds(1)).GET().build();
+        while (true) {
+            assertTrue(server.isAlive(), () -> "server exited with " + server.exitValue());
+            assertTrue(System.nanoTime() < deadline, "server not up within " + START_TIMEOUT);
+            try {
+                http.send(active, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (IOException notListeningYet) {
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private String post(int port, String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(
+            HttpRequest.newBuilder(uri(port, path)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() < 300, path + " -> " + response.statusCode() + " " + response.body());
+        return response.body();
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+
+    private static long idOf(String json) {
+        Matcher matcher = ID.matcher(json);
+        assertTrue(matcher.find(), "no id in " + json);
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Usage(long heapKb, long rssKb, long threads) {
+    }
+
+    /**
+     * Todos los clientes en un selector: SSE es un GET que se queda abierto; STOMP hace el
+     * upgrade a mano, espera el 101, envía CONNECT, espera CONNECTED y envía SUBSCRIBE
+     */
+    private static final class ClientLoop implements Runnable {
+        private final Selector selector;
+        private final boolean sse;
+        private final long sessionId;
+        private final Queue<Client> pending = new ConcurrentLinkedQueue<>();
+        private final List<Client> all = new ArrayList<>();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        private volatile boolean running = true;
+
+        ClientLoop(Selector selector, String transport, long sessionId) {
+            this.selector = selector;
+            this.sse = transport.equals("sse");
+            this.sessionId = sessionId;
+        }
+
+        void open(int port) throws IOException {
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+            String request = sse
+                ? "GET /api/timer/" + sessionId + "/stream HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n"
+                : "GET /ws-native HTTP/1.1\r\nHost: localhost\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                  + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n"
+                  + "Sec-WebSocket-Protocol: v12.stomp\r\n\r\n";
+            channel.write(ByteBuffer.wrap(request.getBytes(StandardCharsets.US_ASCII)));
+            channel.configureBlocking(false);
+            pending.add(new Client(channel));
+            selector.wakeup();
+        }
+
+        void resetReceived() {
+            synchronized (all) {
+                all.forEach(c -> c.receivedAfterReset = false);
+            }
+        }
+
+        int receiving() {
+            synchronized (all) {
+                return (int) all.stream().filter(c -> c.receivedAfterReset).count();
+            }
+        }
+
+        void stop() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(200);
+                    Client client;
+                    while ((client = pending.poll()) != null) {
+                        client.channel.register(selector, SelectionKey.OP_READ, client);
+                        synchronized (all) {
+                            all.add(client);
+                        }
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        read((Client) key.attachment());
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                synchronized (all) {
+                    for (Client client : all) {
+                        try {
+                            client.channel.close();
+                        } catch (IOException ignored) {
+                            // Cerrando de todas formas
+                        }
+                    }
+                }
+            }
+        }
+
+        private void read(Client client) throws IOException {
+            buffer.clear();
+            int n = client.channel.read(buffer);
+            if (n <= 0) {
+                if (n < 0) {
+                    client.channel.close();
+                }
+                return;
+            }
+            if (client.state == State.SUBSCRIBED) {
+                client.receivedAfterReset = true;
+                return;
+            }
+            buffer.flip();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            client.handshake.append(new String(bytes, StandardCharsets.ISO_8859_1));
+            String seen = client.handshake.toString();
+            if (client.state == State.UPGRADING && seen.contains("\r\n\r\n")) {
+                if (sse) {
+                    client.subscribed();
+                    return;
+                }
+                assertTrue(seen.startsWith("HTTP/1.1 101"), () -> "upgrade refused: " + seen);
+                send(client, "CONNECT\naccept-version:1.2\nhost:localhost\nheart-beat:0,0\n\n\0");
+                client.state = State.CONNECTING;
+            }
+            if (client.state == State.CONNECTING && seen.contains("CONNECTED")) {
+                send(client, "SUBSCRIBE\nid:sub-0\ndestination:/topic/timer/" + sessionId + "\n\n\0");
+                client.subscribed();
+            }
+        }
+
+        /**
+         * Frame de texto del cliente; la máscara a cero es válida y deja el payload igual
+         */
+        private static void send(Client client, String stomp) throws IOException {
+            byte[] payload = stomp.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer frame = ByteBuffer.allocate(payload.length + 8);
+            frame.put((byte) 0x81);
+            if (payload.length < 126) {
+                frame.put((byte) (0x80 | payload.length));
+            } else {
+                frame.put((byte) (0x80 | 126)).putShort((short) payload.length);
+            }
+            frame.putInt(0).put(payload).flip();
+            while (frame.hasRemaining()) {
+                client.channel.write(frame);
+            }
+        }
+    }
+
+    private enum State { UPGRADING, CONNECTING, SUBSCRIBED }
+
+    private static final class Client {
+        private final SocketChannel channel;
+        private final StringBuilder handshake = new StringBuilder();
+        private State state = State.UPGRADING;
+        private volatile boolean receivedAfterReset;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void subscribed() {
+            state = State.SUBSCRIBED;
+            handshake.setLength(0);
+        }
+    }
+}
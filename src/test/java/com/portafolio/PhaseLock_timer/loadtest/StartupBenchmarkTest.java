@@ -0,0 +1,158 @@
+package com.portafolio.PhaseLock_timer.loadtest;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Arranque en frío de PhaseLockTimerApplication en procesos separados: tiempo desde el
+ * lanzamiento de la JVM hasta la primera respuesta de GET /api/timer/active y RSS en ese
+ * momento. Compara el jar normal con el extraído, con AOT y con AOT + AppCDS.
+ *
+ * Necesita el perfil fast-start empaquetado:
+ *   ./mvnw -Pfast-start package -DskipTests
+ *   ./mvnw -Pload-test test -Dtest=StartupBenchmarkTest -Dstartup.runs=10
+ */
+@Tag("load")
+class StartupBenchmarkTest {
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path FAST_START = TARGET.resolve("fast-start");
+    private static final String JAR = "PhaseLock-timer-0.0.1-SNAPSHOT.jar";
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(60);
+
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void timeToFirstResponseAndRss() throws Exception {
+        Assumptions.assumeTrue(Files.exists(FAST_START.resolve("application.jsa")),
+                               "run ./mvnw -Pfast-start package -DskipTests first");
+
+        Map<String, Variant> variants = new LinkedHashMap<>();
+        variants.put("jvm", new Variant(TARGET, List.of("-jar", JAR)));
+        variants.put("extracted", new Variant(FAST_START, List.of("-jar", JAR)));
+        variants.put("aot", new Variant(FAST_START, List.of("-Dspring.aot.enabled=true", "-jar", JAR)));
+        variants.put("aot+cds", new Variant(FAST_START, List.of("-XX:SharedArchiveFile=application.jsa",
+                                                                "-Dspring.aot.enabled=true", "-jar", JAR)));
+
+        // Una ronda descartada para calentar la caché de páginas; luego rondas alternando variantes
+        for (Variant variant : variants.values()) {
+            launch(variant);
+        }
+        Map<String, List<Sample>> samples = new LinkedHashMap<>();
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, Variant> variant : variants.entrySet()) {
+                samples.computeIfAbsent(variant.getKey(), k -> new ArrayList<>()).add(launch(variant.getValue()));
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("Startup: " + runs + " cold starts per variant, " + System.getProperty("java.vm.name")
+                  + " " + Runtime.version() + ", " + Runtime.getRuntime().availableProcessors() + " CPUs");
+        lines.add(String.format("%-10s %12s %12s %12s %12s", "variant", "p50 first ms", "min ms", "max ms", "p50 RSS MB"));
+        for (Map.Entry<String, List<Sample>> entry : samples.entrySet()) {
+            long[] millis = entry.getValue().stream().mapToLong(Sample::firstResponseMillis).sorted().toArray();
+            long[] rss = entry.getValue().stream().mapToLong(Sample::rssKb).sorted().toArray();
+            lines.add(String.format("%-10s %12d %12d %12d %12s", entry.getKey(), median(millis), millis[0],
+                                    millis[millis.length - 1], rss[0] < 0 ? "n/a" : String.valueOf(median(rss) / 1024)));
+        }
+        String report = String.join(System.lineSeparator(), lines);
+        System.out.println(report);
+        Path out = TARGET.resolve("loadtest").resolve("startup.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report + System.lineSeparator());
+    }
+
+    /**
+     * Lanzar una variante, esperar la primera respuesta y parar el proceso
+     */
+    private Sample launch(Variant variant) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(variant.args());
+        command.add("--server.port=" + port);
+        HttpRequest active = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/timer/active"))
+            .timeout(Duration.ofSeconds(1)).GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .directory(variant.dir().toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        try {
+            while (true) {
+                assertTrue(process.isAlive(), () -> "process exited with " + process.exitValue() + ": " + command);
+                assertTrue(System.nanoTime() - start < START_TIMEOUT.toNanos(), "no response within " + START_TIMEOUT);
+                try {
+                    int status = http.send(active, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    assertTrue(status == 200 || status == 204, "unexpected status " + status);
+                    break;
+                } catch (IOException notListeningYet) {
+                    Thread.sleep(5);
+                }
+            }
+            long firstResponseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new Sample(firstResponseMillis, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * VmRSS del proceso en KB (solo Linux; -1 si no hay /proc)
+     */
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+            .filter(line -> line.startsWith("VmRSS:"))
+            .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+            .findFirst()
+            .orElse(-1);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    private record Variant(Path dir, List<String> args) {
+        Variant {
+            assertTrue(Files.exists(dir.resolve(JAR)), "missing " + dir.resolve(JAR));
+        }
+    }
+
+    private record Sample(long firstResponseMillis, long rssKb) {
+    }
+}
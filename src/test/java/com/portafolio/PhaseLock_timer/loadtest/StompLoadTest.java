@@ -0,0 +1,372 @@
+package com.portafolio.PhaseLock_timer.loadtest;
+
+import com.portafolio.PhaseLock_timer.config.TimerCborMessageConverter;
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generador de carga extremo a extremo: N clientes STOMP contra la app embebida,
+ * suscritos a /topic/timer/{id}. Mide latencia tick-a-cliente, ticks perdidos,
+ * CPU y heap del proceso (clientes y servidor comparten JVM) y bytes asignados por
+ * los hilos del servidor por cada frame entregado (tick x suscriptor).
+ *
+ * Ejecutar con: ./mvnw -Pload-test test -Dloadtest.clients=1000 -Dloadtest.seconds=60
+ * (-Dloadtest.format=cbor suscribe a /topic/timer/{id}/cbor con frames binarios)
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StompLoadTest {
+
+    private static final Pattern ELAPSED = Pattern.compile("\"totalElapsedSeconds\":(\\d+)");
+    private static final Pattern SCHEDULED_AT = Pattern.compile("\"scheduledAt\":(\\d+)");
+    private static final Pattern PRODUCED_AT = Pattern.compile("\"producedAt\":(\\d+)");
+    private static final Pattern ID = Pattern.compile("\"(?:id|sessionId)\":(\\d+)");
+
+    private final int clients = Integer.getInteger("loadtest.clients", 200);
+    private final int seconds = Integer.getInteger("loadtest.seconds", 30);
+    private final boolean cbor = "cbor".equals(System.getProperty("loadtest.format", "json"));
+
+    private final TimerCborMessageConverter cborConverter = new TimerCborMessageConverter();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    @Qualifier("brokerChannel")
+    private AbstractSubscribableChannel brokerChannel;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    // totalElapsedSeconds -> instante en que el servidor publicó el tick
+    private final Map<Integer, Long> publishedAt = new ConcurrentHashMap<>();
+
+    @Test
+    void fanOutTimerTicksToManySubscribers() throws Exception {
+        cancelActiveSession();
+        long blockId = idOf(post("/api/blocks/default"));
+        long sessionId = idOf(post("/api/timer/start/" + blockId));
+        String topic = "/topic/timer/" + sessionId + (cbor ? "/cbor" : "");
+
+        brokerChannel.addInterceptor(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if (topic.equals(destination) && message.getPayload() instanceof byte[] payload) {
+                    Integer elapsed = stampsOf(payload).elapsed();
+                    if (elapsed != null) {
+                        publishedAt.putIfAbsent(elapsed, System.nanoTime());
+                    }
+                }
+                return message;
+            }
+        });
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        // Frames crudos (application/json) como byte[]: el cliente no paga deserialización
+        ByteArrayMessageConverter rawConverter = new ByteArrayMessageConverter();
+        rawConverter.setContentTypeResolver(null);
+        stompClient.setMessageConverter(rawConverter);
+
+        LatencyStats latency = new LatencyStats();
+        LatencyStats schedulerLag = new LatencyStats();
+        LatencyStats brokerLag = new LatencyStats();
+        LatencyStats deliveryLag = new LatencyStats();
+        List<ClientTrack> tracks = new ArrayList<>(clients);
+        List<StompSession> sessions = new ArrayList<>(clients);
+        ResourceSampler sampler = new ResourceSampler();
+        ServerAllocationSampler allocation = new ServerAllocationSampler();
+        LongAdder payloadBytes = new LongAdder();
+        LongAdder payloadFrames = new LongAdder();
+
+        try {
+            long connectStart = System.nanoTime();
+            List<CompletableFuture<StompSession>> connecting = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                connecting.add(stompClient.connectAsync("ws://localhost:" + port + "/ws/websocket",
+                                                         new StompSessionHandlerAdapter() { }));
+            }
+            for (CompletableFuture<StompSession> future : connecting) {
+                StompSession session = future.get(30, TimeUnit.SECONDS);
+                ClientTrack track = new ClientTrack();
+                session.subscribe(topic, new StompFrameHandler() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return byte[].class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        long receivedAt = System.nanoTime();
+                        long receivedAtMillis = System.currentTimeMillis();
+                        payloadBytes.add(((byte[]) payload).length);
+                        payloadFrames.increment();
+                        Stamps stamps = stampsOf((byte[]) payload);
+                        Long scheduledAt = stamps.scheduledAt();
+                        Long producedAt = stamps.producedAt();
+                        String sentAt = headers.getFirst("x-sent-at");
+                        if (scheduledAt != null && producedAt != null) {
+                            schedulerLag.record((producedAt - scheduledAt) * 1_000_000);
+                        }
+                        if (producedAt != null && sentAt != null) {
+                            brokerLag.record((Long.parseLong(sentAt) - producedAt) * 1_000_000);
+                        }
+                        if (sentAt != null) {
+                            deliveryLag.record((receivedAtMillis - Long.parseLong(sentAt)) * 1_000_000);
+                        }
+                        Integer elapsed = stamps.elapsed();
+                        if (elapsed == null) {
+                            return;
+                        }
+                        Long published = publishedAt.get(elapsed);
+                        if (published != null) {
+                            latency.record(receivedAt - published);
+                        }
+                        track.received(elapsed);
+                    }
+                });
+                sessions.add(session);
+                tracks.add(track);
+            }
+            double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+
+            long receivedBefore = tracks.stream().mapToLong(ClientTrack::count).sum();
+            sampler.start();
+            allocation.start();
+            Thread.sleep(seconds * 1000L);
+            allocation.stop();
+            sampler.stop();
+
+            long missed = tracks.stream().mapToLong(ClientTrack::missed).sum();
+            long received = tracks.stream().mapToLong(ClientTrack::count).sum();
+            long silent = tracks.stream().filter(t -> t.count() == 0).count();
+
+            String report = String.join(System.lineSeparator(),
+                "STOMP load test: " + clients + " clients, " + seconds + " s, " + (cbor ? "cbor" : "json") + " frames",
+                String.format("connect+subscribe: %.2f s", connectSeconds),
+                "frames received: " + received + ", missed ticks: " + missed + ", silent clients: " + silent,
+                String.format("payload: %.1f bytes/frame", payloadBytes.sum() / (double) Math.max(payloadFrames.sum(), 1)),
+                "tick-to-client latency: " + latency.summary(),
+                "  scheduler lag (scheduledAt -> producedAt): " + schedulerLag.summary(),
+                "  broker lag (producedAt -> x-sent-at): " + brokerLag.summary(),
+                "  delivery lag (x-sent-at -> received): " + deliveryLag.summary(),
+                sampler.summary(),
+                allocation.summary(received - receivedBefore));
+            System.out.println(report);
+            Path out = Path.of("target", "loadtest",
+                "stomp-" + clients + "c-" + seconds + "s" + (cbor ? "-cbor" : "") + ".txt");
+            Files.createDirectories(out.getParent());
+            Files.writeString(out, report + System.lineSeparator());
+
+            assertEquals(0, silent, "every client should receive timer frames");
+        } finally {
+            sessions.forEach(StompSession::disconnect);
+            stompClient.stop();
+            delete("/api/timer/" + sessionId);
+        }
+    }
+
+    private Stamps stampsOf(byte[] payload) {
+        if (cbor) {
+            TimerStatusDTO status = cborConverter.decode(payload);
+            return new Stamps(status.getTotalElapsedSeconds(), status.getScheduledAt(), status.getProducedAt());
+        }
+        String json = new String(payload, StandardCharsets.UTF_8);
+        Long elapsed = longOf(ELAPSED, json);
+        return new Stamps(elapsed != null ? elapsed.intValue() : null, longOf(SCHEDULED_AT, json), longOf(PRODUCED_AT, json));
+    }
+
+    private static Long longOf(Pattern pattern, String json) {
+        Matcher matcher = pattern.matcher(json);
+        return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private record Stamps(Integer elapsed, Long scheduledAt, Long producedAt) {
+    }
+
+    private static long idOf(String json) {
+        Matcher matcher = ID.matcher(json);
+        assertTrue(matcher.find(), "no id in " + json);
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private void cancelActiveSession() throws IOException, InterruptedException {
+        HttpResponse<String> active = http.send(
+            HttpRequest.newBuilder(uri("/api/timer/active")).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (active.statusCode() == 200) {
+            delete("/api/timer/" + idOf(active.body()));
+        }
+    }
+
+    private String post(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(
+            HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() < 300, path + " -> " + response.statusCode() + " " + response.body());
+        return response.body();
+    }
+
+    private void delete(String path) throws IOException, InterruptedException {
+        http.send(HttpRequest.newBuilder(uri(path)).DELETE().build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * Ticks recibidos por un cliente; los huecos en totalElapsedSeconds son ticks perdidos
+     */
+    private static final class ClientTrack {
+        private int first = -1;
+        private int last = -1;
+        private int count;
+
+        synchronized void received(int elapsed) {
+            if (first < 0) {
+                first = elapsed;
+            }
+            if (elapsed > last) {
+                last = elapsed;
+                count++;
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized long missed() {
+            return count == 0 ? 0 : (last - first + 1) - count;
+        }
+    }
+
+    /**
+     * Muestra CPU y heap del proceso una vez por segundo
+     */
+    private static final class ResourceSampler {
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        private long cpuStart;
+        private long wallStart;
+        private long cpuEnd;
+        private long wallEnd;
+        private long maxHeap;
+        private long heapSum;
+        private int heapSamples;
+
+        void start() {
+            cpuStart = os.getProcessCpuTime();
+            wallStart = System.nanoTime();
+            executor.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+        }
+
+        void stop() throws InterruptedException {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+            cpuEnd = os.getProcessCpuTime();
+            wallEnd = System.nanoTime();
+        }
+
+        private synchronized void sample() {
+            long used = memory.getHeapMemoryUsage().getUsed();
+            maxHeap = Math.max(maxHeap, used);
+            heapSum += used;
+            heapSamples++;
+        }
+
+        synchronized String summary() {
+            double cores = (double) (cpuEnd - cpuStart) / (wallEnd - wallStart);
+            return String.format("process CPU: %.2f cores avg (%d available), heap used: avg %.1f MB, max %.1f MB",
+                cores, os.getAvailableProcessors(),
+                heapSamples == 0 ? 0 : heapSum / (double) heapSamples / (1024 * 1024),
+                maxHeap / (1024.0 * 1024));
+        }
+    }
+
+    /**
+     * Bytes asignados por los hilos del servidor que intervienen en el envío: el tick, el
+     * broker, el canal de salida y el pool de envío. Excluye los hilos de los clientes de prueba.
+     */
+    private static final class ServerAllocationSampler {
+        private static final List<String> SERVER_THREADS =
+            List.of("timer-tick-", "brokerChannel-", "clientOutboundChannel-", "MessageBroker-", "ws-send-");
+
+        private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final Map<Long, Long> startBytes = new HashMap<>();
+        private long allocated;
+
+        void start() {
+            for (Thread thread : serverThreads()) {
+                startBytes.put(thread.threadId(), threads.getThreadAllocatedBytes(thread.threadId()));
+            }
+        }
+
+        void stop() {
+            for (Thread thread : serverThreads()) {
+                long bytes = threads.getThreadAllocatedBytes(thread.threadId());
+                if (bytes > 0) {
+                    allocated += bytes - startBytes.getOrDefault(thread.threadId(), 0L);
+                }
+            }
+        }
+
+        String summary(long frames) {
+            return String.format("server allocation: %.1f MB total, %d B per frame (tick x subscriber, %d frames)",
+                allocated / (1024.0 * 1024), frames == 0 ? 0 : allocated / frames, frames);
+        }
+
+        private static List<Thread> serverThreads() {
+            return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> SERVER_THREADS.stream().anyMatch(t.getName()::startsWith))
+                .toList();
+        }
+    }
+}
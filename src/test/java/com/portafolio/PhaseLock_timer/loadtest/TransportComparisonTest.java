@@ -0,0 +1,293 @@
+package com.portafolio.PhaseLock_timer.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.RestTemplateXhrTransport;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara los transportes STOMP disponibles: SockJS (WebSocket y XHR streaming) y el
+ * endpoint nativo /ws-native con y sin permessage-deflate. Para cada uno mide el tiempo
+ * hasta CONNECTED y los bytes en el cable (ambos sentidos, vía un proxy TCP que cuenta)
+ * de un cliente suscrito a un timer en marcha, extrapolados a una hora.
+ *
+ * Ejecutar con: ./mvnw -Pload-test test -Dtest=TransportComparisonTest -Dtransport.seconds=60
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TransportComparisonTest {
+
+    private static final Pattern ID = Pattern.compile("\"(?:id|sessionId)\":(\\d+)");
+
+    private final int seconds = Integer.getInteger("transport.seconds", 20);
+    private final int connects = Integer.getInteger("transport.connects", 20);
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void compareConnectionSetupAndBytesPerHour() throws Exception {
+        cancelActiveSession();
+        long blockId = idOf(post("/api/blocks/default"));
+        long sessionId = idOf(post("/api/timer/start/" + blockId));
+
+        List<String> lines = new ArrayList<>();
+        lines.add("Transport comparison: " + connects + " connects, " + seconds + " s subscribed per transport");
+        try (ByteCountingProxy proxy = new ByteCountingProxy(port)) {
+            String http = "http://localhost:" + proxy.port();
+            String ws = "ws://localhost:" + proxy.port();
+            List<Transport> transports = List.of(
+                new Transport("sockjs/websocket", () -> sockJs(new WebSocketTransport(new StandardWebSocketClient())),
+                              http + "/ws", false, "/topic/timer/" + sessionId),
+                new Transport("sockjs/xhr-streaming", () -> sockJs(new RestTemplateXhrTransport()),
+                              http + "/ws", false, "/topic/timer/" + sessionId),
+                new Transport("native", StandardWebSocketClient::new,
+                              ws + "/ws-native", false, "/topic/timer/" + sessionId),
+                new Transport("native+deflate", StandardWebSocketClient::new,
+                              ws + "/ws-native", true, "/topic/timer/" + sessionId),
+                new Transport("native+deflate cbor", StandardWebSocketClient::new,
+                              ws + "/ws-native", true, "/topic/timer/" + sessionId + "/cbor"));
+
+            for (Transport transport : transports) {
+                lines.add(measure(transport, proxy));
+            }
+        } finally {
+            delete("/api/timer/" + sessionId);
+        }
+
+        String report = String.join(System.lineSeparator(), lines);
+        System.out.println(report);
+        Path out = Path.of("target", "loadtest", "transports-" + seconds + "s.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report + System.lineSeparator());
+    }
+
+    private String measure(Transport transport, ByteCountingProxy proxy) throws Exception {
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        if (transport.deflate()) {
+            handshakeHeaders.setSecWebSocketExtensions(List.of(new WebSocketExtension("permessage-deflate")));
+        }
+
+        // Tiempo hasta CONNECTED con un cliente nuevo cada vez, como un navegador que abre
+        // la página (SockJsClient cachea /info por cliente). El primero calienta y no cuenta.
+        long[] setupNanos = new long[connects];
+        long setupBytes = 0;
+        for (int i = -1; i < connects; i++) {
+            WebSocketStompClient stompClient = stompClient(transport);
+            try {
+                proxy.reset();
+                long start = System.nanoTime();
+                StompSession session = stompClient.connectAsync(transport.url(), handshakeHeaders,
+                                                                new StompSessionHandlerAdapter() { })
+                    .get(30, TimeUnit.SECONDS);
+                long elapsed = System.nanoTime() - start;
+                long bytes = proxy.total();
+                session.disconnect();
+                if (i >= 0) {
+                    setupNanos[i] = elapsed;
+                    setupBytes += bytes;
+                }
+            } finally {
+                stompClient.stop();
+            }
+        }
+        Arrays.sort(setupNanos);
+
+        WebSocketStompClient stompClient = stompClient(transport);
+        try {
+
+            // Bytes en el cable con un cliente suscrito durante la ventana
+            AtomicInteger frames = new AtomicInteger();
+            StompSession session = stompClient.connectAsync(transport.url(), handshakeHeaders,
+                                                            new StompSessionHandlerAdapter() { })
+                .get(30, TimeUnit.SECONDS);
+            session.subscribe(transport.destination(), new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    frames.incrementAndGet();
+                }
+            });
+            Thread.sleep(1500); // Primer tick tras la suscripción
+            proxy.reset();
+            int framesBefore = frames.get();
+            Thread.sleep(seconds * 1000L);
+            long bytes = proxy.total();
+            int received = frames.get() - framesBefore;
+            session.disconnect();
+
+            assertTrue(received > 0, transport.name() + " received no frames");
+            return String.format("%-22s setup p50=%.1fms p90=%.1fms (%d B), %d frames, %.0f B/frame, %.2f MB/hour",
+                transport.name(),
+                setupNanos[connects / 2] / 1e6, setupNanos[(int) (connects * 0.9)] / 1e6, setupBytes / connects,
+                received, bytes / (double) received, bytes * 3600.0 / seconds / (1024 * 1024));
+        } finally {
+            stompClient.stop();
+        }
+    }
+
+    private static WebSocketStompClient stompClient(Transport transport) {
+        WebSocketStompClient stompClient = new WebSocketStompClient(transport.client().get());
+        ByteArrayMessageConverter rawConverter = new ByteArrayMessageConverter();
+        rawConverter.setContentTypeResolver(null);
+        stompClient.setMessageConverter(rawConverter);
+        return stompClient;
+    }
+
+    private static SockJsClient sockJs(org.springframework.web.socket.sockjs.client.Transport transport) {
+        return new SockJsClient(List.of(transport));
+    }
+
+    private static long idOf(String json) {
+        Matcher matcher = ID.matcher(json);
+        assertTrue(matcher.find(), "no id in " + json);
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private void cancelActiveSession() throws IOException, InterruptedException {
+        HttpResponse<String> active = http.send(
+            HttpRequest.newBuilder(uri("/api/timer/active")).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (active.statusCode() == 200) {
+            delete("/api/timer/" + idOf(active.body()));
+        }
+    }
+
+    private String post(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(
+            HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() < 300, path + " -> " + response.statusCode() + " " + response.body());
+        return response.body();
+    }
+
+    private void delete(String path) throws IOException, InterruptedException {
+        http.send(HttpRequest.newBuilder(uri(path)).DELETE().build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Transport(String name, Supplier<WebSocketClient> client, String url, boolean deflate,
+                             String destination) {
+    }
+
+    /**
+     * Proxy TCP local que cuenta los bytes en ambos sentidos
+     */
+    private static final class ByteCountingProxy implements AutoCloseable {
+        private final ServerSocket server;
+        private final int targetPort;
+        private final AtomicLong bytes = new AtomicLong();
+        private final List<Socket> sockets = new java.util.concurrent.CopyOnWriteArrayList<>();
+
+        ByteCountingProxy(int targetPort) throws IOException {
+            this.targetPort = targetPort;
+            this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread.ofVirtual().start(this::accept);
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        void reset() {
+            bytes.set(0);
+        }
+
+        long total() {
+            return bytes.get();
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try {
+                    Socket client = server.accept();
+                    Socket upstream = new Socket(InetAddress.getLoopbackAddress(), targetPort);
+                    sockets.add(client);
+                    sockets.add(upstream);
+                    Thread.ofVirtual().start(() -> pump(client, upstream));
+                    Thread.ofVirtual().start(() -> pump(upstream, client));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void pump(Socket from, Socket to) {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    bytes.addAndGet(read);
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // Conexión cerrada
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        }
+
+        private static void closeQuietly(Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ignorar
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+            sockets.forEach(ByteCountingProxy::closeQuietly);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.portafolio.PhaseLock_timer.repository;
+
+import com.portafolio.PhaseLock_timer.model.TimeBlock;
+import com.portafolio.PhaseLock_timer.model.TimerSession;
+import com.portafolio.PhaseLock_timer.service.BlockScheduleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The status path must rebuild the phase plan from the session row alone; the fetch-join
+ * lookup must bring the block in the same statement.
+ */
+@SpringBootTest
+class TimerSessionRepositoryTest {
+
+    @Autowired
+    private TimeBlockRepository timeBlockRepository;
+
+    @Autowired
+    private TimerSessionRepository timerSessionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BlockScheduleService blockScheduleService;
+
+    private Statistics statistics;
+    private Long blockId;
+    private Long sessionId;
+
+    @BeforeEach
+    void saveSession() {
+        // Las estadísticas son globales: sin el bucle de disparo no hay consultas de fondo
+        blockScheduleService.stop();
+
+        TimeBlock block = new TimeBlock(120, 25, 5, 30);
+        block.setNumberOfPomodoros(4);
+        block = timeBlockRepository.save(block);
+        TimerSession session = new TimerSession(block);
+        session.setRemainingSeconds(25 * 60);
+        blockId = block.getId();
+        sessionId = timerSessionRepository.save(session).getId();
+
+        // Sin la caché de segundo nivel cualquier acceso al bloque sería una consulta visible
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void restartTriggerLoop() {
+        blockScheduleService.start();
+    }
+
+    @Test
+    void sessionRowCarriesBlockPlanWithoutLoadingBlock() {
+        transactionTemplate.executeWithoutResult(status -> {
+            TimerSession session = timerSessionRepository.findById(sessionId).orElseThrow();
+
+            assertEquals(blockId, session.getTimeBlockId());
+            assertEquals(120, session.getBlockPlan().getTotalDurationMinutes());
+            assertEquals(25, session.getBlockPlan().getPomodoroDurationMinutes());
+            assertEquals(5, session.getBlockPlan().getShortBreakDurationMinutes());
+            assertEquals(30, session.getBlockPlan().getLongBreakDurationMinutes());
+            assertFalse(Hibernate.isInitialized(session.getTimeBlock()));
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void fetchJoinLoadsBlockInSameStatement() {
+        transactionTemplate.executeWithoutResult(status -> {
+            TimerSession session = timerSessionRepository.findWithTimeBlockById(sessionId).orElseThrow();
+
+            assertTrue(Hibernate.isInitialized(session.getTimeBlock()));
+            assertEquals(25, session.getTimeBlock().getPomodoroDurationMinutes());
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,214 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.ScheduledBlockDTO;
+import com.portafolio.PhaseLock_timer.model.ScheduleStatus;
+import com.portafolio.PhaseLock_timer.model.ScheduledBlock;
+import com.portafolio.PhaseLock_timer.repository.ScheduledBlockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bucle de disparo de bloques programados: inicio a su hora, cancelación, disparo como
+ * mucho una vez, lectura por keyset y, con el
+ * perfil de carga, precisión con 1M entradas en la agenda y recuperación tras un reinicio.
+ *
+ * Carga: ./mvnw -Pload-test test -Dtest=BlockScheduleServiceTest -Dschedule.entries=1000000
+ */
+@SpringBootTest(properties = "phaselock.schedule.lookahead-ms=10000")
+class BlockScheduleServiceTest {
+
+    @Autowired
+    private BlockScheduleService blockScheduleService;
+
+    @Autowired
+    private BlockService blockService;
+
+    @Autowired
+    private TimerService timerService;
+
+    @Autowired
+    private ScheduledBlockRepository scheduledBlockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long blockId;
+    private final List<Long> startedSessions = new ArrayList<>();
+
+    @BeforeEach
+    void createBlock() {
+        blockId = blockService.createBlockWithDefaults().getId();
+    }
+
+    @AfterEach
+    void cancelStartedSessions() {
+        startedSessions.forEach(timerService::cancelBlock);
+    }
+
+    @Test
+    void startsBlockAtScheduledTimeAndSkipsCancelled() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        ScheduledBlockDTO cancelled = blockScheduleService.schedule(blockId, now.plusNanos(500_000_000));
+        ScheduledBlockDTO due = blockScheduleService.schedule(blockId, now.plusSeconds(1));
+        blockScheduleService.cancel(cancelled.getId());
+
+        ScheduledBlockDTO fired = awaitFired(due.getId(), Duration.ofSeconds(5));
+
+        assertEquals(ScheduleStatus.STARTED, fired.getStatus());
+        assertNotNull(fired.getSessionId());
+        startedSessions.add(fired.getSessionId());
+        assertFalse(fired.getFiredAt().isBefore(due.getStartAt()));
+        assertTrue(Duration.between(due.getStartAt(), fired.getFiredAt()).toMillis() < 500);
+        assertEquals(ScheduleStatus.CANCELLED, blockScheduleService.get(cancelled.getId()).getStatus());
+        assertThrows(IllegalStateException.class, () -> blockScheduleService.cancel(cancelled.getId()));
+    }
+
+    @Test
+    void claimedEntryCannotBeCancelledAndIsNotRefiredAfterRestart() {
+        blockScheduleService.stop();
+        ScheduledBlockDTO entry;
+        try {
+            entry = blockScheduleService.schedule(blockId, LocalDateTime.now().plusSeconds(1));
+            // Como si el hilo de disparo la hubiera reclamado y el servidor se cayera antes de guardar
+            jdbcTemplate.update("UPDATE scheduled_blocks SET status = 'FIRING' WHERE id = ?", entry.getId());
+
+            assertThrows(IllegalStateException.class, () -> blockScheduleService.cancel(entry.getId()));
+            assertEquals(ScheduleStatus.FIRING, blockScheduleService.get(entry.getId()).getStatus());
+        } finally {
+            blockScheduleService.start();
+        }
+
+        ScheduledBlockDTO recovered = blockScheduleService.get(entry.getId());
+        assertEquals(ScheduleStatus.MISSED, recovered.getStatus());
+        assertNull(recovered.getSessionId());
+    }
+
+    @Test
+    void refillPagesThroughEntriesThatShareATriggerTime() {
+        LocalDateTime at = LocalDateTime.now().plusDays(1).withNano(0);
+        for (long id = 2_000_000_000L; id < 2_000_000_003L; id++) {
+            jdbcTemplate.update("INSERT INTO scheduled_blocks (id, time_block_id, trigger_at, status) VALUES (?, ?, ?, ?)",
+                                id, blockId, Timestamp.valueOf(at), "PENDING");
+        }
+
+        List<ScheduledBlock> first = scheduledBlockRepository.findDueAfter(
+            ScheduleStatus.PENDING, at.minusSeconds(1), Long.MAX_VALUE, at, PageRequest.of(0, 2));
+        ScheduledBlock last = first.get(first.size() - 1);
+        List<ScheduledBlock> second = scheduledBlockRepository.findDueAfter(
+            ScheduleStatus.PENDING, last.getTriggerAt(), last.getId(), at, PageRequest.of(0, 2));
+
+        jdbcTemplate.update("DELETE FROM scheduled_blocks WHERE id >= 2000000000");
+        assertEquals(List.of(2_000_000_000L, 2_000_000_001L), first.stream().map(ScheduledBlock::getId).toList());
+        assertEquals(List.of(2_000_000_002L), second.stream().map(ScheduledBlock::getId).toList());
+    }
+
+    @Test
+    @Tag("load")
+    void firesOnTimeWithLargeAgendaAndAfterRestart() throws Exception {
+        int entries = Integer.getInteger("schedule.entries", 1_000_000);
+        blockScheduleService.stop();
+
+        // Agenda lejana: desde mañana, repartida en un año
+        long insertStart = System.nanoTime();
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        long spreadSeconds = Duration.ofDays(365).toSeconds();
+        int chunk = 10_000;
+        for (int offset = 0; offset < entries; offset += chunk) {
+            List<Object[]> rows = new ArrayList<>(chunk);
+            for (int i = offset; i < Math.min(offset + chunk, entries); i++) {
+                rows.add(new Object[] {1_000_000_000L + i, blockId,
+                    Timestamp.valueOf(tomorrow.plusSeconds(i * spreadSeconds / entries)), "PENDING"});
+            }
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO scheduled_blocks (id, time_block_id, trigger_at, status) VALUES (?, ?, ?, ?)", rows);
+        }
+        long insertMs = (System.nanoTime() - insertStart) / 1_000_000;
+
+        // Vencido mientras el servidor estaba parado: debe dispararse al arrancar
+        LocalDateTime now = LocalDateTime.now();
+        ScheduledBlockDTO overdue = blockScheduleService.schedule(blockId, now.minusSeconds(2));
+
+        long heapBefore = usedHeapAfterGc();
+        long restartAt = System.nanoTime();
+        blockScheduleService.start();
+
+        ScheduledBlockDTO recovered = awaitFired(overdue.getId(), Duration.ofSeconds(5));
+        long recoveryMs = (System.nanoTime() - restartAt) / 1_000_000;
+        if (recovered.getSessionId() != null) {
+            startedSessions.add(recovered.getSessionId());
+        }
+
+        // Con el bucle en marcha, programar inicios próximos (entran directamente en la cola)
+        List<ScheduledBlockDTO> upcoming = new ArrayList<>();
+        now = LocalDateTime.now();
+        for (int i = 1; i <= 5; i++) {
+            upcoming.add(blockScheduleService.schedule(blockId, now.plusSeconds(i)));
+        }
+
+        long maxLateMs = 0;
+        long sumLateMs = 0;
+        for (ScheduledBlockDTO entry : upcoming) {
+            ScheduledBlockDTO fired = awaitFired(entry.getId(), Duration.ofSeconds(15));
+            long lateMs = Duration.between(entry.getStartAt(), fired.getFiredAt()).toMillis();
+            maxLateMs = Math.max(maxLateMs, lateMs);
+            sumLateMs += lateMs;
+            if (fired.getSessionId() != null) {
+                startedSessions.add(fired.getSessionId());
+            }
+        }
+        int queued = blockScheduleService.queuedCount();
+        long heapDelta = usedHeapAfterGc() - heapBefore;
+
+        String report = String.join(System.lineSeparator(),
+            "Scheduled blocks: " + entries + " future entries (inserted in " + insertMs + " ms)",
+            String.format("restart: overdue entry fired %d ms after start (%s)", recoveryMs, recovered.getStatus()),
+            String.format("on-time entries: %d, lateness avg %.1f ms, max %d ms",
+                upcoming.size(), sumLateMs / (double) upcoming.size(), maxLateMs),
+            String.format("trigger queue: %d entries, heap delta after start %.1f MB, threads: 1 trigger loop",
+                queued, heapDelta / (1024.0 * 1024.0)));
+        System.out.println(report);
+        Path out = Path.of("target", "loadtest", "block-schedule.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report + System.lineSeparator());
+
+        jdbcTemplate.update("DELETE FROM scheduled_blocks WHERE id >= 1000000000");
+        assertTrue(maxLateMs < 100, "scheduled blocks should fire within 100 ms");
+        assertTrue(queued < 1000, "trigger queue should only hold the lookahead window");
+    }
+
+    private ScheduledBlockDTO awaitFired(Long id, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            ScheduledBlockDTO entry = blockScheduleService.get(id);
+            if (entry.getStatus() != ScheduleStatus.PENDING && entry.getStatus() != ScheduleStatus.FIRING) {
+                return entry;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Scheduled block " + id + " did not fire within " + timeout);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
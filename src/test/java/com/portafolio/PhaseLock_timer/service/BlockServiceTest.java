@@ -0,0 +1,105 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.config.BlockConfiguration;
+import com.portafolio.PhaseLock_timer.dto.BatchPreviewRequestDTO;
+import com.portafolio.PhaseLock_timer.dto.BlockConfigurationDTO;
+import com.portafolio.PhaseLock_timer.dto.IntRangeDTO;
+import com.portafolio.PhaseLock_timer.dto.SequencePreviewCellDTO;
+import com.portafolio.PhaseLock_timer.exception.BadRequestException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Preview por lotes: la rejilla es el producto de los cuatro rangos, el límite se
+ * comprueba antes de reservar nada y los rangos mal formados o desmesurados se rechazan.
+ */
+class BlockServiceTest {
+
+    private final BlockService blockService = new BlockService(null, new BlockConfiguration());
+
+    @Test
+    void gridIsTheProductOfTheFourRanges() {
+        List<SequencePreviewCellDTO> cells = blockService.previewBatch(request(
+            new IntRangeDTO(60, 120, 30), new IntRangeDTO(25, 25, 1),
+            new IntRangeDTO(0, 10, 5), new IntRangeDTO(0, 30, 15)));
+
+        assertEquals(3 * 1 * 3 * 3, cells.size());
+        Set<String> distinct = cells.stream()
+            .map(SequencePreviewCellDTO::getConfiguration)
+            .map(c -> c.getTotalDurationMinutes() + "/" + c.getPomodoroDurationMinutes() + "/"
+                      + c.getShortBreakDurationMinutes() + "/" + c.getLongBreakDurationMinutes())
+            .collect(Collectors.toSet());
+        assertEquals(cells.size(), distinct.size());
+        BlockConfigurationDTO last = cells.get(cells.size() - 1).getConfiguration();
+        assertEquals(120, last.getTotalDurationMinutes());
+        assertEquals(10, last.getShortBreakDurationMinutes());
+        assertEquals(30, last.getLongBreakDurationMinutes());
+    }
+
+    @Test
+    void gridOverTheLimitIsRejectedBeforeExpanding() {
+        // 101 * 100 = 10100 > 10000
+        assertThrows(BadRequestException.class, () -> blockService.previewBatch(request(
+            new IntRangeDTO(1, 101, 1), new IntRangeDTO(1, 100, 1),
+            new IntRangeDTO(0, 0, 1), new IntRangeDTO(0, 0, 1))));
+
+        // Rangos completos de int: fuera de límites, rechazados sin reservar memoria
+        IntRangeDTO huge = new IntRangeDTO(1, Integer.MAX_VALUE, 1);
+        assertThrows(BadRequestException.class, () -> blockService.previewBatch(request(huge, huge, huge, huge)));
+    }
+
+    @Test
+    void malformedRangesAreRejected() {
+        IntRangeDTO one = new IntRangeDTO(25, 25, 1);
+        IntRangeDTO zero = new IntRangeDTO(0, 0, 1);
+        assertThrows(BadRequestException.class,
+                     () -> blockService.previewBatch(request(new IntRangeDTO(60, 120, 0), one, zero, zero)));
+        assertThrows(BadRequestException.class,
+                     () -> blockService.previewBatch(request(new IntRangeDTO(60, 120, -5), one, zero, zero)));
+        assertThrows(BadRequestException.class,
+                     () -> blockService.previewBatch(request(new IntRangeDTO(120, 60, 1), one, zero, zero)));
+        assertThrows(BadRequestException.class,
+                     () -> blockService.previewBatch(request(new IntRangeDTO(0, 60, 1), one, zero, zero)));
+        assertThrows(BadRequestException.class,
+                     () -> blockService.previewBatch(request(null, one, zero, zero)));
+    }
+
+    @Test
+    void configurationsAreBoundedBeforeCompiling() {
+        IntRangeDTO zero = new IntRangeDTO(0, 0, 1);
+        // Una sola celda: 1440 pomodoros de 1 minuto serían 2879 fases
+        assertThrows(BadRequestException.class, () -> blockService.previewBatch(request(
+            new IntRangeDTO(1440, 1440, 1), new IntRangeDTO(1, 1, 1), zero, zero)));
+        // Valores por encima de un día, rechazados antes de calcular nada
+        assertThrows(BadRequestException.class, () -> blockService.previewBatch(request(
+            new IntRangeDTO(Integer.MAX_VALUE, Integer.MAX_VALUE, 1), new IntRangeDTO(1, 1, 1), zero, zero)));
+        assertThrows(BadRequestException.class,
+                     () -> blockService.calculateSequence(Integer.MAX_VALUE, 1, 0, 0));
+
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+            assertFalse(validator.validate(new BlockConfigurationDTO(Integer.MAX_VALUE, 1, 0, 0)).isEmpty());
+            assertFalse(validator.validate(new IntRangeDTO(1, 1441, 1)).isEmpty());
+            assertTrue(validator.validate(new BlockConfigurationDTO(1440, 25, 5, 15)).isEmpty());
+        }
+    }
+
+    private static BatchPreviewRequestDTO request(IntRangeDTO total, IntRangeDTO pomodoro,
+                                                  IntRangeDTO shortBreak, IntRangeDTO longBreak) {
+        BatchPreviewRequestDTO request = new BatchPreviewRequestDTO();
+        request.setTotalDurationMinutes(total);
+        request.setPomodoroDurationMinutes(pomodoro);
+        request.setShortBreakDurationMinutes(shortBreak);
+        request.setLongBreakDurationMinutes(longBreak);
+        request.setIncludeSequence(false);
+        return request;
+    }
+}
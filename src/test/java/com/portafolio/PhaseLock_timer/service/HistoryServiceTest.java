@@ -0,0 +1,116 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.controller.HistoryController;
+import com.portafolio.PhaseLock_timer.dto.DailyStatsDTO;
+import com.portafolio.PhaseLock_timer.model.DailyFocusRollup;
+import com.portafolio.PhaseLock_timer.model.Phase;
+import com.portafolio.PhaseLock_timer.repository.DailyFocusRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Acumulados diarios: qué suma cada tipo de fase y que los registros concurrentes del
+ * mismo bloque y día no chocan con la clave única ni pierden sumas.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:historytest") // Base propia: cuenta filas
+class HistoryServiceTest {
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private DailyFocusRollupRepository rollupRepository;
+
+    @Autowired
+    private TimerClock clock;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void cleanRollups() {
+        rollupRepository.deleteAllInBatch();
+        today = clock.now().toLocalDate();
+    }
+
+    @Test
+    void phasesAndBlocksAddToTheDailyRollup() {
+        historyService.recordPhase(1L, Phase.POMODORO, 1500, false);
+        historyService.recordPhase(1L, Phase.SHORT_BREAK, 300, false);
+        historyService.recordPhase(1L, Phase.POMODORO, 600, true);   // Saltado: cuenta tiempo, no pomodoro
+        historyService.recordPhase(1L, Phase.LONG_BREAK, 120, true);
+        historyService.recordBlockCompleted(1L);
+        historyService.recordPhase(2L, Phase.POMODORO, 1500, false);
+
+        DailyFocusRollup rollup = rollupRepository.findByRollupDateAndTimeBlockId(today, 1L).orElseThrow();
+        assertEquals(1, rollup.getCompletedPomodoros());
+        assertEquals(2100L, rollup.getFocusSeconds());
+        assertEquals(420L, rollup.getBreakSeconds());
+        assertEquals(2, rollup.getSkippedPhases());
+        assertEquals(1, rollup.getCompletedBlocks());
+
+        DailyStatsDTO summary = historyService.getSummary(today, today);
+        assertEquals(2L, summary.getCompletedPomodoros());
+        assertEquals(3600L, summary.getFocusSeconds());
+        assertEquals(420L, summary.getBreakSeconds());
+        assertEquals(2L, summary.getSkippedPhases());
+        assertEquals(1L, summary.getCompletedBlocks());
+        assertEquals(2, rollupRepository.count());
+    }
+
+    @Test
+    void defaultRangeEndsOnTheRollupDay() {
+        historyService.recordPhase(3L, Phase.POMODORO, 1500, false);
+
+        // Sin parámetros el controlador usa el "hoy" del reloj del timer, no el del sistema
+        assertEquals(today, historyService.today());
+        DailyStatsDTO summary = new HistoryController(historyService).getSummary(null, null).getBody();
+        assertNotNull(summary);
+        assertEquals(1L, summary.getCompletedPomodoros());
+    }
+
+    @Test
+    void concurrentRecordsForANewDayDoNotConflictOrLoseUpdates() throws Exception {
+        int threads = 8;
+        int perThread = 50;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                done.add(pool.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < perThread; i++) {
+                        historyService.recordPhase(7L, Phase.POMODORO, 10, false);
+                        historyService.recordBlockCompleted(7L);
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> f : done) {
+                f.get(30, TimeUnit.SECONDS); // Una violación de la clave única fallaría aquí
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        DailyFocusRollup rollup = rollupRepository.findByRollupDateAndTimeBlockId(today, 7L).orElseThrow();
+        assertEquals(threads * perThread, rollup.getCompletedPomodoros());
+        assertEquals(threads * perThread * 10L, rollup.getFocusSeconds());
+        assertEquals(threads * perThread, rollup.getCompletedBlocks());
+        assertEquals(1, rollupRepository.count());
+    }
+}
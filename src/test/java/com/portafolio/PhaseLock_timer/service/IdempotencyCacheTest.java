@@ -0,0 +1,98 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Un reintento con la misma Idempotency-Key no vuelve a ejecutar la operación,
+ * ni siquiera si llega mientras el original sigue en curso.
+ */
+class IdempotencyCacheTest {
+
+    private final IdempotencyCache cache = new IdempotencyCache(100, 60_000);
+    private final AtomicInteger skips = new AtomicInteger();
+
+    @Test
+    void retriedSkipIsServedFromTheCache() {
+        IdempotencyCache.Result first = cache.execute("skipToNextPhase", 1L, "k-1", this::skip);
+        IdempotencyCache.Result retry = cache.execute("skipToNextPhase", 1L, "k-1", this::skip);
+
+        assertEquals(1, skips.get(), "the retry must not advance another phase");
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertSame(first.status(), retry.status());
+
+        // La clave se limita a la operación y la sesión; sin clave siempre se ejecuta
+        cache.execute("skipToNextPhase", 2L, "k-1", this::skip);
+        cache.execute("pauseTimer", 1L, "k-1", this::skip);
+        cache.execute("skipToNextPhase", 1L, null, this::skip);
+        assertEquals(4, skips.get());
+        assertEquals(1, cache.getReplays());
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.execute("skipToNextPhase", 1L, "k-2", () -> {
+            throw new IllegalStateException("Cannot skip. Timer is not active.");
+        }));
+
+        IdempotencyCache.Result retry = cache.execute("skipToNextPhase", 1L, "k-2", this::skip);
+        assertFalse(retry.replayed());
+        assertEquals(1, skips.get());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheOriginal() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<IdempotencyCache.Result> original = pool.submit(() ->
+                cache.execute("skipToNextPhase", 1L, "k-3", () -> {
+                    inFlight.countDown();
+                    awaitQuietly(release);
+                    return skip();
+                }));
+            assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+            List<Future<IdempotencyCache.Result>> retries = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                retries.add(pool.submit(() -> cache.execute("skipToNextPhase", 1L, "k-3", this::skip)));
+            }
+            release.countDown();
+
+            TimerStatusDTO status = original.get(5, TimeUnit.SECONDS).status();
+            for (Future<IdempotencyCache.Result> retry : retries) {
+                assertSame(status, retry.get(5, TimeUnit.SECONDS).status());
+            }
+            assertEquals(1, skips.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private TimerStatusDTO skip() {
+        TimerStatusDTO status = new TimerStatusDTO();
+        status.setCurrentPhaseIndex(skips.incrementAndGet());
+        return status;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
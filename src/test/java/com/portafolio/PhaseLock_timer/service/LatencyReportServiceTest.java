@@ -0,0 +1,59 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.LatencyHistogramDTO;
+import com.portafolio.PhaseLock_timer.dto.LatencySampleDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tramos de latencia: los del servidor siempre; red y extremo a extremo solo con el
+ * desfase del reloj del cliente, y corregidos con él.
+ */
+class LatencyReportServiceTest {
+
+    private final VirtualTimerClock clock = new VirtualTimerClock(LocalDateTime.of(2026, 1, 1, 9, 0));
+    private final LatencyReportService service = new LatencyReportService(clock);
+
+    @Test
+    void samplesWithoutClockOffsetOnlyRecordServerSegments() {
+        // Reloj del cliente 10 s por detrás: sin desfase, red y extremo a extremo serían negativos
+        service.record(List.of(new LatencySampleDTO(1000L, 1003L, 1010L, -8950L)));
+
+        Map<String, LatencyHistogramDTO> histograms = histograms();
+        assertEquals(1L, histograms.get("scheduler").getCount());
+        assertEquals(1L, histograms.get("broker").getCount());
+        assertEquals(0L, histograms.get("network").getCount());
+        assertEquals(0L, histograms.get("network").getNegativeCount());
+        assertEquals(0L, histograms.get("endToEnd").getCount());
+    }
+
+    @Test
+    void clockOffsetMovesTheReceiveTimeToTheServerClock() {
+        // Recibido en 1050 según el servidor: red 40 ms, extremo a extremo 50 ms
+        service.record(List.of(new LatencySampleDTO(1000L, 1003L, 1010L, -8950L, 10_000L)));
+
+        Map<String, LatencyHistogramDTO> histograms = histograms();
+        assertEquals(1L, histograms.get("network").getCount());
+        assertEquals(50L, histograms.get("network").getP50Ms());
+        assertEquals(1L, histograms.get("endToEnd").getCount());
+        assertEquals(50L, histograms.get("endToEnd").getP50Ms());
+        assertEquals(0L, histograms.get("endToEnd").getNegativeCount());
+    }
+
+    @Test
+    void clockProbeReturnsServerTime() {
+        assertEquals(clock.epochMillis(), service.probeClock().getServerTime());
+    }
+
+    private Map<String, LatencyHistogramDTO> histograms() {
+        return service.getHistograms().stream()
+            .collect(Collectors.toMap(LatencyHistogramDTO::getName, Function.identity()));
+    }
+}
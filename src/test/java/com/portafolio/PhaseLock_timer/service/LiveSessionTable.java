@@ -0,0 +1,156 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.model.Phase;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Estado vivo de las sesiones en slots de ancho fijo fuera del heap.
+ *
+ * Cada sesión ocupa SLOT_BYTES en páginas de ByteBuffer directo; en el heap solo quedan
+ * el índice id -> slot (arrays primitivos) y la pila de slots libres, así que el trabajo
+ * del GC no crece con el número de sesiones. Los accesos están sincronizados.
+ *
+ * Prototipo de medición, no forma parte de la aplicación: el estado de las sesiones vive en
+ * TimerSession. LiveSessionTableTest mide su huella frente a las entidades.
+ */
+public class LiveSessionTable {
+
+    static final int SLOT_BYTES = 32;
+
+    // Layout del slot
+    private static final int SESSION_ID = 0;     // long
+    private static final int DEADLINE = 8;       // long, epoch ms del fin de fase (0 si no corre)
+    private static final int ELAPSED = 16;       // int, segundos totales transcurridos
+    private static final int REMAINING = 20;     // int, segundos restantes en la fase
+    private static final int PHASE_INDEX = 24;   // int
+    private static final int STATUS = 28;        // byte, ordinal de TimerStatus
+    private static final int PHASE = 29;         // byte, ordinal de Phase
+
+    private static final int PAGE_SHIFT = 16;
+    private static final int SLOTS_PER_PAGE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = SLOTS_PER_PAGE - 1;
+
+    private static final TimerStatus[] STATUSES = TimerStatus.values();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LongIntHashMap index;
+    private ByteBuffer[] pages = new ByteBuffer[0];
+    private int allocatedSlots;   // slots usados alguna vez (el siguiente nuevo)
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    public LiveSessionTable(int expectedSessions) {
+        this.index = new LongIntHashMap(expectedSessions);
+    }
+
+    /**
+     * Crear o sobrescribir el slot de la sesión
+     */
+    public synchronized void put(long sessionId, TimerStatus status, Phase phase, int phaseIndex,
+                                 long deadlineEpochMs, int remainingSeconds, int elapsedSeconds) {
+        int slot = index.get(sessionId);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = freeCount > 0 ? freeSlots[--freeCount] : newSlot();
+            index.put(sessionId, slot);
+        }
+        ByteBuffer page = pageOf(slot);
+        int base = base(slot);
+        page.putLong(base + SESSION_ID, sessionId);
+        page.putLong(base + DEADLINE, deadlineEpochMs);
+        page.putInt(base + ELAPSED, elapsedSeconds);
+        page.putInt(base + REMAINING, remainingSeconds);
+        page.putInt(base + PHASE_INDEX, phaseIndex);
+        page.put(base + STATUS, (byte) status.ordinal());
+        page.put(base + PHASE, (byte) phase.ordinal());
+    }
+
+    /**
+     * Liberar el slot de la sesión; devuelve false si no estaba
+     */
+    public synchronized boolean remove(long sessionId) {
+        int slot = index.remove(sessionId);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length << 1);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    public synchronized boolean contains(long sessionId) {
+        return index.get(sessionId) != LongIntHashMap.MISSING;
+    }
+
+    public synchronized TimerStatus getStatus(long sessionId) {
+        int slot = slotOf(sessionId);
+        return STATUSES[pageOf(slot).get(base(slot) + STATUS)];
+    }
+
+    public synchronized Phase getPhase(long sessionId) {
+        int slot = slotOf(sessionId);
+        return PHASES[pageOf(slot).get(base(slot) + PHASE)];
+    }
+
+    public synchronized int getPhaseIndex(long sessionId) {
+        int slot = slotOf(sessionId);
+        return pageOf(slot).getInt(base(slot) + PHASE_INDEX);
+    }
+
+    public synchronized long getDeadlineEpochMs(long sessionId) {
+        int slot = slotOf(sessionId);
+        return pageOf(slot).getLong(base(slot) + DEADLINE);
+    }
+
+    public synchronized int getRemainingSeconds(long sessionId) {
+        int slot = slotOf(sessionId);
+        return pageOf(slot).getInt(base(slot) + REMAINING);
+    }
+
+    public synchronized int getElapsedSeconds(long sessionId) {
+        int slot = slotOf(sessionId);
+        return pageOf(slot).getInt(base(slot) + ELAPSED);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Bytes reservados fuera del heap
+     */
+    public synchronized long offHeapBytes() {
+        return (long) pages.length * SLOTS_PER_PAGE * SLOT_BYTES;
+    }
+
+    private int newSlot() {
+        int slot = allocatedSlots++;
+        if ((slot >>> PAGE_SHIFT) == pages.length) {
+            pages = Arrays.copyOf(pages, pages.length + 1);
+            pages[pages.length - 1] = ByteBuffer.allocateDirect(SLOTS_PER_PAGE * SLOT_BYTES)
+                                                .order(ByteOrder.nativeOrder());
+        }
+        return slot;
+    }
+
+    private int slotOf(long sessionId) {
+        int slot = index.get(sessionId);
+        if (slot == LongIntHashMap.MISSING) {
+            throw new IllegalArgumentException("Session not in live table: " + sessionId);
+        }
+        return slot;
+    }
+
+    private ByteBuffer pageOf(int slot) {
+        return pages[slot >>> PAGE_SHIFT];
+    }
+
+    private static int base(int slot) {
+        return (slot & PAGE_MASK) * SLOT_BYTES;
+    }
+}
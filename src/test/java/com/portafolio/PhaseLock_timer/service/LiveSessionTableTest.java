@@ -0,0 +1,177 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.model.Phase;
+import com.portafolio.PhaseLock_timer.model.TimeBlock;
+import com.portafolio.PhaseLock_timer.model.TimerSession;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tabla de sesiones fuera del heap: semántica de slots e índice, y un test de huella
+ * con millones de sesiones vivas.
+ *
+ * Huella: ./mvnw -Pload-test test -Dtest=LiveSessionTableTest -Dlivetable.sessions=5000000
+ */
+class LiveSessionTableTest {
+
+    @Test
+    void slotKeepsFieldsAndIsReusedAfterRemove() {
+        LiveSessionTable table = new LiveSessionTable(4);
+        table.put(7, TimerStatus.RUNNING, Phase.SHORT_BREAK, 3, 1_700_000_000_123L, 299, 5_400);
+
+        assertEquals(TimerStatus.RUNNING, table.getStatus(7));
+        assertEquals(Phase.SHORT_BREAK, table.getPhase(7));
+        assertEquals(3, table.getPhaseIndex(7));
+        assertEquals(1_700_000_000_123L, table.getDeadlineEpochMs(7));
+        assertEquals(299, table.getRemainingSeconds(7));
+        assertEquals(5_400, table.getElapsedSeconds(7));
+
+        table.put(7, TimerStatus.PAUSED, Phase.SHORT_BREAK, 3, 0, 120, 5_580);
+        assertEquals(1, table.size());
+        assertEquals(TimerStatus.PAUSED, table.getStatus(7));
+
+        long bytes = table.offHeapBytes();
+        assertTrue(table.remove(7));
+        assertFalse(table.remove(7));
+        assertFalse(table.contains(7));
+        assertThrows(IllegalArgumentException.class, () -> table.getStatus(7));
+
+        table.put(8, TimerStatus.RUNNING, Phase.POMODORO, 0, 1, 1500, 0);
+        assertEquals(bytes, table.offHeapBytes());
+    }
+
+    @Test
+    void indexMatchesHashMapUnderRandomPutsAndRemoves() {
+        LongIntHashMap index = new LongIntHashMap(16);
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Rango pequeño de claves para forzar colisiones y borrados en medio de cadenas
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Integer expected = reference.remove(key);
+                assertEquals(expected == null ? LongIntHashMap.MISSING : expected, index.remove(key));
+            } else {
+                index.put(key, i);
+                reference.put(key, i);
+            }
+        }
+
+        assertEquals(reference.size(), index.size());
+        for (long key = 1; key <= 5_000; key++) {
+            Integer expected = reference.get(key);
+            assertEquals(expected == null ? LongIntHashMap.MISSING : expected, index.get(key));
+        }
+    }
+
+    @Test
+    @Tag("load")
+    void millionsOfLiveSessionsStayOffHeap() throws Exception {
+        int sessions = Integer.getInteger("livetable.sessions", 5_000_000);
+        int entitySample = Integer.getInteger("livetable.entity-sample", 500_000);
+
+        long heapBefore = usedHeapAfterGc();
+        long directBefore = directBytes();
+        LiveSessionTable table = new LiveSessionTable(sessions);
+        long now = System.currentTimeMillis();
+        for (int id = 1; id <= sessions; id++) {
+            table.put(id, TimerStatus.RUNNING, Phase.POMODORO, id & 7, now + 1_500_000, 1_500, id & 1023);
+        }
+        long tableHeap = usedHeapAfterGc() - heapBefore;
+        long tableDirect = directBytes() - directBefore;
+        long tableGcMs = fullGcMillis();
+
+        // Un tick sobre todas las sesiones no debe asignar en el heap
+        long collectionsBefore = gcCount();
+        for (int id = 1; id <= sessions; id++) {
+            table.put(id, TimerStatus.RUNNING, Phase.POMODORO, id & 7, now + 1_499_000,
+                      table.getRemainingSeconds(id) - 1, table.getElapsedSeconds(id) + 1);
+        }
+        long tickCollections = gcCount() - collectionsBefore;
+        assertEquals(sessions, table.size());
+        table = null;
+
+        // Referencia: las mismas sesiones como entidades en el heap (muestra, extrapolada)
+        long entityBefore = usedHeapAfterGc();
+        Map<Long, TimerSession> entities = new HashMap<>();
+        TimeBlock block = new TimeBlock(120, 25, 5, 30);
+        for (long id = 1; id <= entitySample; id++) {
+            TimerSession session = new TimerSession(block);
+            session.setId(id);
+            session.setStatus(TimerStatus.RUNNING);
+            session.setRemainingSeconds(1_500 + (int) (id & 1023));
+            session.setTotalElapsedSeconds(5_000 + (int) (id & 4095));
+            session.setStartedAt(LocalDateTime.now());
+            session.setPhaseStartedAt(LocalDateTime.now());
+            entities.put(id, session);
+        }
+        long entityHeap = usedHeapAfterGc() - entityBefore;
+        long entityGcMs = fullGcMillis();
+        assertEquals(entitySample, entities.size());
+
+        double tableHeapPerSession = tableHeap / (double) sessions;
+        double entityHeapPerSession = entityHeap / (double) entitySample;
+        String report = String.join(System.lineSeparator(),
+            "Live session table: " + sessions + " sessions",
+            String.format("table:    heap %.1f MB (%.1f B/session), off-heap %.1f MB, full GC %d ms, GCs during tick sweep %d",
+                mb(tableHeap), tableHeapPerSession, mb(tableDirect), tableGcMs, tickCollections),
+            String.format("entities: heap %.1f MB for %d (%.1f B/session, ~%.0f MB for %d), full GC %d ms",
+                mb(entityHeap), entitySample, entityHeapPerSession,
+                mb((long) (entityHeapPerSession * sessions)), sessions, entityGcMs));
+        System.out.println(report);
+        Path out = Path.of("target", "loadtest", "live-session-table.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report + System.lineSeparator());
+
+        assertTrue(tableHeap < 1024L * 1024 * 1024, "live table heap should stay under 1 GB");
+        assertEquals(0, tickCollections);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long fullGcMillis() {
+        long start = System.nanoTime();
+        System.gc();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += gc.getCollectionCount();
+        }
+        return count;
+    }
+
+    private static long directBytes() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,185 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.OutboxEventDTO;
+import com.portafolio.PhaseLock_timer.model.OutboxEventType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox contra un webhook local: orden, reintentos tras un 500 y endpoints de control
+ * que no esperan a la entrega aunque el receptor esté bloqueado.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outboxtest", // Base propia: sin sesiones activas de otros tests
+    "phaselock.outbox.memory.enabled=true",
+    "phaselock.outbox.poll-interval-ms=100",
+    "phaselock.outbox.retry-base-ms=200",
+    "phaselock.outbox.webhook.timeout-ms=5000"
+})
+class OutboxServiceTest {
+
+    private static final HttpServer STUB;
+    private static final List<byte[]> ACCEPTED = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger REQUESTS = new AtomicInteger();
+    private static final AtomicInteger FAIL_NEXT = new AtomicInteger();
+    private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    static {
+        try {
+            STUB = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        STUB.createContext("/events", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            REQUESTS.incrementAndGet();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean fail = FAIL_NEXT.getAndUpdate(n -> Math.max(n - 1, 0)) > 0;
+            if (!fail) {
+                ACCEPTED.add(body);
+            }
+            exchange.sendResponseHeaders(fail ? 500 : 204, -1);
+            exchange.close();
+        });
+        STUB.start();
+    }
+
+    @DynamicPropertySource
+    static void webhookUrl(DynamicPropertyRegistry registry) {
+        registry.add("phaselock.outbox.webhook.url",
+                     () -> "http://127.0.0.1:" + STUB.getAddress().getPort() + "/events");
+    }
+
+    @Autowired
+    private TimerService timerService;
+
+    @Autowired
+    private BlockService blockService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private InMemoryOutboxSink inMemoryOutboxSink;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @AfterEach
+    void releaseStubAndCancel() {
+        gate.countDown();
+        FAIL_NEXT.set(0);
+        timerService.getActiveSession().ifPresent(s -> timerService.cancelBlock(s.getSessionId()));
+    }
+
+    @Test
+    void deliversTransitionsInOrderAndRetriesFailedBatches() throws Exception {
+        FAIL_NEXT.set(1);
+        long failedBefore = outboxService.getStats().getFailedAttempts();
+        Long blockId = blockService.createBlockWithDefaults().getId();
+
+        Long sessionId = timerService.startBlock(blockId).getSessionId();
+        timerService.pauseTimer(sessionId);
+        timerService.resumeTimer(sessionId);
+        timerService.skipToNextPhase(sessionId);
+        timerService.cancelBlock(sessionId);
+
+        List<OutboxEventType> expected = List.of(OutboxEventType.STARTED, OutboxEventType.PAUSED,
+            OutboxEventType.RESUMED, OutboxEventType.PHASE_SKIPPED, OutboxEventType.CANCELLED);
+        await(() -> typesOf(webhookEvents(sessionId)).equals(expected), Duration.ofSeconds(10));
+
+        assertTrue(outboxService.getStats().getFailedAttempts() > failedBefore, "the 500 must be retried");
+        assertEquals(0L, outboxService.getStats().getPending());
+        assertEquals(expected, typesOf(distinct(inMemoryOutboxSink.getEvents(), sessionId)));
+        OutboxEventDTO skipped = webhookEvents(sessionId).get(3);
+        assertEquals(1, skipped.getPhaseIndex());
+        assertEquals(blockId, skipped.getBlockId());
+    }
+
+    @Test
+    void controlEndpointsDoNotWaitForABlockedSink() throws Exception {
+        gate = new CountDownLatch(1);
+        int requestsBefore = REQUESTS.get();
+        Long blockId = blockService.createBlockWithDefaults().getId();
+        Long sessionId = timerService.startBlock(blockId).getSessionId();
+
+        // El dispatcher queda dentro del POST hasta que se abra la compuerta
+        await(() -> REQUESTS.get() > requestsBefore, Duration.ofSeconds(5));
+
+        long slowest = 0;
+        for (Runnable control : List.<Runnable>of(() -> timerService.pauseTimer(sessionId),
+                                                  () -> timerService.resumeTimer(sessionId),
+                                                  () -> timerService.cancelBlock(sessionId))) {
+            long start = System.nanoTime();
+            control.run();
+            slowest = Math.max(slowest, System.nanoTime() - start);
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(slowest) < 1000,
+                   "control call took " + TimeUnit.NANOSECONDS.toMillis(slowest) + " ms with the sink blocked");
+        assertTrue(outboxService.getStats().getPending() >= 3, "events wait in the outbox while the sink is blocked");
+
+        gate.countDown();
+        await(() -> typesOf(webhookEvents(sessionId)).equals(List.of(OutboxEventType.STARTED,
+            OutboxEventType.PAUSED, OutboxEventType.RESUMED, OutboxEventType.CANCELLED)), Duration.ofSeconds(10));
+    }
+
+    /**
+     * Eventos aceptados por el webhook para una sesión, sin duplicados, en orden de llegada
+     */
+    private List<OutboxEventDTO> webhookEvents(Long sessionId) {
+        List<OutboxEventDTO> events = new ArrayList<>();
+        for (byte[] body : ACCEPTED) {
+            events.addAll(Arrays.asList(jsonMapper.readValue(body, OutboxEventDTO[].class)));
+        }
+        return distinct(events, sessionId);
+    }
+
+    private List<OutboxEventDTO> distinct(List<OutboxEventDTO> events, Long sessionId) {
+        Map<Long, OutboxEventDTO> byId = new LinkedHashMap<>();
+        for (OutboxEventDTO event : events) {
+            if (sessionId.equals(event.getSessionId())) {
+                byId.putIfAbsent(event.getId(), event);
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    private List<OutboxEventType> typesOf(List<OutboxEventDTO> events) {
+        return events.stream().map(OutboxEventDTO::getType).toList();
+    }
+
+    private void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within " + timeout);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.PhaseEventDTO;
+import com.portafolio.PhaseLock_timer.model.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Los eventos de fase se confirman con el cambio de la sesión: visibles en cuanto
+ * responde el endpoint y descartados si la transacción hace rollback.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:phaseeventtest") // Base propia: sesión activa
+class PhaseEventRecorderTest {
+
+    @Autowired
+    private TimerService timerService;
+
+    @Autowired
+    private BlockService blockService;
+
+    @Autowired
+    private PhaseEventRecorder phaseEventRecorder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cancelActive() {
+        timerService.getActiveSession().ifPresent(s -> timerService.cancelBlock(s.getSessionId()));
+    }
+
+    @Test
+    void skippedPhasesAreReadableAsSoonAsTheCallReturns() {
+        Long blockId = blockService.createBlockWithDefaults().getId();
+        Long sessionId = timerService.startBlock(blockId).getSessionId();
+
+        timerService.skipToNextPhase(sessionId);
+        timerService.skipToNextPhase(sessionId);
+
+        List<PhaseEventDTO> events = timerService.getPhaseEvents(sessionId);
+        assertEquals(2, events.size());
+        assertEquals(0, events.get(0).getPhaseIndex());
+        assertEquals(Phase.POMODORO, events.get(0).getPhase());
+        assertEquals(1, events.get(1).getPhaseIndex());
+        assertTrue(events.get(1).getSkipped());
+    }
+
+    @Test
+    void eventsRollBackWithTheSessionTransaction() {
+        long sessionId = 999_999L;
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(tx -> {
+            phaseEventRecorder.record(sessionId, 0, Phase.POMODORO, LocalDateTime.now(), LocalDateTime.now(), false);
+            throw new IllegalStateException("session save failed");
+        }));
+        assertTrue(phaseEventRecorder.getEvents(sessionId).isEmpty());
+    }
+}
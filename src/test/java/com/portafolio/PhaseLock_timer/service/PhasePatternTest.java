@@ -0,0 +1,149 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.config.BlockConfiguration;
+import com.portafolio.PhaseLock_timer.dto.BlockSequenceDTO;
+import com.portafolio.PhaseLock_timer.dto.PhaseSequenceItem;
+import com.portafolio.PhaseLock_timer.exception.BadRequestException;
+import com.portafolio.PhaseLock_timer.model.Phase;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compilación de patrones de fases y coste de compilar y recorrer la secuencia.
+ *
+ * Benchmark: ./mvnw -Pload-test test -Dtest=PhasePatternTest
+ */
+class PhasePatternTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 2_000_000;
+
+    private static final String ROUNDS = "P10 S2 ((P S)x3 P L)x2";
+
+    private final BlockService blockService = new BlockService(null, new BlockConfiguration());
+
+    @Test
+    void patternExpandsGroupsAndUsesConfiguredDurations() {
+        CompiledSequence sequence = PhasePattern.compile(ROUNDS, 25, 5, 15);
+
+        // Calentamiento + 2 rondas de (P S P S P S P L)
+        assertEquals(2 + 2 * 8, sequence.size());
+        assertEquals(1 + 8, sequence.numberOfPomodoros());
+        assertEquals(Phase.POMODORO, sequence.phase(0));
+        assertEquals(10 * 60, sequence.durationSeconds(0));
+        assertEquals(Phase.SHORT_BREAK, sequence.phase(1));
+        assertEquals(2 * 60, sequence.durationSeconds(1));
+        assertEquals(Phase.LONG_BREAK, sequence.phase(9));
+        assertEquals(15 * 60, sequence.durationSeconds(9));
+        assertEquals(12 + 2 * (4 * 25 + 3 * 5 + 15), sequence.toDTO().getTotalDurationMinutes());
+    }
+
+    @Test
+    void classicSequenceMatchesTheFixedPattern() {
+        BlockSequenceDTO classic = blockService.calculateSequence(120, 25, 5, 30);
+        CompiledSequence pattern = PhasePattern.compile("(P S)x2, P, L", 25, 5, 30);
+
+        List<PhaseSequenceItem> items = classic.getSequence();
+        assertEquals(3, classic.getNumberOfPomodoros());
+        assertEquals(items.size(), pattern.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(items.get(i).getPhase(), pattern.phase(i));
+            assertEquals(items.get(i).getDurationMinutes() * 60, pattern.durationSeconds(i));
+            assertEquals(i + 1, items.get(i).getSequenceNumber());
+        }
+        // La misma configuración se compila una sola vez
+        assertSame(classic, blockService.calculateSequence(120, 25, 5, 30));
+    }
+
+    @Test
+    void invalidPatternsAreRejected() {
+        for (String invalid : new String[] {"", "P25 X", "(P S", "P S)", "Q5", "P S x0", "P2000",
+                                            "(P S)x600", "S0 L0"}) {
+            assertThrows(BadRequestException.class, () -> PhasePattern.compile(invalid, 25, 5, 15),
+                         "pattern '" + invalid + "' must be rejected");
+        }
+    }
+
+    @Test
+    void classicSequencesHaveThePatternLimits() {
+        // Sin límite, (minutos * 60) << 2 desbordaba int y la fase salía con duración negativa
+        assertThrows(BadRequestException.class, () -> PhasePattern.classic(60, 1, 9_000_000, 0, 0));
+        assertThrows(BadRequestException.class, () -> PhasePattern.classic(60, 1, 25, -5, 0));
+        assertThrows(BadRequestException.class,
+                     () -> PhasePattern.classic(60, 1, 25, 5, PhasePattern.MAX_PHASE_MINUTES + 1));
+
+        CompiledSequence longest = PhasePattern.classic(1440, 1, PhasePattern.MAX_PHASE_MINUTES, 0, 0);
+        assertEquals(PhasePattern.MAX_PHASE_MINUTES * 60, longest.durationSeconds(0));
+        assertThrows(ArithmeticException.class, () -> CompiledSequence.pack(Phase.POMODORO, 9_000_000));
+    }
+
+    @Test
+    @Tag("load")
+    void compileAndLookupCost() throws Exception {
+        CompiledSequence compiled = PhasePattern.compile(ROUNDS, 25, 5, 15);
+        List<PhaseSequenceItem> items = compiled.toDTO().getSequence();
+        int phases = compiled.size();
+
+        Result compilePattern = measure("compile pattern '" + ROUNDS + "'",
+            i -> PhasePattern.compile(ROUNDS, 25, 5, 15).size());
+        Result compileClassic = measure("compile classic 120/25/5/30",
+            i -> PhasePattern.classic(120, 3, 25, 5, 30).size());
+        Result cached = measure("cached lookup (BlockService)",
+            i -> blockService.compileSequence(120, 25, 5, 15, ROUNDS).size());
+        Result lookupCompiled = measure("phase lookup, int[]",
+            i -> compiled.durationSeconds(i % phases) + compiled.phase(i % phases).ordinal());
+        Result lookupList = measure("phase lookup, List<PhaseSequenceItem>",
+            i -> items.get(i % phases).getDurationMinutes() * 60 + items.get(i % phases).getPhase().ordinal());
+
+        String report = String.join(System.lineSeparator(),
+            "Phase pattern: " + ITERATIONS + " ops, " + phases + " phases",
+            compilePattern.toString(),
+            compileClassic.toString(),
+            cached.toString(),
+            lookupCompiled.toString(),
+            lookupList.toString());
+        System.out.println(report);
+        Path out = Path.of("target", "loadtest", "phase-pattern.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report + System.lineSeparator());
+
+        assertEquals(0.0, lookupCompiled.allocatedPerOp(), 1.0, "lookups must not allocate");
+    }
+
+    private Result measure(String name, Op op) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += op.run(i);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += op.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertNotEquals(0, sink);
+        return new Result(name, elapsed / (double) ITERATIONS, allocated / (double) ITERATIONS);
+    }
+
+    private interface Op {
+        int run(int i);
+    }
+
+    private record Result(String name, double nsPerOp, double allocatedPerOp) {
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f ns/op, %.1f bytes allocated/op", name, nsPerOp, allocatedPerOp);
+        }
+    }
+}
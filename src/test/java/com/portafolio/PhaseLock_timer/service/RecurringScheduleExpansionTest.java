@@ -0,0 +1,136 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.RecurringScheduleDTO;
+import com.portafolio.PhaseLock_timer.dto.RecurringScheduleRequestDTO;
+import com.portafolio.PhaseLock_timer.repository.RecurringScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Expansión de plantillas contra la base: la marca solo avanza con un UPDATE condicional,
+ * una ventana no se escribe dos veces y las plantillas que fallan no bloquean el job.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:recurringtest", // Base propia: cuenta ocurrencias
+    "phaselock.recurring.batch-size=2",
+    "phaselock.recurring.expand-interval-ms=3600000"
+})
+class RecurringScheduleExpansionTest {
+
+    @Autowired
+    private RecurringScheduleService recurringScheduleService;
+
+    @Autowired
+    private RecurringScheduleRepository recurringScheduleRepository;
+
+    @Autowired
+    private BlockService blockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long blockId;
+
+    @BeforeEach
+    void createBlock() {
+        blockId = blockService.createBlockWithDefaults().getId();
+    }
+
+    @Test
+    void staleWatermarkCannotReactivateOrExpandADeactivatedTemplate() {
+        RecurringScheduleDTO created = recurringScheduleService.create(everyDay());
+        LocalDateTime readBeforeDeactivate = materializedUntil(created.getId());
+
+        recurringScheduleService.deactivate(created.getId());
+
+        // Una expansión que leyó la plantilla antes de desactivarla ya no puede reclamar la ventana
+        Integer updated = new TransactionTemplate(transactionManager).execute(tx ->
+            recurringScheduleRepository.advanceMaterializedUntil(
+                created.getId(), readBeforeDeactivate, readBeforeDeactivate.plusDays(1)));
+        assertEquals(0, updated);
+        assertFalse(jdbcTemplate.queryForObject(
+            "SELECT active FROM recurring_schedules WHERE id = ?", Boolean.class, created.getId()));
+        assertEquals(0, countOccurrences(created.getId(), "PENDING"));
+    }
+
+    @Test
+    void reexpandingTheSameWindowWritesNoDuplicates() {
+        RecurringScheduleDTO created = recurringScheduleService.create(everyDay());
+        int occurrences = countOccurrences(created.getId(), null);
+        assertEquals(1, occurrences);
+
+        // Marca atrasada (p. ej. un commit perdido tras insertar): la ventana vuelve a leerse
+        jdbcTemplate.update("UPDATE recurring_schedules SET materialized_until = ? WHERE id = ?",
+                            Timestamp.valueOf(LocalDateTime.now().minusHours(1)), created.getId());
+        recurringScheduleService.expandWindows();
+
+        assertEquals(occurrences, countOccurrences(created.getId(), null));
+        recurringScheduleService.deactivate(created.getId());
+    }
+
+    @Test
+    @Timeout(10)
+    void failingTemplatesAreSkippedInsteadOfRefetched() {
+        // Más plantillas rotas que un lote: sin días, la regla no se puede construir
+        LocalDateTime stale = LocalDateTime.now().minusDays(2).withNano(0);
+        for (long id = 1_000_000; id < 1_000_005; id++) {
+            jdbcTemplate.update("INSERT INTO recurring_schedules "
+                + "(id, time_block_id, days_mask, start_time, valid_from, active, materialized_until) "
+                + "VALUES (?, ?, 0, ?, ?, TRUE, ?)",
+                id, blockId, LocalTime.of(9, 0), stale.toLocalDate(), Timestamp.valueOf(stale));
+        }
+        RecurringScheduleDTO healthy = recurringScheduleService.create(everyDay());
+        jdbcTemplate.update("DELETE FROM scheduled_blocks WHERE recurring_schedule_id = ?", healthy.getId());
+        jdbcTemplate.update("UPDATE recurring_schedules SET materialized_until = ? WHERE id = ?",
+                            Timestamp.valueOf(stale.plusHours(1)), healthy.getId());
+
+        recurringScheduleService.expandWindows();
+
+        assertTrue(materializedUntil(healthy.getId()).isAfter(LocalDateTime.now()));
+        assertEquals(stale, materializedUntil(1_000_000L));
+        jdbcTemplate.update("DELETE FROM recurring_schedules WHERE days_mask = 0");
+    }
+
+    private RecurringScheduleRequestDTO everyDay() {
+        RecurringScheduleRequestDTO request = new RecurringScheduleRequestDTO();
+        request.setBlockId(blockId);
+        request.setDaysOfWeek(EnumSet.allOf(DayOfWeek.class));
+        // Lejos de la ventana de disparo: las ocurrencias quedan pendientes
+        request.setStartTime(LocalTime.now().plusHours(2).withNano(0));
+        return request;
+    }
+
+    private LocalDateTime materializedUntil(Long id) {
+        return jdbcTemplate.queryForObject(
+            "SELECT materialized_until FROM recurring_schedules WHERE id = ?", Timestamp.class, id)
+            .toLocalDateTime();
+    }
+
+    private int countOccurrences(Long recurringScheduleId, String status) {
+        if (status == null) {
+            return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM scheduled_blocks WHERE recurring_schedule_id = ?",
+                Integer.class, recurringScheduleId);
+        }
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM scheduled_blocks WHERE recurring_schedule_id = ? AND status = ?",
+            Integer.class, recurringScheduleId, status);
+    }
+}
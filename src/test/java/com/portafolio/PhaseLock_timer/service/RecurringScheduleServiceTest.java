@@ -0,0 +1,158 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.RecurringOccurrenceDTO;
+import com.portafolio.PhaseLock_timer.model.RecurringSchedule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reglas recurrentes y mezcla de las próximas ocurrencias de muchas plantillas.
+ *
+ * Carga: ./mvnw -Pload-test test -Dtest=RecurringScheduleServiceTest -Drecurring.templates=100000
+ */
+class RecurringScheduleServiceTest {
+
+    private static final int WEEKDAYS = RecurrenceRule.maskOf(
+        EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+
+    @Test
+    void weekdayRuleSkipsWeekendAndStopsAtValidUntil() {
+        // Viernes 2025-01-10 a las 10:00: la de hoy ya pasó
+        RecurrenceRule rule = new RecurrenceRule(WEEKDAYS, LocalTime.of(9, 0),
+                                                 LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 14));
+        Iterator<LocalDateTime> occurrences = rule.occurrencesAfter(LocalDateTime.of(2025, 1, 10, 10, 0));
+
+        assertEquals(LocalDateTime.of(2025, 1, 13, 9, 0), occurrences.next());
+        assertEquals(LocalDateTime.of(2025, 1, 14, 9, 0), occurrences.next());
+        assertFalse(occurrences.hasNext());
+
+        // Antes de validFrom empieza en el primer día marcado desde validFrom
+        RecurrenceRule future = new RecurrenceRule(WEEKDAYS, LocalTime.of(9, 0), LocalDate.of(2025, 2, 1), null);
+        assertEquals(LocalDateTime.of(2025, 2, 3, 9, 0), future.firstAfter(LocalDateTime.of(2025, 1, 10, 10, 0)));
+
+        // Exactamente a la hora de la ocurrencia: es la siguiente, no la misma
+        assertEquals(LocalDateTime.of(2025, 2, 4, 9, 0), future.firstAfter(LocalDateTime.of(2025, 2, 3, 9, 0)));
+
+        assertThrows(IllegalArgumentException.class, () -> new RecurrenceRule(0, LocalTime.NOON, LocalDate.MIN, null));
+    }
+
+    @Test
+    void mergeMatchesSortedMaterialization() {
+        List<RecurringSchedule> schedules = randomSchedules(300, new SplittableRandom(7));
+        LocalDateTime after = LocalDateTime.of(2025, 1, 6, 8, 30);
+        int limit = 500;
+
+        // Referencia: materializar dos semanas de todas las plantillas y ordenar
+        List<RecurringOccurrenceDTO> expected = new ArrayList<>();
+        for (RecurringSchedule schedule : schedules) {
+            Iterator<LocalDateTime> it = rule(schedule).occurrencesAfter(after);
+            while (it.hasNext()) {
+                LocalDateTime at = it.next();
+                if (at.isAfter(after.plusWeeks(2))) {
+                    break;
+                }
+                expected.add(new RecurringOccurrenceDTO(schedule.getId(), schedule.getTimeBlockId(), at));
+            }
+        }
+        expected.sort(Comparator.comparing(RecurringOccurrenceDTO::getStartAt)
+                                .thenComparing(RecurringOccurrenceDTO::getRecurringScheduleId));
+        assertTrue(expected.size() > limit);
+
+        List<RecurringOccurrenceDTO> merged = RecurringScheduleService.mergeNext(schedules, after, limit);
+
+        assertEquals(limit, merged.size());
+        for (int i = 0; i < limit; i++) {
+            assertEquals(expected.get(i).getStartAt(), merged.get(i).getStartAt());
+            assertEquals(expected.get(i).getRecurringScheduleId(), merged.get(i).getRecurringScheduleId());
+        }
+    }
+
+    @Test
+    @Tag("load")
+    void nextOccurrencesOfManyTemplates() throws Exception {
+        int templates = Integer.getInteger("recurring.templates", 100_000);
+        int limit = 1000;
+        List<RecurringSchedule> schedules = randomSchedules(templates, new SplittableRandom(11));
+        LocalDateTime after = LocalDateTime.of(2025, 1, 6, 8, 30);
+
+        for (int i = 0; i < 5; i++) {
+            RecurringScheduleService.mergeNext(schedules, after, limit);
+        }
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int runs = 20;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        List<RecurringOccurrenceDTO> merged = null;
+        for (int i = 0; i < runs; i++) {
+            merged = RecurringScheduleService.mergeNext(schedules, after, limit);
+        }
+        double mergeMs = (System.nanoTime() - start) / 1e6 / runs;
+        double mergeMb = (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / 1048576.0 / runs;
+
+        // Contraste: materializar una semana de todas las plantillas y ordenar
+        allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        start = System.nanoTime();
+        List<LocalDateTime> week = new ArrayList<>();
+        for (RecurringSchedule schedule : schedules) {
+            Iterator<LocalDateTime> it = rule(schedule).occurrencesAfter(after);
+            while (it.hasNext()) {
+                LocalDateTime at = it.next();
+                if (at.isAfter(after.plusWeeks(1))) {
+                    break;
+                }
+                week.add(at);
+            }
+        }
+        week.sort(null);
+        double materializeMs = (System.nanoTime() - start) / 1e6;
+        double materializeMb = (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / 1048576.0;
+
+        String report = String.join(System.lineSeparator(),
+            "Recurring templates: " + templates + ", next " + limit + " occurrences",
+            String.format("k-way merge: %.1f ms, %.1f MB allocated per call", mergeMs, mergeMb),
+            String.format("materialize one week (%d occurrences) + sort: %.1f ms, %.1f MB allocated",
+                week.size(), materializeMs, materializeMb));
+        System.out.println(report);
+        Path out = Path.of("target", "loadtest", "recurring-next.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report + System.lineSeparator());
+
+        assertEquals(limit, merged.size());
+        assertEquals(week.get(0), merged.get(0).getStartAt());
+    }
+
+    private static List<RecurringSchedule> randomSchedules(int count, SplittableRandom random) {
+        List<RecurringSchedule> schedules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int mask = random.nextInt(1, 128);
+            LocalTime time = LocalTime.of(random.nextInt(6, 22), random.nextInt(0, 4) * 15);
+            RecurringSchedule schedule = new RecurringSchedule((long) random.nextInt(1, 50), mask, time,
+                LocalDate.of(2025, 1, 1), null, LocalDateTime.of(2025, 1, 1, 0, 0));
+            schedule.setId((long) i + 1);
+            schedules.add(schedule);
+        }
+        return schedules;
+    }
+
+    private static RecurrenceRule rule(RecurringSchedule schedule) {
+        return new RecurrenceRule(schedule.getDaysMask(), schedule.getStartTime(),
+                                  schedule.getValidFrom(), schedule.getValidUntil());
+    }
+}
@@ -0,0 +1,151 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.model.TimeBlock;
+import com.portafolio.PhaseLock_timer.model.TimerSession;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+import com.portafolio.PhaseLock_timer.repository.ArchivedTimerSessionRepository;
+import com.portafolio.PhaseLock_timer.repository.TimeBlockRepository;
+import com.portafolio.PhaseLock_timer.repository.TimerSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retención por trozos: solo salen las sesiones terminadas más antiguas que el corte,
+ * todas exactamente una vez, tanto a la tabla de archivo como a ficheros comprimidos.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:retentiontest", // Base propia: borra y cuenta sesiones
+    "spring.jpa.show-sql=false", // Miles de INSERT de preparación
+    "phaselock.retention.batch-size=300"
+})
+class RetentionServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 1, 12, 0);
+    private static final LocalDateTime CUTOFF = NOW.minusDays(30);
+
+    @Autowired
+    private RetentionService retentionService;
+
+    @Autowired
+    private TimerSessionRepository timerSessionRepository;
+
+    @Autowired
+    private ArchivedTimerSessionRepository archivedTimerSessionRepository;
+
+    @Autowired
+    private TimeBlockRepository timeBlockRepository;
+
+    @Autowired
+    private BlockService blockService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private TimerClock clock;
+
+    private TimeBlock block;
+
+    @BeforeEach
+    void cleanTables() {
+        timerSessionRepository.deleteAllInBatch();
+        archivedTimerSessionRepository.deleteAllInBatch();
+        block = timeBlockRepository.findById(blockService.createBlockWithDefaults().getId()).orElseThrow();
+    }
+
+    @Test
+    void movesOldFinishedSessionsIntoTheArchiveTable() {
+        // 2500 antiguas (varias con el mismo started_at para cruzar trozos por id) y las que deben quedarse
+        List<Long> old = insert(2500, TimerStatus.COMPLETED, CUTOFF.minusDays(90), 7);
+        old.addAll(insert(400, TimerStatus.STOPPED, CUTOFF.minusDays(10), 1));
+        List<Long> recent = insert(50, TimerStatus.COMPLETED, CUTOFF.plusDays(1), 1);
+        List<Long> running = insert(5, TimerStatus.RUNNING, CUTOFF.minusDays(60), 1);
+
+        assertEquals(old.size(), retentionService.archiveFinished(CUTOFF));
+
+        assertEquals(recent.size() + running.size(), timerSessionRepository.count());
+        assertTrue(timerSessionRepository.findAllById(old).isEmpty());
+        assertEquals(old.size(), archivedTimerSessionRepository.count());
+        assertEquals(old.size(), archivedTimerSessionRepository.findAllById(old).size());
+        assertEquals(block.getId(), archivedTimerSessionRepository.findById(old.get(0)).orElseThrow().getTimeBlockId());
+        assertEquals(TimerStatus.STOPPED,
+                     archivedTimerSessionRepository.findById(old.get(old.size() - 1)).orElseThrow().getStatus());
+
+        // Una segunda pasada no encuentra nada
+        assertEquals(0, retentionService.archiveFinished(CUTOFF));
+        assertEquals(old.size(), retentionService.getStats().getArchivedSinceStart());
+    }
+
+    @Test
+    void writesOldFinishedSessionsToCompressedFiles(@TempDir Path dir) throws IOException {
+        RetentionService fileRetention = new RetentionService(timerSessionRepository, archivedTimerSessionRepository,
+            transactionTemplate, jsonMapper, clock, true, 30, 250, "file", dir.toString());
+        List<Long> old = insert(1000, TimerStatus.COMPLETED, CUTOFF.minusDays(5), 3);
+        List<Long> recent = insert(20, TimerStatus.STOPPED, CUTOFF.plusHours(1), 1);
+
+        assertEquals(old.size(), fileRetention.archiveFinished(CUTOFF));
+
+        Set<Long> written = new HashSet<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                assertTrue(file.getFileName().toString().matches("timer-sessions-\\d{8}-\\d{6}\\.jsonl\\.gz"));
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        JsonNode session = jsonMapper.readTree(line);
+                        assertEquals("COMPLETED", session.get("status").asString());
+                        assertTrue(written.add(session.get("id").asLong()), "each session is written once");
+                    }
+                }
+            }
+        }
+        assertEquals(new HashSet<>(old), written);
+        assertEquals(recent.size(), timerSessionRepository.count());
+        assertEquals(0, archivedTimerSessionRepository.count());
+    }
+
+    /**
+     * Sesiones terminadas con started_at creciente; cada {@code sameStart} comparten fecha
+     */
+    private List<Long> insert(int count, TimerStatus status, LocalDateTime firstStart, int sameStart) {
+        List<TimerSession> sessions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TimerSession session = new TimerSession(block);
+            session.setStatus(status);
+            session.setStartedAt(firstStart.plusMinutes(i / sameStart));
+            if (status != TimerStatus.RUNNING) {
+                session.setCompletedAt(session.getStartedAt().plusMinutes(25));
+            }
+            sessions.add(session);
+        }
+        List<Long> ids = new ArrayList<>(count);
+        timerSessionRepository.saveAll(sessions).forEach(s -> ids.add(s.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,34 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La hora de pared del reloj de producción es la del sistema, la misma que usan @Future
+ * y los controladores, y el contador monotónico sigue siendo independiente de ella.
+ */
+class SystemTimerClockTest {
+
+    private final SystemTimerClock clock = new SystemTimerClock();
+
+    @Test
+    void wallTimeFollowsTheSystemClock() {
+        long before = System.currentTimeMillis();
+        long epochMillis = clock.epochMillis();
+        long after = System.currentTimeMillis();
+        assertTrue(epochMillis >= before && epochMillis <= after);
+
+        Duration skew = Duration.between(LocalDateTime.now(), clock.now()).abs();
+        assertTrue(skew.toMillis() < 1000, "skew " + skew);
+    }
+
+    @Test
+    void monotonicNanosNeverGoBack() {
+        long first = clock.monotonicNanos();
+        assertTrue(clock.monotonicNanos() >= first);
+    }
+}
@@ -0,0 +1,117 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ETag y long-poll de GET /api/timer/{id}: 304 mientras no cambie la fase o el estado,
+ * despertar de la espera con el cambio, y ids desconocidos que no dejan rastro en memoria.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = {"spring.datasource.url=jdbc:h2:mem:etagtest", // Base propia: sesión activa
+                              "spring.jpa.show-sql=false"})
+class TimerChangeNotifierTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TimerService timerService;
+
+    @Autowired
+    private BlockService blockService;
+
+    @Autowired
+    private TimerChangeNotifier changeNotifier;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @AfterEach
+    void cancelActive() {
+        timerService.getActiveSession().ifPresent(s -> timerService.cancelBlock(s.getSessionId()));
+    }
+
+    @Test
+    void unchangedSessionAnswersNotModifiedUntilItsStateChanges() throws Exception {
+        Long sessionId = startSession();
+        HttpResponse<String> first = get("/api/timer/" + sessionId, null);
+        assertEquals(200, first.statusCode());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        assertEquals(304, get("/api/timer/" + sessionId, etag).statusCode());
+
+        timerService.pauseTimer(sessionId);
+        HttpResponse<String> changed = get("/api/timer/" + sessionId, etag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+        assertTrue(changed.body().contains("\"PAUSED\""));
+    }
+
+    @Test
+    void longPollWakesUpOnTheNextChange() throws Exception {
+        Long sessionId = startSession();
+        String etag = get("/api/timer/" + sessionId, null).headers().firstValue("ETag").orElseThrow();
+
+        CompletableFuture<HttpResponse<String>> poll = http.sendAsync(
+            request("/api/timer/" + sessionId + "/poll?timeoutMs=20000", etag), HttpResponse.BodyHandlers.ofString());
+        Thread.sleep(300); // La espera ya está registrada
+        assertFalse(poll.isDone());
+
+        long start = System.nanoTime();
+        timerService.pauseTimer(sessionId);
+        HttpResponse<String> response = poll.get(5, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(200, response.statusCode());
+        assertNotEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+        assertTrue(response.body().contains("\"PAUSED\""));
+    }
+
+    @Test
+    void unknownSessionsAreNotFoundAndNotTracked() throws Exception {
+        int tracked = changeNotifier.getTrackedCount();
+        for (long id = 900_000; id < 900_050; id++) {
+            assertEquals(404, get("/api/timer/" + id, null).statusCode());
+            assertEquals(404, get("/api/timer/" + id + "/poll?timeoutMs=10", "W/\"x\"").statusCode());
+        }
+        assertEquals(tracked, changeNotifier.getTrackedCount());
+    }
+
+    @Test
+    void etagCarriesTheBootEpoch() {
+        String etag = changeNotifier.etag(1L, 1);
+        // Mismo id y versión de otro arranque: no deben coincidir
+        assertTrue(etag.matches("W/\"[0-9a-z]+-1-1\""), etag);
+    }
+
+    private Long startSession() {
+        Long blockId = blockService.createBlockWithDefaults().getId();
+        return timerService.startBlock(blockId).getSessionId();
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        return http.send(request(path, ifNoneMatch), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String path, String ifNoneMatch) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(30))
+            .GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return request.build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.config.BlockConfiguration;
+import com.portafolio.PhaseLock_timer.model.TimeBlock;
+import com.portafolio.PhaseLock_timer.model.TimerSession;
+import com.portafolio.PhaseLock_timer.model.TimerStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulación determinista: 10k sesiones recorren su secuencia completa con pausas,
+ * saltos y reinicios aleatorios sobre un reloj virtual, en segundos de tiempo real.
+ */
+class TimerEngineSimulationTest {
+
+    private static final int SESSIONS = 10_000;
+    private static final long SEED = 20240601L;
+
+    // Probabilidades por segundo simulado
+    private static final double PAUSE_PROBABILITY = 0.0005;
+    private static final double SKIP_PROBABILITY = 0.0002;
+    private static final double RESTART_PROBABILITY = 0.00002;
+
+    private final BlockService blockService = new BlockService(null, new BlockConfiguration());
+
+    @Test
+    void randomSessionsKeepTimerInvariants() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        VirtualTimerClock clock = new VirtualTimerClock(LocalDateTime.of(2025, 1, 6, 9, 0));
+        TimerEngine engine = new TimerEngine(clock);
+
+        for (int i = 0; i < SESSIONS; i++) {
+            CompiledSequence sequence = blockService.compileSequence(
+                random.nextInt(30, 241),
+                random.nextInt(15, 51),
+                random.nextInt(0, 11),
+                random.nextInt(0, 31),
+                null
+            );
+            simulate(i, engine, clock, sequence, random);
+        }
+    }
+
+    @Test
+    void uninterruptedSessionElapsedEqualsSumOfPhaseDurations() {
+        VirtualTimerClock clock = new VirtualTimerClock(LocalDateTime.of(2025, 1, 6, 9, 0));
+        TimerEngine engine = new TimerEngine(clock);
+        CompiledSequence sequence = blockService.compileSequence(120, 25, 5, 30, null);
+
+        TimerSession session = new TimerSession(new TimeBlock());
+        engine.start(session, sequence);
+        while (session.getStatus() == TimerStatus.RUNNING) {
+            clock.advanceSeconds(1);
+            if (engine.tick(session) == TimerEngine.TickOutcome.PHASE_ENDED && !engine.advance(session, sequence)) {
+                engine.complete(session);
+            }
+        }
+
+        assertEquals(sumOfPhaseSeconds(sequence), (long) session.getTotalElapsedSeconds());
+        assertEquals(Duration.ofSeconds(session.getTotalElapsedSeconds()),
+                     Duration.between(session.getStartedAt(), session.getCompletedAt()));
+    }
+
+    @Test
+    void trailingZeroLengthPhaseEndsWithoutGoingNegative() {
+        VirtualTimerClock clock = new VirtualTimerClock(LocalDateTime.of(2025, 1, 6, 9, 0));
+        TimerEngine engine = new TimerEngine(clock);
+        CompiledSequence sequence = PhasePattern.compile("P1 S0", 25, 5, 15);
+
+        TimerSession session = new TimerSession(new TimeBlock());
+        engine.start(session, sequence);
+        int ticks = 0;
+        while (session.getStatus() == TimerStatus.RUNNING) {
+            clock.advanceSeconds(1);
+            ticks++;
+            if (engine.tick(session) == TimerEngine.TickOutcome.PHASE_ENDED && !engine.advance(session, sequence)) {
+                engine.complete(session);
+            }
+            assertTrue(session.getRemainingSeconds() >= 0, "remaining went negative after " + ticks + " ticks");
+        }
+
+        // 60 s de pomodoro más un tick que cierra el descanso vacío sin contarlo
+        assertEquals(61, ticks);
+        assertEquals(60, session.getTotalElapsedSeconds());
+        assertEquals(1, session.getCurrentPhaseIndex());
+        assertEquals(0, session.getRemainingSeconds());
+    }
+
+    private void simulate(int n, TimerEngine engine, VirtualTimerClock clock,
+                          CompiledSequence sequence, SplittableRandom random) {
+        TimerSession session = new TimerSession(new TimeBlock());
+        engine.start(session, sequence);
+
+        long expectedElapsed = 0;   // Suma de segundos reales de las fases terminadas
+        long pausedSeconds = 0;     // Tiempo de pared en pausa desde el último (re)inicio
+        boolean skipped = false;
+
+        while (session.getStatus() != TimerStatus.COMPLETED) {
+            assertPhaseMatchesSequence(n, session, sequence);
+
+            double roll = random.nextDouble();
+            if (roll < RESTART_PROBABILITY) {
+                engine.start(session, sequence);
+                expectedElapsed = 0;
+                pausedSeconds = 0;
+                skipped = false;
+            } else if (roll < RESTART_PROBABILITY + SKIP_PROBABILITY) {
+                expectedElapsed += engine.phaseElapsedSeconds(session, sequence);
+                skipped = true;
+                if (!engine.advance(session, sequence)) {
+                    engine.complete(session);
+                }
+            } else if (roll < RESTART_PROBABILITY + SKIP_PROBABILITY + PAUSE_PROBABILITY) {
+                int pause = random.nextInt(1, 600);
+                engine.pause(session);
+                clock.advanceSeconds(pause);
+                assertEquals(TimerEngine.TickOutcome.NOT_RUNNING, engine.tick(session));
+                engine.resume(session);
+                pausedSeconds += pause;
+            } else {
+                clock.advanceSeconds(1);
+                if (engine.tick(session) == TimerEngine.TickOutcome.PHASE_ENDED) {
+                    expectedElapsed += engine.phaseElapsedSeconds(session, sequence);
+                    if (!engine.advance(session, sequence)) {
+                        engine.complete(session);
+                    }
+                }
+            }
+        }
+
+        assertEquals(expectedElapsed, (long) session.getTotalElapsedSeconds(),
+                     "session " + n + ": elapsed must equal the sum of actual phase durations");
+        if (!skipped) {
+            assertEquals(sumOfPhaseSeconds(sequence), (long) session.getTotalElapsedSeconds(),
+                         "session " + n + ": an unskipped block must last exactly its planned phases");
+            assertEquals(session.getTotalElapsedSeconds() + pausedSeconds,
+                         Duration.between(session.getStartedAt(), session.getCompletedAt()).toSeconds(),
+                         "session " + n + ": wall time must equal running time plus pauses");
+        }
+        assertTrue(session.getRemainingSeconds() >= 0, "session " + n + ": remaining time went negative");
+    }
+
+    private void assertPhaseMatchesSequence(int n, TimerSession session, CompiledSequence sequence) {
+        int index = session.getCurrentPhaseIndex();
+        assertTrue(index >= 0 && index < sequence.size(), "session " + n + ": index out of range");
+        assertEquals(sequence.phase(index), session.getCurrentPhase(), "session " + n + ": phase mismatch");
+        assertTrue(session.getRemainingSeconds() > 0
+                   && session.getRemainingSeconds() <= sequence.durationSeconds(index),
+                   "session " + n + ": remaining outside the phase bounds");
+    }
+
+    private long sumOfPhaseSeconds(CompiledSequence sequence) {
+        return sequence.totalSeconds();
+    }
+}
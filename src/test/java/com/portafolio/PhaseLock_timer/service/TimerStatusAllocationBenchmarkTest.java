@@ -0,0 +1,124 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.config.BlockConfiguration;
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import com.portafolio.PhaseLock_timer.model.TimeBlock;
+import com.portafolio.PhaseLock_timer.model.TimerSession;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ruta caliente del estado: tick del motor y construcción del TimerStatusDTO.
+ * Mide bytes asignados por operación en el hilo que la ejecuta.
+ *
+ * Benchmark: ./mvnw -Pload-test test -Dtest=TimerStatusAllocationBenchmarkTest
+ */
+class TimerStatusAllocationBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 2_000_000;
+
+    private final VirtualTimerClock clock = new VirtualTimerClock(LocalDateTime.of(2025, 1, 6, 9, 0));
+    private final TimerEngine engine = new TimerEngine(clock);
+    private final TimerStatusMapper mapper = new TimerStatusMapper(clock);
+    private final CompiledSequence sequence = new BlockService(null, new BlockConfiguration())
+        .compileSequence(120, 25, 5, 30, null);
+
+    @Test
+    void statusCarriesFormattedTimes() {
+        TimerSession session = session();
+        session.setRemainingSeconds(25 * 60 - 1);
+        session.setTotalElapsedSeconds(3 * 3600 + 7 * 60 + 5);
+
+        TimerStatusDTO status = mapper.toDTO(session, sequence);
+
+        assertEquals(7L, status.getBlockId());
+        assertEquals(sequence.size(), status.getTotalPhases());
+        assertEquals("24:59", status.getFormattedRemainingTime());
+        assertEquals("03:07:05", status.getFormattedElapsedTime());
+
+        // Fases de más de 99 minutos y bloques de más de 99 horas no se recortan
+        session.setRemainingSeconds(150 * 60 + 9);
+        session.setTotalElapsedSeconds(100 * 3600);
+        status = mapper.toDTO(session, sequence);
+        assertEquals("150:09", status.getFormattedRemainingTime());
+        assertEquals("100:00:00", status.getFormattedElapsedTime());
+
+        // Un valor negativo no debe salirse de la tabla de dos dígitos
+        session.setRemainingSeconds(-1);
+        session.setTotalElapsedSeconds(-61);
+        status = mapper.toDTO(session, sequence);
+        assertEquals("00:00", status.getFormattedRemainingTime());
+        assertEquals("00:00:00", status.getFormattedElapsedTime());
+    }
+
+    @Test
+    @Tag("load")
+    void tickAndStatusAllocation() throws Exception {
+        TimerSession session = session();
+        Result tick = measure("tick", () -> {
+            if (engine.tick(session) == TimerEngine.TickOutcome.PHASE_ENDED) {
+                session.setRemainingSeconds(25 * 60);
+            }
+            return session.getRemainingSeconds();
+        });
+        Result status = measure("status", () -> mapper.toDTO(session, sequence).getRemainingSeconds());
+
+        String report = String.join(System.lineSeparator(),
+            "Timer status hot path: " + ITERATIONS + " ops",
+            tick.toString(),
+            status.toString());
+        System.out.println(report);
+        Path out = Path.of("target", "loadtest", "status-allocation.txt");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report + System.lineSeparator());
+    }
+
+    private TimerSession session() {
+        TimeBlock block = new TimeBlock(120, 25, 5, 30);
+        block.setId(7L);
+        TimerSession session = new TimerSession(block);
+        session.setId(42L);
+        engine.start(session, sequence);
+        // Valores fuera de la caché de Integer (-128..127) para que el boxing se note
+        session.setTotalElapsedSeconds(5_000);
+        return session;
+    }
+
+    private Result measure(String name, Op op) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += op.run();
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += op.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertNotEquals(0, sink);
+        return new Result(name, elapsed / (double) ITERATIONS, allocated / (double) ITERATIONS);
+    }
+
+    private interface Op {
+        int run();
+    }
+
+    private record Result(String name, double nsPerOp, double allocatedPerOp) {
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f ns/op, %.1f bytes allocated/op", name, nsPerOp, allocatedPerOp);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import com.portafolio.PhaseLock_timer.dto.TimerStatusDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stream SSE leído por HTTP: ids en orden y sin huecos aunque se publique desde varios
+ * hilos, reanudación con Last-Event-ID y sesiones terminadas que no dejan streams.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.datasource.url=jdbc:h2:mem:ssetest") // Base propia: sesión activa
+class TimerStreamServiceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TimerService timerService;
+
+    @Autowired
+    private BlockService blockService;
+
+    @Autowired
+    private TimerStreamService timerStreamService;
+
+    @Autowired
+    private TimerFrameEncoder frameEncoder;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @AfterEach
+    void cancelActive() {
+        timerService.getActiveSession().ifPresent(s -> timerService.cancelBlock(s.getSessionId()));
+    }
+
+    @Test
+    void concurrentPublishersDeliverIdsInOrderWithoutGaps() throws Exception {
+        Long sessionId = startSession();
+        try (EventReader reader = open(sessionId, null)) {
+            long first = reader.nextId(); // Estado actual al suscribirse
+
+            int threads = 8;
+            int perThread = 50;
+            TimerStatusDTO status = timerService.getTimerStatus(sessionId);
+            byte[] json = frameEncoder.encode(status);
+            CountDownLatch go = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> done = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    done.add(pool.submit(() -> {
+                        go.await();
+                        for (int i = 0; i < perThread; i++) {
+                            timerStreamService.publish(status, json);
+                        }
+                        return null;
+                    }));
+                }
+                go.countDown();
+                for (Future<?> f : done) {
+                    f.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            // El tick también publica en este stream: se leen al menos threads * perThread frames
+            long expected = first + 1;
+            for (int i = 0; i < threads * perThread; i++) {
+                assertEquals(expected++, reader.nextId());
+            }
+        }
+    }
+
+    @Test
+    void lastEventIdReplaysTheMissedFrames() throws Exception {
+        Long sessionId = startSession();
+        long seen;
+        try (EventReader reader = open(sessionId, null)) {
+            seen = reader.nextId();
+        }
+
+        TimerStatusDTO status = timerService.getTimerStatus(sessionId);
+        for (int i = 0; i < 3; i++) {
+            timerStreamService.publish(status, frameEncoder.encode(status));
+        }
+
+        try (EventReader reader = open(sessionId, seen)) {
+            assertEquals(seen + 1, reader.nextId());
+            assertEquals(seen + 2, reader.nextId());
+            assertEquals(seen + 3, reader.nextId());
+        }
+    }
+
+    @Test
+    void subscribingToAFinishedSessionSendsOneFrameAndLeavesNoStream() throws Exception {
+        Long sessionId = startSession();
+        timerService.cancelBlock(sessionId);
+        int streamsBefore = timerStreamService.getStreamCount();
+
+        HttpResponse<String> response = http.send(request(sessionId, null), HttpResponse.BodyHandlers.ofString());
+
+        // La respuesta termina sola: un único frame con el estado final
+        assertEquals(200, response.statusCode());
+        assertEquals(1, response.body().lines().filter(l -> l.startsWith("data:")).count());
+        assertTrue(response.body().contains("\"STOPPED\""));
+        assertEquals(streamsBefore, timerStreamService.getStreamCount());
+    }
+
+    private Long startSession() {
+        Long blockId = blockService.createBlockWithDefaults().getId();
+        return timerService.startBlock(blockId).getSessionId();
+    }
+
+    private HttpRequest request(Long sessionId, Long lastEventId) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/timer/" + sessionId + "/stream"))
+            .timeout(Duration.ofSeconds(10))
+            .GET();
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", Long.toString(lastEventId));
+        }
+        return request.build();
+    }
+
+    private EventReader open(Long sessionId, Long lastEventId) {
+        return new EventReader(http.sendAsync(request(sessionId, lastEventId), HttpResponse.BodyHandlers.ofLines()));
+    }
+
+    /**
+     * Lee las líneas "id:" del stream en un hilo aparte; close() corta la conexión
+     */
+    private static final class EventReader implements AutoCloseable {
+        private final BlockingQueue<Long> ids = new LinkedBlockingQueue<>();
+        private final Thread thread;
+        private volatile Stream<String> lines;
+
+        EventReader(CompletableFuture<HttpResponse<Stream<String>>> response) {
+            thread = Thread.ofVirtual().start(() -> {
+                try {
+                    lines = response.get(10, TimeUnit.SECONDS).body();
+                    lines.filter(l -> l.startsWith("id:"))
+                        .forEach(l -> ids.add(Long.parseLong(l.substring(3).trim())));
+                } catch (Exception e) {
+                    // Conexión cerrada por el test
+                }
+            });
+        }
+
+        long nextId() throws InterruptedException {
+            Long id = ids.poll(10, TimeUnit.SECONDS);
+            assertNotNull(id, "no SSE frame within 10 s");
+            return id;
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            if (lines != null) {
+                lines.close();
+            }
+            thread.interrupt();
+            thread.join(1000);
+        }
+    }
+}
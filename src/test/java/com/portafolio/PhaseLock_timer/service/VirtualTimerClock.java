@@ -0,0 +1,44 @@
+package com.portafolio.PhaseLock_timer.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Reloj virtual para simulaciones: solo avanza cuando se le pide.
+ */
+public class VirtualTimerClock implements TimerClock {
+
+    private final LocalDateTime origin;
+    private long elapsedNanos;
+
+    public VirtualTimerClock(LocalDateTime origin) {
+        this.origin = origin;
+    }
+
+    public void advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("A virtual clock cannot go backwards");
+        }
+        elapsedNanos += duration.toNanos();
+    }
+
+    public void advanceSeconds(long seconds) {
+        advance(Duration.ofSeconds(seconds));
+    }
+
+    @Override
+    public LocalDateTime now() {
+        return origin.plusNanos(elapsedNanos);
+    }
+
+    @Override
+    public long epochMillis() {
+        return now().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public long monotonicNanos() {
+        return elapsedNanos;
+    }
+}